@@ -2,6 +2,8 @@ plugins {
     java
     id("org.springframework.boot") version "3.3.2"
     id("io.spring.dependency-management") version "1.1.6"
+    id("me.champeau.jmh") version "0.7.2"
+    id("org.graalvm.buildtools.native") version "0.10.2" apply false
     jacoco
 }
 
@@ -14,6 +16,27 @@ java {
     }
 }
 
+// Native profile: -Pnative adds Spring AOT processing and the GraalVM nativeCompile task (needs a GraalVM JDK);
+// -Pnative bootBuildImage builds the native container image with buildpacks instead.
+if (providers.gradleProperty("native").isPresent) {
+    apply(plugin = "org.graalvm.buildtools.native")
+    configure<org.graalvm.buildtools.gradle.dsl.GraalVMExtension> {
+        binaries.named("main") {
+            imageName = "appcompras-backend"
+        }
+    }
+    // AOT fixes bean conditions and profiles at build time. Build with no profile, whatever the environment says, so
+    // the JVM-only profiles (fast-start, migrate) never end up in the native image.
+    tasks.withType<org.springframework.boot.gradle.tasks.aot.ProcessAot>().configureEach {
+        args("--spring.profiles.active=")
+    }
+}
+
+// bootRun and dbBenchmark can run on a newer JVM than the one the code targets, e.g. -PruntimeJava=21 for virtual threads.
+val runtimeJavaLauncher = javaToolchains.launcherFor {
+    languageVersion = JavaLanguageVersion.of(providers.gradleProperty("runtimeJava").getOrElse("17"))
+}
+
 repositories {
     mavenCentral()
 }
@@ -26,6 +49,10 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-oauth2-resource-server")
     implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("io.micrometer:micrometer-registry-prometheus")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("org.springframework:spring-context-support")
+    // No-op on regular JDKs; on a CRaC JDK it lets Spring and our resources take part in checkpoint/restore.
+    implementation("org.crac:crac:1.4.0")
     implementation("com.google.cloud:spring-cloud-gcp-starter-trace:2.0.5")
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.6.0")
     implementation("org.flywaydb:flyway-core")
@@ -43,6 +70,51 @@ tasks.withType<Test> {
     useJUnitPlatform()
 }
 
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("benchmark", "startup")
+    }
+}
+
+tasks.named<org.springframework.boot.gradle.tasks.run.BootRun>("bootRun") {
+    javaLauncher = runtimeJavaLauncher
+}
+
+tasks.register<Test>("dbBenchmark") {
+    group = "benchmark"
+    description = "Runs the Testcontainers benchmarks (needs Docker): JDBC round trips per write endpoint and request throughput per thread mode."
+    javaLauncher = runtimeJavaLauncher
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    testLogging {
+        showStandardStreams = true
+    }
+    outputs.upToDateWhen { false }
+}
+
+tasks.register<Test>("startupBenchmark") {
+    group = "benchmark"
+    description = "Boots the boot jar against Testcontainers Postgres (needs Docker) and fails if the median time to ready exceeds -PstartupMaxMedianMs."
+    dependsOn(tasks.bootJar)
+    javaLauncher = runtimeJavaLauncher
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("startup")
+    }
+    systemProperty("startup.jar", tasks.bootJar.get().archiveFile.get().asFile.absolutePath)
+    systemProperty("startup.runs", providers.gradleProperty("startupRuns").getOrElse("5"))
+    systemProperty("startup.maxMedianMs", providers.gradleProperty("startupMaxMedianMs").getOrElse("15000"))
+    systemProperty("startup.profiles", providers.gradleProperty("startupProfiles").getOrElse(""))
+    testLogging {
+        showStandardStreams = true
+    }
+    outputs.upToDateWhen { false }
+}
+
 jacoco {
     toolVersion = "0.8.11"
 }
@@ -55,3 +127,28 @@ tasks.jacocoTestReport {
         html.outputLocation = layout.buildDirectory.dir("reports/jacoco/test/html")
     }
 }
+
+jmh {
+    jmhVersion = "1.37"
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes = listOf(it) }
+}
+
+val jmhCommit = providers.exec {
+    commandLine("git", "rev-parse", "--short", "HEAD")
+    isIgnoreExitValue = true
+}.standardOutput.asText.map { it.trim().ifEmpty { "local" } }
+
+tasks.register<Copy>("jmhJson") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks and keeps the JSON results as build/reports/jmh/history/jmh-<commit>.json."
+    dependsOn(tasks.named("jmh"))
+    from(layout.buildDirectory.file("reports/jmh/results.json"))
+    into(layout.buildDirectory.dir("reports/jmh/history"))
+    rename { "jmh-${jmhCommit.get()}.json" }
+}
@@ -0,0 +1,53 @@
+#!/bin/sh
+set -eu
+
+# CRAC_MODE=on (default): restores from the checkpoint that scripts/crac-bake.sh baked into $CRAC_CHECKPOINT_DIR.
+#   Without a checkpoint, or without the capability CRIU needs to restore (Cloud Run grants none), boots normally.
+# CRAC_MODE=checkpoint: boots, warms up and checkpoints into $CRAC_CHECKPOINT_DIR; the JVM exits once the image is
+#   written. Only the bake step runs this, never a serving container.
+# CRAC_MODE=off: boots normally, for cold-boot comparisons.
+
+CRAC_CHECKPOINT_DIR="${CRAC_CHECKPOINT_DIR:-/crac}"
+CRAC_MODE="${CRAC_MODE:-on}"
+JAVA_OPTS="-XX:+UseSerialGC -XX:TieredStopAtLevel=1 -Djava.security.egd=file:/dev/./urandom"
+
+cold_boot() {
+  exec java $JAVA_OPTS -jar /app/app.jar
+}
+
+has_checkpoint() {
+  ls "$CRAC_CHECKPOINT_DIR"/core-*.img >/dev/null 2>&1
+}
+
+# CAP_CHECKPOINT_RESTORE is bit 40 of the effective set, CAP_SYS_ADMIN (--privileged) bit 21.
+can_restore() {
+  cap_eff=""
+  while read -r key value; do
+    if [ "$key" = "CapEff:" ]; then
+      cap_eff="$value"
+    fi
+  done </proc/self/status
+  [ -n "$cap_eff" ] && [ $(( ((0x$cap_eff >> 40) & 1) | ((0x$cap_eff >> 21) & 1) )) -eq 1 ]
+}
+
+case "$CRAC_MODE" in
+  off)
+    cold_boot
+    ;;
+  checkpoint)
+    mkdir -p "$CRAC_CHECKPOINT_DIR"
+    exec java $JAVA_OPTS -XX:CRaCCheckpointTo="$CRAC_CHECKPOINT_DIR" \
+      -Dapp.crac.checkpoint-after-warmup=true -jar /app/app.jar
+    ;;
+esac
+
+if ! has_checkpoint; then
+  echo "crac-entrypoint: no checkpoint in $CRAC_CHECKPOINT_DIR, booting normally" >&2
+  cold_boot
+fi
+if ! can_restore; then
+  echo "crac-entrypoint: CHECKPOINT_RESTORE is not granted, booting normally" >&2
+  cold_boot
+fi
+
+exec java -XX:CRaCRestoreFrom="$CRAC_CHECKPOINT_DIR"
@@ -0,0 +1,106 @@
+package com.appcompras.benchmark;
+
+import com.appcompras.domain.IngredientCatalogItem;
+import com.appcompras.domain.MeasurementType;
+import com.appcompras.ingredient.IngredientResponse;
+import com.appcompras.ingredient.SeedCatalogJson;
+import com.appcompras.service.IngredientCatalogService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IngredientCatalogBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+
+        IngredientCatalogService catalogService;
+
+        @Setup
+        public void setUp() {
+            catalogService = new IngredientCatalogService(new ObjectMapper());
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class UnfilteredCatalog {
+
+        final ObjectMapper objectMapper = new ObjectMapper();
+        IngredientCatalogService catalogService;
+        SeedCatalogJson seedCatalogJson;
+        List<IngredientResponse> customItems;
+
+        // A user with a few custom ingredients, so the pre-serialized path still has to merge.
+        @Setup
+        public void setUp() {
+            catalogService = new IngredientCatalogService(objectMapper);
+            seedCatalogJson = new SeedCatalogJson(catalogService, objectMapper);
+            catalogService.createCustomIngredient("Zapote", MeasurementType.UNIT);
+            catalogService.createCustomIngredient("Achiote en pasta", MeasurementType.WEIGHT);
+            catalogService.createCustomIngredient("Mamon chino", MeasurementType.UNIT);
+            customItems = catalogService.customItems().stream()
+                    .map(item -> IngredientResponse.from(
+                            item,
+                            catalogService.preferredLabelForItem(item, null),
+                            catalogService.aliasesForItem(item)
+                    ))
+                    .toList();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class RawInput {
+
+        // Raw input as typed in the recipe editor: ids, seed aliases, mixed case and accents.
+        @Param({"rice", "arroz", "Pechuga de Pollo", "cebolla morada", "Azúcar Morena", "aceite de oliva extra virgen"})
+        public String value;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Query {
+
+        // Typeahead prefixes and full words taken from the seed aliases.
+        @Param({"ar", "pol", "chile dulce", "azucar", "harina de", "queso"})
+        public String value;
+    }
+
+    @Benchmark
+    public Optional<String> resolveIngredientId(Catalog catalog, RawInput rawInput) {
+        return catalog.catalogService.resolveIngredientId(rawInput.value);
+    }
+
+    @Benchmark
+    public List<IngredientCatalogItem> list(Catalog catalog, Query query) {
+        return catalog.catalogService.list(query.value);
+    }
+
+    @Benchmark
+    public byte[] unfilteredListSerialized(UnfilteredCatalog catalog) throws JsonProcessingException {
+        IngredientCatalogService catalogService = catalog.catalogService;
+        return catalog.objectMapper.writeValueAsBytes(catalogService.search(null, null).stream()
+                .map(result -> IngredientResponse.from(
+                        result.item(),
+                        result.preferredLabel(),
+                        catalogService.aliasesForItem(result.item())
+                ))
+                .toList());
+    }
+
+    @Benchmark
+    public byte[] unfilteredListPreSerialized(UnfilteredCatalog catalog) {
+        return catalog.seedCatalogJson.render(catalog.customItems, Integer.MAX_VALUE);
+    }
+}
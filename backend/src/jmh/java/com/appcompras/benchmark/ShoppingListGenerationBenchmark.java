@@ -0,0 +1,108 @@
+package com.appcompras.benchmark;
+
+import com.appcompras.domain.IngredientCatalogItem;
+import com.appcompras.domain.MealType;
+import com.appcompras.domain.Recipe;
+import com.appcompras.domain.RecipeIngredient;
+import com.appcompras.domain.ShoppingListItem;
+import com.appcompras.domain.Unit;
+import com.appcompras.service.IngredientCatalogService;
+import com.appcompras.service.ShoppingListService;
+import com.appcompras.service.UnitConversionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ShoppingListGenerationBenchmark {
+
+    private static final int RECIPE_POOL_SIZE = 40;
+    private static final int MIN_INGREDIENTS_PER_RECIPE = 4;
+    private static final int MAX_INGREDIENTS_PER_RECIPE = 10;
+
+    @Param({"7", "14", "90"})
+    public int days;
+
+    private ShoppingListService shoppingListService;
+    private List<Recipe> plannedRecipes;
+
+    @Setup
+    public void setUp() {
+        IngredientCatalogService catalogService = new IngredientCatalogService(new ObjectMapper());
+        shoppingListService = new ShoppingListService(catalogService, new UnitConversionService(catalogService));
+
+        Random random = new Random(42);
+        List<IngredientCatalogItem> ingredients = catalogService.list(null);
+        List<Recipe> pool = new ArrayList<>(RECIPE_POOL_SIZE);
+        for (int i = 0; i < RECIPE_POOL_SIZE; i++) {
+            pool.add(syntheticRecipe(i, ingredients, random));
+        }
+
+        // One recipe per meal slot, drawn from a pool so that plans repeat recipes the way real ones do.
+        plannedRecipes = new ArrayList<>(days * MealType.values().length);
+        for (int day = 0; day < days; day++) {
+            for (int meal = 0; meal < MealType.values().length; meal++) {
+                plannedRecipes.add(pool.get(random.nextInt(pool.size())));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<ShoppingListItem> generateFromRecipes() {
+        return shoppingListService.generateFromRecipes(plannedRecipes);
+    }
+
+    private static Recipe syntheticRecipe(int index, List<IngredientCatalogItem> catalog, Random random) {
+        int ingredientCount = MIN_INGREDIENTS_PER_RECIPE
+                + random.nextInt(MAX_INGREDIENTS_PER_RECIPE - MIN_INGREDIENTS_PER_RECIPE + 1);
+        List<RecipeIngredient> ingredients = new ArrayList<>(ingredientCount);
+        for (int i = 0; i < ingredientCount; i++) {
+            IngredientCatalogItem item = catalog.get(random.nextInt(catalog.size()));
+            Unit unit = recipeUnitFor(item);
+            double quantity = unit == Unit.TO_TASTE ? 1 : 1 + random.nextInt(4) * 0.5;
+            ingredients.add(new RecipeIngredient(item.ingredientId(), quantity, unit));
+        }
+
+        Instant now = Instant.parse("2026-01-01T00:00:00Z");
+        return new Recipe(
+                "bench-" + index,
+                "Receta " + index,
+                MealType.values()[index % MealType.values().length],
+                List.copyOf(ingredients),
+                null,
+                null,
+                Set.of(),
+                0,
+                null,
+                now,
+                now
+        );
+    }
+
+    private static Unit recipeUnitFor(IngredientCatalogItem item) {
+        if (item.allowedUnits().contains(Unit.CUP) && item.densityRules().containsKey(Unit.CUP)) {
+            return Unit.CUP;
+        }
+        return switch (item.measurementType()) {
+            case WEIGHT -> Unit.GRAM;
+            case VOLUME -> item.allowedUnits().contains(Unit.TABLESPOON) ? Unit.TABLESPOON : Unit.MILLILITER;
+            case UNIT -> Unit.PIECE;
+            case TO_TASTE -> item.allowedUnits().contains(Unit.TO_TASTE) ? Unit.TO_TASTE : Unit.PINCH;
+        };
+    }
+}
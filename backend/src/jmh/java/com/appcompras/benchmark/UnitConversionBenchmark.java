@@ -0,0 +1,53 @@
+package com.appcompras.benchmark;
+
+import com.appcompras.domain.Unit;
+import com.appcompras.service.IngredientCatalogService;
+import com.appcompras.service.IngredientConversionTable;
+import com.appcompras.service.UnitConversionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UnitConversionBenchmark {
+
+    // ingredientId:unit pairs covering density rules, fixed volume factors, pieces and TO_TASTE.
+    @Param({"rice:CUP", "chicken:KILOGRAM", "milk:TABLESPOON", "egg:PIECE", "salt:PINCH", "black-pepper:TO_TASTE"})
+    public String conversion;
+
+    private UnitConversionService conversionService;
+    private IngredientConversionTable conversionTable;
+    private String ingredientId;
+    private Unit unit;
+    private double quantity;
+
+    @Setup
+    public void setUp() {
+        conversionService = new UnitConversionService(new IngredientCatalogService(new ObjectMapper()));
+        String[] parts = conversion.split(":");
+        ingredientId = parts[0];
+        unit = Unit.valueOf(parts[1]);
+        quantity = 1.5;
+        conversionTable = conversionService.conversionTableFor(ingredientId);
+    }
+
+    @Benchmark
+    public double toBaseAmount() {
+        return conversionService.toBaseAmount(ingredientId, quantity, unit);
+    }
+
+    @Benchmark
+    public double toBaseAmountResolved() {
+        return conversionTable.toBaseAmount(quantity, unit);
+    }
+}
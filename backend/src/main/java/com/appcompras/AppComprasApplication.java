@@ -1,12 +1,28 @@
 package com.appcompras;
 
+import com.appcompras.config.NativeRuntimeHints;
+import com.appcompras.config.RecordingApplicationStartup;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class AppComprasApplication {
 
+    // Room for every bean of this app with headroom; steps past the capacity are dropped, not the app.
+    private static final int STARTUP_STEP_CAPACITY = 8192;
+
+    // One-shot run mode for the migration job: Flyway runs during startup, then the process exits.
+    static final String MIGRATE_PROFILE = "migrate";
+
     public static void main(String[] args) {
-        SpringApplication.run(AppComprasApplication.class, args);
+        SpringApplication application = new SpringApplication(AppComprasApplication.class);
+        application.setApplicationStartup(new RecordingApplicationStartup(STARTUP_STEP_CAPACITY));
+        ConfigurableApplicationContext context = application.run(args);
+        if (context.getEnvironment().matchesProfiles(MIGRATE_PROFILE)) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 }
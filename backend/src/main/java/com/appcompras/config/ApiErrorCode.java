@@ -3,9 +3,11 @@ package com.appcompras.config;
 public enum ApiErrorCode {
 	INGREDIENT_NOT_FOUND,
 	INVALID_INGREDIENT_UNIT,
+	INVALID_PAGINATION,
 	PLAN_DUPLICATE_SLOT,
 	PLAN_RECIPE_NOT_FOUND,
 	PLAN_SLOT_OUT_OF_RANGE,
+	SHOPPING_ITEM_DUPLICATE_ID,
 	SHOPPING_ITEM_INGREDIENT_REQUIRED,
 	SHOPPING_ITEM_INVALID_PACKAGE_AMOUNT,
 	SHOPPING_ITEM_INVALID_SORT_ORDER,
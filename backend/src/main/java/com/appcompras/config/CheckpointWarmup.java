@@ -0,0 +1,119 @@
+package com.appcompras.config;
+
+import com.appcompras.ingredient.CreateCustomIngredientRequest;
+import com.appcompras.ingredient.IngredientResponse;
+import com.appcompras.planning.CreateMealPlanRequest;
+import com.appcompras.planning.MealPlanResponse;
+import com.appcompras.planning.MealPlanService;
+import com.appcompras.recipe.CreateRecipeRequest;
+import com.appcompras.recipe.RecipeResponse;
+import com.appcompras.recipe.RecipeService;
+import com.appcompras.service.IngredientCatalogService;
+import com.appcompras.shopping.PatchShoppingListItemRequest;
+import com.appcompras.shopping.ShoppingListDeltaResponse;
+import com.appcompras.shopping.ShoppingListDraftService;
+import com.appcompras.shopping.ShoppingListResponse;
+import com.appcompras.shopping.UpdateShoppingListRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.crac.CheckpointException;
+import org.crac.Core;
+import org.crac.RestoreException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Boot that produces the CRaC checkpoint: once the app is ready, runs the hot paths a first request would hit,
+ * then checkpoints. Spring stops Tomcat and suspends the Hikari pool before the checkpoint and starts them again
+ * after restore. If the JVM cannot checkpoint, the app keeps serving as a normal cold boot.
+ */
+@Component
+@ConditionalOnProperty(name = "app.crac.checkpoint-after-warmup", havingValue = "true")
+public class CheckpointWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckpointWarmup.class);
+
+    static final String WARMUP_USER_ID = "crac-warmup";
+
+    // Well-formed but unsigned, with a key id Google never issues: decoding fetches the issuer metadata and JWK set, then fails.
+    private static final String WARMUP_TOKEN = "eyJhbGciOiJSUzI1NiIsImtpZCI6ImNyYWMtd2FybXVwIn0"
+            + ".eyJpc3MiOiJodHRwczovL2FjY291bnRzLmdvb2dsZS5jb20iLCJzdWIiOiJjcmFjLXdhcm11cCJ9"
+            + ".d2FybXVw";
+
+    private static final List<Class<?>> RESPONSE_TYPES = List.of(
+            IngredientResponse.class, RecipeResponse.class, MealPlanResponse.class,
+            ShoppingListResponse.class, ShoppingListDeltaResponse.class, ApiError.class
+    );
+    private static final List<Class<?>> REQUEST_TYPES = List.of(
+            CreateCustomIngredientRequest.class, CreateRecipeRequest.class, CreateMealPlanRequest.class,
+            UpdateShoppingListRequest.class, PatchShoppingListItemRequest.class
+    );
+
+    private final IngredientCatalogService ingredientCatalogService;
+    private final RecipeService recipeService;
+    private final MealPlanService mealPlanService;
+    private final ShoppingListDraftService shoppingListDraftService;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<JwtDecoder> jwtDecoder;
+
+    public CheckpointWarmup(
+            IngredientCatalogService ingredientCatalogService,
+            RecipeService recipeService,
+            MealPlanService mealPlanService,
+            ShoppingListDraftService shoppingListDraftService,
+            ObjectMapper objectMapper,
+            ObjectProvider<JwtDecoder> jwtDecoder
+    ) {
+        this.ingredientCatalogService = ingredientCatalogService;
+        this.recipeService = recipeService;
+        this.mealPlanService = mealPlanService;
+        this.shoppingListDraftService = shoppingListDraftService;
+        this.objectMapper = objectMapper;
+        this.jwtDecoder = jwtDecoder;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpAndCheckpoint() {
+        long start = System.nanoTime();
+        warmUp();
+        log.info("event=crac_warmup durationMs={}", (System.nanoTime() - start) / 1_000_000);
+
+        try {
+            Core.checkpointRestore();
+            log.info("event=crac_restore");
+        } catch (CheckpointException | RestoreException | RuntimeException ex) {
+            log.warn("event=crac_checkpoint_failed message={}", ex.getMessage(), ex);
+        }
+    }
+
+    void warmUp() {
+        // Catalog search plus one keyset page per aggregate: Hibernate query plans, JDBC and the custom-ingredient cache.
+        try (WarmupUser.Scope ignored = WarmupUser.signIn(WARMUP_USER_ID)) {
+            for (String query : WarmupUser.SEARCH_QUERIES) {
+                ingredientCatalogService.search(query, 20);
+            }
+            recipeService.findPage(null, 20, null);
+            mealPlanService.findPage(20, null);
+            shoppingListDraftService.findPage(20, null);
+        }
+
+        // Writers and readers for a type build and cache their (de)serializers eagerly.
+        RESPONSE_TYPES.forEach(objectMapper::writerFor);
+        REQUEST_TYPES.forEach(objectMapper::readerFor);
+
+        jwtDecoder.ifAvailable(decoder -> {
+            try {
+                decoder.decode(WARMUP_TOKEN);
+            } catch (RuntimeException expected) {
+                log.debug("event=crac_warmup_token_rejected message={}", expected.getMessage());
+            }
+        });
+    }
+}
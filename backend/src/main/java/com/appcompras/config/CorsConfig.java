@@ -37,17 +37,19 @@ public class CorsConfig {
     List<String> allowedOrigins = parsedOrigins.isEmpty() ? DEFAULT_ALLOWED_ORIGINS : parsedOrigins;
 
     config.setAllowedOrigins(allowedOrigins);
-    config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+    config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
     config.setAllowedHeaders(List.of(
         "Authorization",
         "Content-Type",
         "X-API-Version",
         "Idempotency-Key",
+        "If-Match",
+        "If-None-Match",
         "X-Requested-With",
         "Accept",
         "Origin"
     ));
-    config.setExposedHeaders(List.of("Location"));
+    config.setExposedHeaders(List.of("Location", "X-Next-Cursor", "ETag"));
     config.setAllowCredentials(true);
     config.setMaxAge(Duration.ofHours(1).getSeconds());
     log.info("CORS allowed origins: {}", allowedOrigins);
@@ -0,0 +1,130 @@
+package com.appcompras.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code fast-start} profile: beans that only serve the API docs, trace export and the Prometheus scrape are marked
+ * lazy, so the app reports ready once the request path (datasource, JPA, security, ingredient catalog) is up. Once
+ * ready, the deferred beans are created in the background on a few threads.
+ * <p>
+ * A deferred bean that an eager bean depends on is still created during startup; the warm-up log line counts those
+ * as {@code alreadyCreated}.
+ * <p>
+ * JVM only: the native image runs bean factory post-processors at build time, which runs with no profile.
+ */
+@Component
+@Profile(DeferredBeanInitializer.PROFILE)
+public class DeferredBeanInitializer implements BeanFactoryPostProcessor, ApplicationListener<ApplicationReadyEvent> {
+
+    public static final String PROFILE = "fast-start";
+
+    private static final Logger log = LoggerFactory.getLogger(DeferredBeanInitializer.class);
+
+    private static final int WARMUP_THREADS = 4;
+
+    // Matched against the bean class, or for @Bean methods the declaring configuration class.
+    static final List<String> DEFERRED_ORIGINS = List.of(
+            "org.springdoc.",
+            "com.appcompras.config.OpenApiConfig",
+            "com.google.cloud.spring.",
+            "org.springframework.boot.actuate.autoconfigure.metrics.export.prometheus.",
+            "io.micrometer.prometheusmetrics.",
+            "io.prometheus."
+    );
+
+    private ConfigurableListableBeanFactory beanFactory;
+    private final List<String> deferredBeanNames = new ArrayList<>();
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+            if (definition.isAbstract() || !definition.isSingleton() || !isDeferred(origin(definition))) {
+                continue;
+            }
+            definition.setLazyInit(true);
+            deferredBeanNames.add(beanName);
+        }
+        log.info("event=deferred_beans_registered count={}", deferredBeanNames.size());
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        // Readiness flips after the ready event's listeners return, so the warm-up must not block here.
+        warmUp();
+    }
+
+    public List<String> deferredBeanNames() {
+        return List.copyOf(deferredBeanNames);
+    }
+
+    /**
+     * Creates every deferred bean that nothing has pulled in yet. A bean that fails is logged and left for its first
+     * use to retry, rather than taking down an instance that already serves traffic.
+     */
+    public CompletableFuture<Void> warmUp() {
+        long startedAt = System.nanoTime();
+        AtomicInteger alreadyCreated = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(WARMUP_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "deferred-init");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<CompletableFuture<Void>> creations = new ArrayList<>();
+        for (String beanName : deferredBeanNames) {
+            if (beanFactory.containsSingleton(beanName)) {
+                alreadyCreated.incrementAndGet();
+                continue;
+            }
+            creations.add(CompletableFuture.runAsync(() -> {
+                try {
+                    beanFactory.getBean(beanName);
+                } catch (RuntimeException ex) {
+                    failed.incrementAndGet();
+                    log.warn("event=deferred_bean_failed bean={} error={}", beanName, ex.getMessage());
+                }
+            }, executor));
+        }
+
+        return CompletableFuture.allOf(creations.toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, ex) -> {
+                    executor.shutdown();
+                    log.info("event=deferred_beans_warmed created={} alreadyCreated={} failed={} durationMs={}",
+                            creations.size() - failed.get(), alreadyCreated.get(), failed.get(),
+                            (System.nanoTime() - startedAt) / 1_000_000);
+                });
+    }
+
+    private String origin(BeanDefinition definition) {
+        if (definition.getBeanClassName() != null) {
+            return definition.getBeanClassName();
+        }
+        String factoryBeanName = definition.getFactoryBeanName();
+        if (factoryBeanName != null && beanFactory.containsBeanDefinition(factoryBeanName)) {
+            return beanFactory.getBeanDefinition(factoryBeanName).getBeanClassName();
+        }
+        return null;
+    }
+
+    static boolean isDeferred(String origin) {
+        return origin != null && DEFERRED_ORIGINS.stream().anyMatch(origin::startsWith);
+    }
+}
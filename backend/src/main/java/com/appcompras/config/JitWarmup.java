@@ -0,0 +1,195 @@
+package com.appcompras.config;
+
+import com.appcompras.domain.MealType;
+import com.appcompras.domain.Recipe;
+import com.appcompras.domain.RecipeIngredient;
+import com.appcompras.domain.ShoppingListItem;
+import com.appcompras.domain.Unit;
+import com.appcompras.ingredient.IngredientResponse;
+import com.appcompras.service.CustomIngredientCache;
+import com.appcompras.service.IngredientCatalogService;
+import com.appcompras.service.ShoppingListService;
+import com.appcompras.service.UnitConversionService;
+import com.appcompras.shopping.ShoppingListDraftItem;
+import com.appcompras.shopping.ShoppingListResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs the hot paths of {@code GET /api/ingredients?q=} and {@code POST /api/shopping-lists/generate} in a loop so
+ * the JIT has compiled them before the first real request. Application runners finish before the app reports
+ * ready, so the readiness probe keeps the instance out of rotation meanwhile. Nothing is written: the calls are
+ * catalog reads, in-memory aggregation and serialization into a discarding stream, under a synthetic user whose
+ * custom-ingredient cache entry is dropped afterwards.
+ * <p>
+ * {@code app.warmup.enabled} is read when the app starts rather than as a bean condition, which the native image
+ * would fix at build time.
+ */
+@Component
+public class JitWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(JitWarmup.class);
+
+    static final String WARMUP_USER_ID = "jit-warmup";
+
+    // Seed ids, names and legacy aliases only: an unknown input would fall through to a database lookup.
+    private static final List<String> RAW_INGREDIENTS = List.of(
+            "rice", "Arroz", "frijoles negros", "Pechuga de Pollo", "ARROZ INTEGRÁL", "sweet-pepper"
+    );
+    private static final List<Recipe> RECIPES = List.of(
+            recipe("warmup-lunch",
+                    new RecipeIngredient("rice", 2, Unit.CUP),
+                    new RecipeIngredient("chicken", 500, Unit.GRAM),
+                    new RecipeIngredient("sweet-pepper", 1, Unit.PIECE)),
+            recipe("warmup-dinner",
+                    new RecipeIngredient("beans", 300, Unit.GRAM),
+                    new RecipeIngredient("rice", 1, Unit.CUP),
+                    new RecipeIngredient("chicken", 250, Unit.GRAM))
+    );
+
+    private final IngredientCatalogService ingredientCatalogService;
+    private final UnitConversionService unitConversionService;
+    private final ShoppingListService shoppingListService;
+    private final CustomIngredientCache customIngredientCache;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration maxDuration;
+
+    public JitWarmup(
+            IngredientCatalogService ingredientCatalogService,
+            UnitConversionService unitConversionService,
+            ShoppingListService shoppingListService,
+            CustomIngredientCache customIngredientCache,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.warmup.enabled:false}") boolean enabled,
+            @Value("${app.warmup.iterations:2000}") int iterations,
+            @Value("${app.warmup.max-duration:PT10S}") Duration maxDuration
+    ) {
+        this.ingredientCatalogService = ingredientCatalogService;
+        this.unitConversionService = unitConversionService;
+        this.shoppingListService = shoppingListService;
+        this.customIngredientCache = customIngredientCache;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Stops after {@code app.warmup.iterations} rounds or {@code app.warmup.max-duration}, whichever comes first.
+     * A failure ends the warm-up early but never the startup.
+     */
+    WarmupResult warmUp() {
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + maxDuration.toNanos();
+        int completed = 0;
+        String outcome = "completed";
+        long checksum = 0;
+
+        try (WarmupUser.Scope ignored = WarmupUser.signIn(WARMUP_USER_ID)) {
+            while (completed < iterations) {
+                if (System.nanoTime() > deadline) {
+                    outcome = "deadline";
+                    break;
+                }
+                checksum += iteration(completed);
+                completed++;
+            }
+        } catch (RuntimeException ex) {
+            outcome = "failed";
+            log.warn("event=jit_warmup_failed iteration={} message={}", completed, ex.getMessage(), ex);
+        } finally {
+            customIngredientCache.invalidate(WARMUP_USER_ID);
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        Timer.builder("appcompras.warmup.duration")
+                .description("Time spent in the JIT warm-up before the app reports ready")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsed);
+        Counter.builder("appcompras.warmup.iterations")
+                .description("Warm-up rounds completed through the ingredient search and shopping-list generation paths")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment(completed);
+        log.info("event=jit_warmup outcome={} iterations={} durationMs={} checksum={}",
+                outcome, completed, elapsed.toMillis(), checksum);
+        return new WarmupResult(outcome, completed, elapsed);
+    }
+
+    // Returns a value derived from every result so the JIT cannot drop the calls as dead code.
+    private long iteration(int round) {
+        String query = WarmupUser.SEARCH_QUERIES.get(round % WarmupUser.SEARCH_QUERIES.size());
+        List<IngredientResponse> ingredients = ingredientCatalogService.search(query, 20).stream()
+                .map(result -> IngredientResponse.from(
+                        result.item(),
+                        result.preferredLabel(),
+                        ingredientCatalogService.aliasesForItem(result.item())
+                ))
+                .toList();
+        long checksum = ingredientCatalogService.list(query).size();
+
+        for (String raw : RAW_INGREDIENTS) {
+            checksum += ingredientCatalogService.resolveIngredientId(raw).map(String::length).orElse(0);
+        }
+        for (Recipe recipe : RECIPES) {
+            for (RecipeIngredient ingredient : recipe.ingredients()) {
+                checksum += (long) unitConversionService.toBaseAmount(
+                        ingredient.ingredientId(), ingredient.quantity(), ingredient.unit());
+            }
+        }
+
+        List<ShoppingListItem> generated = shoppingListService.generateFromRecipes(RECIPES);
+        List<ShoppingListDraftItem> draftItems = new ArrayList<>(generated.size());
+        for (int i = 0; i < generated.size(); i++) {
+            draftItems.add(ShoppingListDraftItem.fromGenerated(generated.get(i), i));
+        }
+        Instant now = Instant.now();
+        ShoppingListResponse shoppingList = new ShoppingListResponse(WARMUP_USER_ID, WARMUP_USER_ID, draftItems, now, now);
+
+        try {
+            objectMapper.writeValue(OutputStream.nullOutputStream(), ingredients);
+            objectMapper.writeValue(OutputStream.nullOutputStream(), shoppingList);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return checksum + draftItems.size();
+    }
+
+    private static Recipe recipe(String id, RecipeIngredient... ingredients) {
+        Instant createdAt = Instant.EPOCH;
+        return new Recipe(id, id, MealType.LUNCH, List.of(ingredients), null, null, Set.of(), 0, null, createdAt, createdAt);
+    }
+
+    record WarmupResult(String outcome, int iterations, Duration elapsed) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.appcompras.config;
+
+import com.appcompras.ingredient.IngredientResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Native-image hints for what Spring AOT cannot see in bean definitions and controller signatures.
+ * JPA entities, repositories and typed request/response bodies are registered by AOT processing itself.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Read through ClassPathResource when IngredientCatalogService starts.
+        hints.resources().registerPattern("seed/*.json");
+        // Flyway lists this location at startup; a native image has no classpath directory to scan.
+        hints.resources().registerPattern("db/migration/*.sql");
+        // Swagger UI is served from the springdoc webjar, whose files sit under a version directory.
+        hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/**");
+
+        // Serialized outside typed controller return values: GET /api/ingredients returns ResponseEntity<?>
+        // and SeedCatalogJson writes the entries itself; the filters write ApiError straight to the response.
+        new BindingReflectionHintsRegistrar().registerReflectionHints(
+                hints.reflection(),
+                IngredientResponse.class,
+                ApiError.class
+        );
+    }
+}
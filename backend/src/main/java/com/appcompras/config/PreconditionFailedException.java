@@ -0,0 +1,8 @@
+package com.appcompras.config;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,108 @@
+package com.appcompras.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the startup timeline for {@code /actuator/startup} and also emits every step as a JFR event, so a
+ * recording started with {@code -XX:StartFlightRecording} shows the same phases next to GC and class loading.
+ * Spring only takes one {@code ApplicationStartup}, and the actuator endpoint needs the buffering one.
+ */
+public class RecordingApplicationStartup extends BufferingApplicationStartup {
+
+    public RecordingApplicationStartup(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    public StartupStep start(String name) {
+        return new JfrStartupStep(super.start(name));
+    }
+
+    private static final class JfrStartupStep implements StartupStep {
+
+        private final StartupStep delegate;
+        private final StartupStepEvent event = new StartupStepEvent();
+
+        private JfrStartupStep(StartupStep delegate) {
+            this.delegate = delegate;
+            event.begin();
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public long getId() {
+            return delegate.getId();
+        }
+
+        @Override
+        public Long getParentId() {
+            return delegate.getParentId();
+        }
+
+        @Override
+        public StartupStep tag(String key, String value) {
+            delegate.tag(key, value);
+            return this;
+        }
+
+        @Override
+        public StartupStep tag(String key, Supplier<String> value) {
+            delegate.tag(key, value);
+            return this;
+        }
+
+        @Override
+        public Tags getTags() {
+            return delegate.getTags();
+        }
+
+        @Override
+        public void end() {
+            event.end();
+            if (event.shouldCommit()) {
+                event.stepId = delegate.getId();
+                event.parentId = delegate.getParentId() == null ? -1 : delegate.getParentId();
+                event.name = delegate.getName();
+                StringJoiner tags = new StringJoiner(", ");
+                delegate.getTags().forEach(tag -> tags.add(tag.getKey() + "=" + tag.getValue()));
+                event.tags = tags.toString();
+                event.commit();
+            }
+            delegate.end();
+        }
+    }
+
+    @Name("com.appcompras.StartupStep")
+    @Label("Startup Step")
+    @Description("Spring application startup step")
+    @Category({"AppCompras", "Startup"})
+    @StackTrace(false)
+    static final class StartupStepEvent extends Event {
+
+        @Label("Step Id")
+        long stepId;
+
+        @Label("Parent Id")
+        long parentId;
+
+        @Label("Name")
+        String name;
+
+        @Label("Tags")
+        String tags;
+    }
+}
@@ -0,0 +1,63 @@
+package com.appcompras.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationInfoService;
+import org.flywaydb.core.api.MigrationState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Decides at runtime what Flyway does on boot. With {@code app.migrate-on-boot} it migrates as usual. Without it,
+ * as in prod where migrations run as a separate job, it only compares the applied migrations with the ones packaged
+ * in this build. It refuses to start on a database that is behind or whose newest migration failed. A database that
+ * is ahead is accepted, since the job for the next release runs while the current revision still serves.
+ * <p>
+ * A property condition on the Flyway beans would be fixed when the native image is built; this bean reads the flag
+ * when the app starts, and Flyway resolves the packaged migrations itself, also in the native image.
+ */
+@Component
+public class SchemaVersionCheck implements FlywayMigrationStrategy {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaVersionCheck.class);
+
+    private static final String RUN_MIGRATE_JOB = "run the migrate job (SPRING_PROFILES_ACTIVE=migrate)";
+
+    private final boolean migrateOnBoot;
+
+    public SchemaVersionCheck(@Value("${app.migrate-on-boot:true}") boolean migrateOnBoot) {
+        this.migrateOnBoot = migrateOnBoot;
+    }
+
+    @Override
+    public void migrate(Flyway flyway) {
+        if (migrateOnBoot) {
+            flyway.migrate();
+            return;
+        }
+        check(flyway.info());
+    }
+
+    static void check(MigrationInfoService info) {
+        MigrationInfo current = info.current();
+        if (current == null || current.getVersion() == null) {
+            throw new IllegalStateException("No applied migrations in flyway_schema_history; " + RUN_MIGRATE_JOB + " first");
+        }
+        MigrationInfo[] all = info.all();
+        if (Arrays.stream(all).anyMatch(migration -> migration.getState().isFailed())) {
+            throw new IllegalStateException("A migration in flyway_schema_history failed; fix it and " + RUN_MIGRATE_JOB);
+        }
+        MigrationInfo[] pending = info.pending();
+        if (pending.length > 0) {
+            throw new IllegalStateException("Database schema is at version " + current.getVersion() + " but this build needs "
+                    + pending[pending.length - 1].getVersion() + "; " + RUN_MIGRATE_JOB + " before deploying");
+        }
+        boolean ahead = Arrays.stream(all).anyMatch(migration -> migration.getState() == MigrationState.FUTURE_SUCCESS);
+        log.info("event=schema_version_check outcome={} applied={}", ahead ? "ahead" : "current", current.getVersion());
+    }
+}
@@ -0,0 +1,38 @@
+package com.appcompras.config;
+
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.List;
+
+/**
+ * Synthetic caller for the startup warm-ups ({@link CheckpointWarmup}, {@link JitWarmup}), so per-user code paths
+ * run without a real token and without touching a real user's data.
+ */
+final class WarmupUser {
+
+    // Typeahead prefixes and full names from the seed catalog; the empty query is the unfiltered list.
+    static final List<String> SEARCH_QUERIES = List.of("arr", "pollo", "chile dulce", "tomate", "leche", "");
+
+    private WarmupUser() {
+    }
+
+    /**
+     * Authenticates the current thread as {@code userId} until the returned scope is closed.
+     */
+    static Scope signIn(String userId) {
+        Jwt jwt = Jwt.withTokenValue(userId)
+                .header("alg", "none")
+                .subject(userId)
+                .build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+        return SecurityContextHolder::clearContext;
+    }
+
+    interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,95 @@
+package com.appcompras.http;
+
+import com.appcompras.config.PreconditionFailedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.function.Supplier;
+
+/**
+ * Strong entity tags derived from a resource id and its {@code updatedAt}, so a conditional request
+ * can be answered from a single {@code updated_at} projection instead of loading the aggregate.
+ */
+public final class EntityTags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private static final String CHANGED_MESSAGE = "Resource has changed since it was read, reload and retry";
+
+    private EntityTags() {
+    }
+
+    public static String of(String id, Instant updatedAt) {
+        long epochMicros = ChronoUnit.MICROS.between(Instant.EPOCH, updatedAt);
+        return "\"" + id + "-" + Long.toString(epochMicros, 36) + "\"";
+    }
+
+    /**
+     * Weak comparison as required for {@code If-None-Match}; {@code *} matches any current representation.
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        return ifNoneMatch != null && matches(ifNoneMatch, etag, true);
+    }
+
+    /**
+     * Strong comparison for {@code If-Match}; a missing header means the client did not ask for a precondition.
+     */
+    public static void requireIfMatch(String ifMatch, String id, Instant updatedAt) {
+        if (ifMatch != null && !matches(ifMatch, of(id, updatedAt), false)) {
+            throw new PreconditionFailedException(CHANGED_MESSAGE);
+        }
+    }
+
+    /**
+     * Runs the flushed write that follows {@link #requireIfMatch}. The header is checked against the row as loaded;
+     * the row's version is checked when it is written, so a concurrent writer that passed the same check loses here.
+     * That loss is a failed precondition when the client sent {@code If-Match}, and a plain conflict otherwise.
+     */
+    public static <T> T writeIfMatch(String ifMatch, Supplier<T> flushedWrite) {
+        try {
+            return flushedWrite.get();
+        } catch (OptimisticLockingFailureException ex) {
+            if (ifMatch == null) {
+                throw ex;
+            }
+            throw new PreconditionFailedException(CHANGED_MESSAGE);
+        }
+    }
+
+    public static <T> ResponseEntity<T> ok(String etag, T body) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(body);
+    }
+
+    public static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .build();
+    }
+
+    private static boolean matches(String header, String etag, boolean weak) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith(WEAK_PREFIX)) {
+                if (!weak) {
+                    continue;
+                }
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
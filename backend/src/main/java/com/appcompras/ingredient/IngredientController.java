@@ -1,20 +1,32 @@
 package com.appcompras.ingredient;
 
 import com.appcompras.domain.IngredientCatalogItem;
+import com.appcompras.http.EntityTags;
 import com.appcompras.service.IngredientCatalogService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -23,24 +35,80 @@ import java.util.List;
 public class IngredientController {
 
     private final IngredientCatalogService ingredientCatalogService;
+    private final SeedCatalogJson seedCatalogJson;
+    private final Duration httpMaxAge;
 
-    public IngredientController(IngredientCatalogService ingredientCatalogService) {
+    public IngredientController(
+            IngredientCatalogService ingredientCatalogService,
+            SeedCatalogJson seedCatalogJson,
+            @Value("${app.ingredients.http-max-age:PT10M}") Duration httpMaxAge
+    ) {
         this.ingredientCatalogService = ingredientCatalogService;
+        this.seedCatalogJson = seedCatalogJson;
+        this.httpMaxAge = httpMaxAge;
     }
 
+    /**
+     * The result only depends on the seed catalog version and the caller's custom ingredients, so the ETag is
+     * built from both and a matching If-None-Match is answered before searching or serializing anything.
+     * The unfiltered list is assembled from the seed entries serialized at startup.
+     */
     @GetMapping
-    @Operation(summary = "List ingredient catalog")
-    public List<IngredientResponse> listIngredients(
+    @Operation(summary = "List ingredient catalog", description = "Send the last ETag in If-None-Match to get 304 while the catalog is unchanged.")
+    @ApiResponse(responseCode = "200", content = @Content(
+            mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = IngredientResponse.class))))
+    public ResponseEntity<?> listIngredients(
             @Parameter(description = "Optional search text by id/name/alias", example = "arroz")
-            @RequestParam(required = false) String q
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Optional max number of results (1-100), ranked exact > prefix > infix; omit for every match", example = "10")
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
-        return ingredientCatalogService.list(q).stream()
-                .map(item -> IngredientResponse.from(
-                        item,
-                        ingredientCatalogService.preferredLabelForItem(item, q),
-                        ingredientCatalogService.aliasesForItem(item)
+        long customGeneration = ingredientCatalogService.customCatalogGeneration();
+        // Weak: the gzip and identity bodies of the same list share one tag.
+        String etag = "\"ingredients-" + ingredientCatalogService.catalogVersion() + "-" + customGeneration + "\"";
+        // Only the anonymous seed-only list is the same for everyone; anything with custom items stays private.
+        CacheControl cacheControl = authorization == null && customGeneration == 0
+                ? CacheControl.maxAge(httpMaxAge).cachePublic()
+                : CacheControl.noCache().cachePrivate();
+
+        if (EntityTags.matchesIfNoneMatch(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag("W/" + etag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .eTag("W/" + etag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT_ENCODING);
+
+        if (q == null || q.isBlank()) {
+            int maxResults = IngredientCatalogService.maxResults(limit);
+            List<IngredientResponse> customItems = ingredientCatalogService.customItems().stream()
+                    .map(this::toResponse)
+                    .toList();
+            ok.contentType(MediaType.APPLICATION_JSON);
+            if (customItems.isEmpty() && maxResults >= seedCatalogJson.seedCount() && acceptsGzip(acceptEncoding)) {
+                return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(seedCatalogJson.seedOnlyGzip());
+            }
+            return ok.body(seedCatalogJson.render(customItems, maxResults));
+        }
+
+        return ok.body(ingredientCatalogService.search(q, limit).stream()
+                .map(result -> IngredientResponse.from(
+                        result.item(),
+                        result.preferredLabel(),
+                        ingredientCatalogService.aliasesForItem(result.item())
                 ))
-                .toList();
+                .toList());
     }
 
     @PostMapping("/custom")
@@ -51,10 +119,27 @@ public class IngredientController {
                 request.name(),
                 request.measurementType()
         );
+        return toResponse(item);
+    }
+
+    private IngredientResponse toResponse(IngredientCatalogItem item) {
         return IngredientResponse.from(
                 item,
                 ingredientCatalogService.preferredLabelForItem(item, null),
                 ingredientCatalogService.aliasesForItem(item)
         );
     }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
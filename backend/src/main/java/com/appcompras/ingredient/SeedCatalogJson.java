@@ -0,0 +1,110 @@
+package com.appcompras.ingredient;
+
+import com.appcompras.service.IngredientCatalogService;
+import com.appcompras.service.IngredientSearchResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON body of the unfiltered {@code GET /api/ingredients}. The seed part only changes with the catalog version,
+ * so every seed entry is serialized once at startup and only the caller's custom items are serialized per request.
+ */
+@Component
+public class SeedCatalogJson {
+
+    private final ObjectMapper objectMapper;
+    private final String[] seedNames;
+    private final byte[][] seedEntries;
+    private final byte[] seedOnly;
+    private final byte[] seedOnlyGzip;
+
+    public SeedCatalogJson(IngredientCatalogService ingredientCatalogService, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        List<IngredientSearchResult> seed = ingredientCatalogService.seedCatalog();
+        this.seedNames = new String[seed.size()];
+        this.seedEntries = new byte[seed.size()][];
+        for (int i = 0; i < seed.size(); i++) {
+            IngredientSearchResult result = seed.get(i);
+            seedNames[i] = result.item().displayName();
+            seedEntries[i] = serialize(IngredientResponse.from(
+                    result.item(),
+                    result.preferredLabel(),
+                    ingredientCatalogService.aliasesForItem(result.item())
+            ));
+        }
+        this.seedOnly = render(List.of(), Integer.MAX_VALUE);
+        this.seedOnlyGzip = gzip(seedOnly);
+    }
+
+    public int seedCount() {
+        return seedEntries.length;
+    }
+
+    public byte[] seedOnly() {
+        return seedOnly;
+    }
+
+    public byte[] seedOnlyGzip() {
+        return seedOnlyGzip;
+    }
+
+    /**
+     * Merges the custom items into the seed entries by name, seed first on ties, in the same order
+     * {@link IngredientCatalogService#search(String, Integer)} returns for an empty query.
+     */
+    public byte[] render(List<IngredientResponse> customItems, int maxResults) {
+        if (customItems.isEmpty() && maxResults >= seedEntries.length && seedOnly != null) {
+            return seedOnly;
+        }
+
+        List<IngredientResponse> custom = customItems.stream()
+                .sorted(Comparator.comparing(IngredientResponse::name))
+                .toList();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(seedOnly == null ? 16_384 : seedOnly.length + 512 * custom.size());
+        out.write('[');
+        int seedIndex = 0;
+        int customIndex = 0;
+        int written = 0;
+        while (written < maxResults && (seedIndex < seedEntries.length || customIndex < custom.size())) {
+            byte[] entry;
+            if (customIndex < custom.size()
+                    && (seedIndex == seedEntries.length || custom.get(customIndex).name().compareTo(seedNames[seedIndex]) < 0)) {
+                entry = serialize(custom.get(customIndex++));
+            } else {
+                entry = seedEntries[seedIndex++];
+            }
+            if (written++ > 0) {
+                out.write(',');
+            }
+            out.writeBytes(entry);
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    private byte[] serialize(IngredientResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize ingredient " + response.id(), ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,40 @@
+package com.appcompras.paging;
+
+import com.appcompras.config.ApiErrorCode;
+import com.appcompras.config.BusinessRuleException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a page ordered by {@code (created_at DESC, id ASC)}.
+ * Clients treat the encoded form as opaque and send it back unchanged.
+ */
+public record KeysetCursor(Instant createdAt, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw invalid(cursor);
+            }
+            return new KeysetCursor(Instant.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw invalid(cursor);
+        }
+    }
+
+    private static BusinessRuleException invalid(String cursor) {
+        return new BusinessRuleException(ApiErrorCode.INVALID_PAGINATION, "Invalid page cursor: " + cursor);
+    }
+}
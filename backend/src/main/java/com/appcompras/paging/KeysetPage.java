@@ -0,0 +1,57 @@
+package com.appcompras.paging;
+
+import com.appcompras.config.ApiErrorCode;
+import com.appcompras.config.BusinessRuleException;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing; {@code nextCursor} is null on the last page.
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 100;
+
+    public static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BusinessRuleException(
+                    ApiErrorCode.INVALID_PAGINATION,
+                    "limit must be between 1 and " + MAX_LIMIT + ", got: " + limit
+            );
+        }
+        return limit;
+    }
+
+    /**
+     * Builds a page from a query that fetched {@code limit + 1} rows; the extra row only signals that more exist.
+     */
+    public static <E, T> KeysetPage<T> fromOverfetched(
+            List<E> rows,
+            int limit,
+            Function<E, KeysetCursor> cursorOf,
+            Function<E, T> mapper
+    ) {
+        List<E> pageRows = rows.size() > limit ? rows.subList(0, limit) : rows;
+        String nextCursor = rows.size() > limit ? cursorOf.apply(pageRows.get(limit - 1)).encode() : null;
+        return new KeysetPage<>(pageRows.stream().map(mapper).toList(), nextCursor);
+    }
+
+    public <R> KeysetPage<R> map(Function<T, R> mapper) {
+        return new KeysetPage<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(items);
+    }
+}
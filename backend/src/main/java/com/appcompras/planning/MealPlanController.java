@@ -1,20 +1,27 @@
 package com.appcompras.planning;
 
+import com.appcompras.http.EntityTags;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -37,27 +44,52 @@ public class MealPlanController {
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get meal plan by id")
-    public MealPlanResponse getPlanById(@PathVariable String id) {
+    @Operation(summary = "Get meal plan by id", description = "Send the last ETag in If-None-Match to get 304 when the plan is unchanged.")
+    public ResponseEntity<MealPlanResponse> getPlanById(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        if (ifNoneMatch != null) {
+            Instant updatedAt = mealPlanService.findUpdatedAt(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Plan not found"));
+            String etag = EntityTags.of(id, updatedAt);
+            if (EntityTags.matchesIfNoneMatch(ifNoneMatch, etag)) {
+                return EntityTags.notModified(etag);
+            }
+        }
         MealPlan plan = mealPlanService.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Plan not found"));
-        return MealPlanResponse.from(plan);
+        return EntityTags.ok(EntityTags.of(plan.id(), plan.updatedAt()), MealPlanResponse.from(plan));
     }
 
     @GetMapping
-    @Operation(summary = "List meal plans")
-    public List<MealPlanResponse> getPlans() {
-        return mealPlanService.findAll().stream()
+    @Operation(summary = "List meal plans", description = "Newest first. Pass limit or cursor to page; the next cursor is returned in X-Next-Cursor.")
+    public ResponseEntity<List<MealPlanResponse>> getPlans(
+            @Parameter(description = "Optional page size (1-100, default 50 when paging)", example = "20")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Opaque cursor from a previous X-Next-Cursor header")
+            @RequestParam(required = false) String cursor
+    ) {
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(mealPlanService.findAll().stream()
+                    .map(MealPlanResponse::from)
+                    .toList());
+        }
+        return mealPlanService.findPage(limit, cursor)
                 .map(MealPlanResponse::from)
-                .toList();
+                .toResponseEntity();
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update meal plan")
-    public MealPlanResponse updatePlan(@PathVariable String id, @Valid @RequestBody CreateMealPlanRequest request) {
-        MealPlan plan = mealPlanService.update(id, request)
+    @Operation(summary = "Update meal plan", description = "Send the ETag in If-Match to get 412 instead of overwriting a newer version.")
+    public ResponseEntity<MealPlanResponse> updatePlan(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody CreateMealPlanRequest request
+    ) {
+        MealPlan plan = mealPlanService.update(id, request, ifMatch)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Plan not found"));
-        return MealPlanResponse.from(plan);
+        return EntityTags.ok(EntityTags.of(plan.id(), plan.updatedAt()), MealPlanResponse.from(plan));
     }
 
     @DeleteMapping("/{id}")
@@ -8,18 +8,32 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.MapKeyColumn;
 import jakarta.persistence.OrderColumn;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Entity
 @Table(name = "meal_plans")
+@NamedEntityGraph(name = MealPlanEntity.WITH_SLOTS_GRAPH, attributeNodes = @NamedAttributeNode("slots"))
 public class MealPlanEntity {
 
+    public static final String WITH_SLOTS_GRAPH = "MealPlanEntity.withSlots";
+
+    // Sized to a full keyset page so listing plans loads their slots in a single select.
+    static final int COLLECTION_BATCH_SIZE = 100;
+
     @Id
     @Column(nullable = false, length = 36)
     private String id;
@@ -38,16 +52,32 @@ public class MealPlanEntity {
     private PlanPeriod period;
 
     @ElementCollection
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @CollectionTable(name = "meal_plan_slots", joinColumns = @JoinColumn(name = "plan_id"))
     @OrderColumn(name = "position")
     private List<MealPlanSlotEmbeddable> slots = new ArrayList<>();
 
+    @ElementCollection
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
+    @CollectionTable(name = "meal_plan_ingredient_totals", joinColumns = @JoinColumn(name = "plan_id"))
+    @MapKeyColumn(name = "ingredient_id", length = 128)
+    @Column(name = "base_amount", nullable = false)
+    private Map<String, Double> ingredientTotals = new HashMap<>();
+
+    @Column(name = "ingredient_totals_at")
+    private Instant ingredientTotalsAt;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    // The ingredient totals are changed in place, so a concurrent edit that loaded the same totals must fail.
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public String getId() {
         return id;
     }
@@ -96,6 +126,22 @@ public class MealPlanEntity {
         this.slots = slots;
     }
 
+    public Map<String, Double> getIngredientTotals() {
+        return ingredientTotals;
+    }
+
+    public void setIngredientTotals(Map<String, Double> ingredientTotals) {
+        this.ingredientTotals = ingredientTotals;
+    }
+
+    public Instant getIngredientTotalsAt() {
+        return ingredientTotalsAt;
+    }
+
+    public void setIngredientTotalsAt(Instant ingredientTotalsAt) {
+        this.ingredientTotalsAt = ingredientTotalsAt;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -104,11 +150,16 @@ public class MealPlanEntity {
         this.createdAt = createdAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Instant getUpdatedAt() {
         return updatedAt;
     }
 
+    // Kept at the column's microsecond precision so an ETag built before the flush matches one built after a reload.
     public void setUpdatedAt(Instant updatedAt) {
-        this.updatedAt = updatedAt;
+        this.updatedAt = updatedAt == null ? null : updatedAt.truncatedTo(ChronoUnit.MICROS);
     }
 }
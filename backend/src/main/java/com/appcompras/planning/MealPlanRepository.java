@@ -1,15 +1,52 @@
 package com.appcompras.planning;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 public interface MealPlanRepository extends JpaRepository<MealPlanEntity, String> {
 
+    @EntityGraph(MealPlanEntity.WITH_SLOTS_GRAPH)
     Optional<MealPlanEntity> findByIdAndUserId(String id, String userId);
 
     boolean existsByIdAndUserId(String id, String userId);
 
+    @Query("select p.updatedAt from MealPlanEntity p where p.id = :id and p.userId = :userId")
+    Optional<Instant> findUpdatedAt(@Param("id") String id, @Param("userId") String userId);
+
     List<MealPlanEntity> findAllByUserIdOrderByCreatedAtDescIdAsc(String userId);
+
+    List<MealPlanEntity> findAllByUserIdOrderByCreatedAtDescIdAsc(String userId, Limit limit);
+
+    @Query("""
+            select p from MealPlanEntity p
+            where p.userId = :userId
+              and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id > :id))
+            order by p.createdAt desc, p.id asc
+            """)
+    List<MealPlanEntity> findPageAfter(
+            @Param("userId") String userId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") String id,
+            Limit limit
+    );
+
+    // Totals were aggregated from the recipe's previous ingredients; the next plan edit rebuilds them. The version
+    // bump makes a plan edit that loaded the old totals fail instead of writing them back as current. Pending changes
+    // are flushed first and the persistence context is cleared after, so no plan loaded earlier in this transaction
+    // keeps the old totals.
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+            update MealPlanEntity p set p.ingredientTotalsAt = null, p.version = p.version + 1
+            where p.userId = :userId
+              and p.id in (select mp.id from MealPlanEntity mp join mp.slots s where s.recipeId = :recipeId)
+            """)
+    int clearIngredientTotalsForRecipe(@Param("userId") String userId, @Param("recipeId") String recipeId);
 }
@@ -2,17 +2,26 @@ package com.appcompras.planning;
 
 import com.appcompras.config.ApiErrorCode;
 import com.appcompras.config.BusinessRuleException;
+import com.appcompras.http.EntityTags;
+import com.appcompras.paging.KeysetCursor;
+import com.appcompras.paging.KeysetPage;
 import com.appcompras.security.CurrentUserProvider;
+import com.appcompras.recipe.RecipeIngredientsChangedEvent;
 import com.appcompras.recipe.RecipeService;
+import com.appcompras.shopping.ShoppingListRecomputationService;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -21,15 +30,24 @@ public class MealPlanService {
     private final MealPlanRepository mealPlanRepository;
     private final RecipeService recipeService;
     private final CurrentUserProvider currentUserProvider;
+    private final ShoppingListRecomputationService shoppingListRecomputationService;
 
     public MealPlanService(
             MealPlanRepository mealPlanRepository,
             RecipeService recipeService,
-            CurrentUserProvider currentUserProvider
+            CurrentUserProvider currentUserProvider,
+            ShoppingListRecomputationService shoppingListRecomputationService
     ) {
         this.mealPlanRepository = mealPlanRepository;
         this.recipeService = recipeService;
         this.currentUserProvider = currentUserProvider;
+        this.shoppingListRecomputationService = shoppingListRecomputationService;
+    }
+
+    // Runs in the recipe update's transaction, so plans and recipe change together.
+    @EventListener
+    public void onRecipeIngredientsChanged(RecipeIngredientsChangedEvent event) {
+        mealPlanRepository.clearIngredientTotalsForRecipe(event.userId(), event.recipeId());
     }
 
     @Transactional
@@ -49,17 +67,28 @@ public class MealPlanService {
         entity.setUpdatedAt(plan.updatedAt());
 
         MealPlanEntity saved = mealPlanRepository.save(entity);
-        applyUsageDelta(List.of(), plan.slots());
+        Map<String, Integer> nextCountByRecipe = countByRecipe(plan.slots());
+        applyUsageDelta(Map.of(), nextCountByRecipe);
+        shoppingListRecomputationService.applyPlanChange(saved, Map.of(), nextCountByRecipe);
         return MealPlanEntityMapper.toDomain(saved);
     }
 
     @Transactional
     public Optional<MealPlan> update(String id, CreateMealPlanRequest request) {
+        return update(id, request, null);
+    }
+
+    /**
+     * Replaces the plan; a non-null {@code ifMatch} must match the current entity tag.
+     */
+    @Transactional
+    public Optional<MealPlan> update(String id, CreateMealPlanRequest request, String ifMatch) {
         String userId = currentUserProvider.getCurrentUserId();
         Optional<MealPlanEntity> existingOpt = mealPlanRepository.findByIdAndUserId(id, userId);
         if (existingOpt.isEmpty()) {
             return Optional.empty();
         }
+        EntityTags.requireIfMatch(ifMatch, id, existingOpt.get().getUpdatedAt());
 
         MealPlanEntity existing = existingOpt.get();
         List<PlannedMealSlot> previousSlots = MealPlanEntityMapper.toDomain(existing).slots();
@@ -72,8 +101,11 @@ public class MealPlanService {
         existing.setSlots(MealPlanEntityMapper.toEmbeddables(next.slots()));
         existing.setUpdatedAt(next.updatedAt());
 
-        MealPlanEntity saved = mealPlanRepository.save(existing);
-        applyUsageDelta(previousSlots, next.slots());
+        MealPlanEntity saved = EntityTags.writeIfMatch(ifMatch, () -> mealPlanRepository.saveAndFlush(existing));
+        Map<String, Integer> previousCountByRecipe = countByRecipe(previousSlots);
+        Map<String, Integer> nextCountByRecipe = countByRecipe(next.slots());
+        applyUsageDelta(previousCountByRecipe, nextCountByRecipe);
+        shoppingListRecomputationService.applyPlanChange(saved, previousCountByRecipe, nextCountByRecipe);
         return Optional.of(MealPlanEntityMapper.toDomain(saved));
     }
 
@@ -85,6 +117,28 @@ public class MealPlanService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public KeysetPage<MealPlan> findPage(Integer limit, String cursor) {
+        String userId = currentUserProvider.getCurrentUserId();
+        int pageSize = KeysetPage.resolveLimit(limit);
+        Limit overfetch = Limit.of(pageSize + 1);
+
+        List<MealPlanEntity> entities;
+        if (cursor == null) {
+            entities = mealPlanRepository.findAllByUserIdOrderByCreatedAtDescIdAsc(userId, overfetch);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            entities = mealPlanRepository.findPageAfter(userId, after.createdAt(), after.id(), overfetch);
+        }
+
+        return KeysetPage.fromOverfetched(
+                entities,
+                pageSize,
+                entity -> new KeysetCursor(entity.getCreatedAt(), entity.getId()),
+                MealPlanEntityMapper::toDomain
+        );
+    }
+
     @Transactional
     public boolean deleteById(String id) {
         String userId = currentUserProvider.getCurrentUserId();
@@ -103,6 +157,15 @@ public class MealPlanService {
                 .map(MealPlanEntityMapper::toDomain);
     }
 
+    /**
+     * Last modification time of the plan without loading its slots, for answering conditional requests.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Instant> findUpdatedAt(String id) {
+        String userId = currentUserProvider.getCurrentUserId();
+        return mealPlanRepository.findUpdatedAt(id, userId);
+    }
+
     private MealPlan buildPlan(String id, CreateMealPlanRequest request, Instant createdAt, Instant updatedAt) {
         LocalDate endDate = endDateFor(request.startDate(), request.period());
         List<CreateMealPlanRequest.SlotInput> inputSlots = request.slots() == null ? List.of() : request.slots();
@@ -124,28 +187,38 @@ public class MealPlanService {
     }
 
     private void validateRecipesExist(List<CreateMealPlanRequest.SlotInput> slots) {
+        Set<String> recipeIds = new LinkedHashSet<>();
         for (CreateMealPlanRequest.SlotInput slot : slots) {
-            if (recipeService.findById(slot.recipeId()).isEmpty()) {
-                throw new BusinessRuleException(ApiErrorCode.PLAN_RECIPE_NOT_FOUND, "Recipe not found for slot: " + slot.recipeId());
-            }
+            recipeIds.add(slot.recipeId());
+        }
+        if (recipeIds.isEmpty()) {
+            return;
         }
-    }
 
-    private void applyUsageDelta(List<PlannedMealSlot> previousSlots, List<PlannedMealSlot> nextSlots) {
-        Map<String, Integer> previousCountByRecipe = countByRecipe(previousSlots);
-        Map<String, Integer> nextCountByRecipe = countByRecipe(nextSlots);
-        Instant usageTime = Instant.now();
+        Set<String> existingIds = recipeService.findExistingIds(recipeIds);
+        List<String> missingIds = recipeIds.stream()
+                .filter(recipeId -> !existingIds.contains(recipeId))
+                .toList();
+        if (!missingIds.isEmpty()) {
+            throw new BusinessRuleException(
+                    ApiErrorCode.PLAN_RECIPE_NOT_FOUND,
+                    "Recipe not found for slot: " + String.join(", ", missingIds)
+            );
+        }
+    }
 
+    private void applyUsageDelta(Map<String, Integer> previousCountByRecipe, Map<String, Integer> nextCountByRecipe) {
+        Map<String, Integer> usageDeltaByRecipe = new HashMap<>();
         for (Map.Entry<String, Integer> entry : nextCountByRecipe.entrySet()) {
             int oldCount = previousCountByRecipe.getOrDefault(entry.getKey(), 0);
             int delta = entry.getValue() - oldCount;
-            if (delta <= 0) {
-                continue;
+            if (delta > 0) {
+                usageDeltaByRecipe.put(entry.getKey(), delta);
             }
+        }
 
-            for (int i = 0; i < delta; i++) {
-                recipeService.incrementUsageCount(entry.getKey(), usageTime);
-            }
+        if (!usageDeltaByRecipe.isEmpty()) {
+            recipeService.applyUsageDeltas(usageDeltaByRecipe, Instant.now());
         }
     }
 
@@ -1,10 +1,13 @@
 package com.appcompras.recipe;
 
+import com.appcompras.http.EntityTags;
 import jakarta.validation.Valid;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -12,11 +15,13 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -39,30 +44,54 @@ public class RecipeController {
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get recipe by id")
-    public RecipeResponse getRecipeById(@PathVariable String id) {
+    @Operation(summary = "Get recipe by id", description = "Send the last ETag in If-None-Match to get 304 when the recipe is unchanged.")
+    public ResponseEntity<RecipeResponse> getRecipeById(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        if (ifNoneMatch != null) {
+            Instant updatedAt = recipeService.findUpdatedAt(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Recipe not found"));
+            String etag = EntityTags.of(id, updatedAt);
+            if (EntityTags.matchesIfNoneMatch(ifNoneMatch, etag)) {
+                return EntityTags.notModified(etag);
+            }
+        }
         Recipe recipe = recipeService.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Recipe not found"));
-        return RecipeResponse.from(recipe);
+        return EntityTags.ok(EntityTags.of(recipe.id(), recipe.updatedAt()), RecipeResponse.from(recipe));
     }
 
     @GetMapping
-    @Operation(summary = "List recipes")
-    public List<RecipeResponse> getRecipes(
+    @Operation(summary = "List recipes", description = "Newest first. Pass limit or cursor to page; the next cursor is returned in X-Next-Cursor.")
+    public ResponseEntity<List<RecipeResponse>> getRecipes(
             @Parameter(description = "Optional meal type filter", example = "DINNER")
-            @RequestParam(required = false) MealType type
+            @RequestParam(required = false) MealType type,
+            @Parameter(description = "Optional page size (1-100, default 50 when paging)", example = "20")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Opaque cursor from a previous X-Next-Cursor header")
+            @RequestParam(required = false) String cursor
     ) {
-        return recipeService.findAll(type).stream()
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(recipeService.findAll(type).stream()
+                    .map(RecipeResponse::from)
+                    .toList());
+        }
+        return recipeService.findPage(type, limit, cursor)
                 .map(RecipeResponse::from)
-                .toList();
+                .toResponseEntity();
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update recipe")
-    public RecipeResponse updateRecipe(@PathVariable String id, @Valid @RequestBody CreateRecipeRequest request) {
-        Recipe recipe = recipeService.update(id, request)
+    @Operation(summary = "Update recipe", description = "Send the ETag in If-Match to get 412 instead of overwriting a newer version.")
+    public ResponseEntity<RecipeResponse> updateRecipe(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody CreateRecipeRequest request
+    ) {
+        Recipe recipe = recipeService.update(id, request, ifMatch)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Recipe not found"));
-        return RecipeResponse.from(recipe);
+        return EntityTags.ok(EntityTags.of(recipe.id(), recipe.updatedAt()), RecipeResponse.from(recipe));
     }
 
     @DeleteMapping("/{id}")
@@ -8,10 +8,15 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OrderColumn;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -19,8 +24,17 @@ import java.util.Set;
 
 @Entity
 @Table(name = "recipes")
+@NamedEntityGraph(
+        name = RecipeEntity.WITH_COLLECTIONS_GRAPH,
+        attributeNodes = {@NamedAttributeNode("ingredients"), @NamedAttributeNode("tags")}
+)
 public class RecipeEntity {
 
+    public static final String WITH_COLLECTIONS_GRAPH = "RecipeEntity.withCollections";
+
+    // List endpoints map every row; one batched select per collection replaces a select per row.
+    static final int COLLECTION_BATCH_SIZE = 100;
+
     @Id
     @Column(nullable = false, length = 36)
     private String id;
@@ -36,6 +50,7 @@ public class RecipeEntity {
     private MealType type;
 
     @ElementCollection
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @CollectionTable(name = "recipe_ingredients", joinColumns = @JoinColumn(name = "recipe_id"))
     @OrderColumn(name = "position")
     private List<RecipeIngredientEmbeddable> ingredients = new ArrayList<>();
@@ -47,6 +62,7 @@ public class RecipeEntity {
     private String notes;
 
     @ElementCollection
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
     @CollectionTable(name = "recipe_tags", joinColumns = @JoinColumn(name = "recipe_id"))
     @Column(name = "tag", nullable = false)
     private Set<String> tags = new LinkedHashSet<>();
@@ -63,6 +79,11 @@ public class RecipeEntity {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    // A replace writes every column, so one that loaded an older row must fail rather than overwrite it.
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public String getId() {
         return id;
     }
@@ -151,11 +172,16 @@ public class RecipeEntity {
         this.createdAt = createdAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Instant getUpdatedAt() {
         return updatedAt;
     }
 
+    // Kept at the column's microsecond precision so an ETag built before the flush matches one built after a reload.
     public void setUpdatedAt(Instant updatedAt) {
-        this.updatedAt = updatedAt;
+        this.updatedAt = updatedAt == null ? null : updatedAt.truncatedTo(ChronoUnit.MICROS);
     }
 }
@@ -0,0 +1,7 @@
+package com.appcompras.recipe;
+
+/**
+ * Published inside the transaction that replaced a recipe's ingredients, for aggregates that derived data from them.
+ */
+public record RecipeIngredientsChangedEvent(String userId, String recipeId) {
+}
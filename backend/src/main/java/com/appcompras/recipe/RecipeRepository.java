@@ -1,17 +1,73 @@
 package com.appcompras.recipe;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-public interface RecipeRepository extends JpaRepository<RecipeEntity, String> {
+public interface RecipeRepository extends JpaRepository<RecipeEntity, String>, RecipeUsageRepository {
 
+    @EntityGraph(RecipeEntity.WITH_COLLECTIONS_GRAPH)
     Optional<RecipeEntity> findByIdAndUserId(String id, String userId);
 
     boolean existsByIdAndUserId(String id, String userId);
 
+    @Query("select r.updatedAt from RecipeEntity r where r.id = :id and r.userId = :userId")
+    Optional<Instant> findUpdatedAt(@Param("id") String id, @Param("userId") String userId);
+
+    @Query("select r.id from RecipeEntity r where r.userId = :userId and r.id in :ids")
+    Set<String> findExistingIds(@Param("userId") String userId, @Param("ids") Collection<String> ids);
+
     List<RecipeEntity> findAllByUserIdOrderByCreatedAtDescIdAsc(String userId);
 
     List<RecipeEntity> findAllByUserIdAndTypeOrderByCreatedAtDescIdAsc(String userId, MealType type);
+
+    List<RecipeEntity> findAllByUserIdOrderByCreatedAtDescIdAsc(String userId, Limit limit);
+
+    List<RecipeEntity> findAllByUserIdAndTypeOrderByCreatedAtDescIdAsc(String userId, MealType type, Limit limit);
+
+    @Query("""
+            select r from RecipeEntity r
+            where r.userId = :userId
+              and (r.createdAt < :createdAt or (r.createdAt = :createdAt and r.id > :id))
+            order by r.createdAt desc, r.id asc
+            """)
+    List<RecipeEntity> findPageAfter(
+            @Param("userId") String userId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") String id,
+            Limit limit
+    );
+
+    @Query("""
+            select r from RecipeEntity r
+            where r.userId = :userId and r.type = :type
+              and (r.createdAt < :createdAt or (r.createdAt = :createdAt and r.id > :id))
+            order by r.createdAt desc, r.id asc
+            """)
+    List<RecipeEntity> findPageAfterByType(
+            @Param("userId") String userId,
+            @Param("type") MealType type,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") String id,
+            Limit limit
+    );
+
+    @Query("""
+            select distinct r from RecipeEntity r
+            left join fetch r.ingredients
+            left join fetch r.tags
+            where r.userId = :userId and r.id in :ids
+            """)
+    List<RecipeEntity> findAllWithCollectionsByUserIdAndIdIn(
+            @Param("userId") String userId,
+            @Param("ids") Collection<String> ids
+    );
 }
@@ -2,14 +2,25 @@ package com.appcompras.recipe;
 
 import com.appcompras.config.ApiErrorCode;
 import com.appcompras.config.BusinessRuleException;
+import com.appcompras.http.EntityTags;
+import com.appcompras.paging.KeysetCursor;
+import com.appcompras.paging.KeysetPage;
 import com.appcompras.security.CurrentUserProvider;
 import com.appcompras.service.IngredientCatalogService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 
 @Service
@@ -18,15 +29,18 @@ public class RecipeService {
     private final RecipeRepository recipeRepository;
     private final IngredientCatalogService ingredientCatalogService;
     private final CurrentUserProvider currentUserProvider;
+    private final ApplicationEventPublisher eventPublisher;
 
     public RecipeService(
             RecipeRepository recipeRepository,
             IngredientCatalogService ingredientCatalogService,
-            CurrentUserProvider currentUserProvider
+            CurrentUserProvider currentUserProvider,
+            ApplicationEventPublisher eventPublisher
     ) {
         this.recipeRepository = recipeRepository;
         this.ingredientCatalogService = ingredientCatalogService;
         this.currentUserProvider = currentUserProvider;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -64,6 +78,42 @@ public class RecipeService {
                 .map(RecipeEntityMapper::toDomain);
     }
 
+    /**
+     * Last modification time of the recipe without loading it, for answering conditional requests.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Instant> findUpdatedAt(String id) {
+        String userId = currentUserProvider.getCurrentUserId();
+        return recipeRepository.findUpdatedAt(id, userId);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Recipe> findAllByIds(Collection<String> ids) {
+        String userId = currentUserProvider.getCurrentUserId();
+        Set<String> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, Recipe> recipesById = new LinkedHashMap<>();
+        for (RecipeEntity entity : recipeRepository.findAllWithCollectionsByUserIdAndIdIn(userId, distinctIds)) {
+            recipesById.put(entity.getId(), RecipeEntityMapper.toDomain(entity));
+        }
+        return recipesById;
+    }
+
+    /**
+     * Ids among {@code ids} that belong to the current user, checked with a single id-only query.
+     */
+    @Transactional(readOnly = true)
+    public Set<String> findExistingIds(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        String userId = currentUserProvider.getCurrentUserId();
+        return recipeRepository.findExistingIds(userId, ids);
+    }
+
     @Transactional(readOnly = true)
     public List<Recipe> findAll(MealType type) {
         String userId = currentUserProvider.getCurrentUserId();
@@ -76,13 +126,48 @@ public class RecipeService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public KeysetPage<Recipe> findPage(MealType type, Integer limit, String cursor) {
+        String userId = currentUserProvider.getCurrentUserId();
+        int pageSize = KeysetPage.resolveLimit(limit);
+        Limit overfetch = Limit.of(pageSize + 1);
+
+        List<RecipeEntity> entities;
+        if (cursor == null) {
+            entities = type == null
+                    ? recipeRepository.findAllByUserIdOrderByCreatedAtDescIdAsc(userId, overfetch)
+                    : recipeRepository.findAllByUserIdAndTypeOrderByCreatedAtDescIdAsc(userId, type, overfetch);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            entities = type == null
+                    ? recipeRepository.findPageAfter(userId, after.createdAt(), after.id(), overfetch)
+                    : recipeRepository.findPageAfterByType(userId, type, after.createdAt(), after.id(), overfetch);
+        }
+
+        return KeysetPage.fromOverfetched(
+                entities,
+                pageSize,
+                entity -> new KeysetCursor(entity.getCreatedAt(), entity.getId()),
+                RecipeEntityMapper::toDomain
+        );
+    }
+
     @Transactional
     public Optional<Recipe> update(String id, CreateRecipeRequest request) {
+        return update(id, request, null);
+    }
+
+    /**
+     * Replaces the recipe; a non-null {@code ifMatch} must match the current entity tag.
+     */
+    @Transactional
+    public Optional<Recipe> update(String id, CreateRecipeRequest request, String ifMatch) {
         String userId = currentUserProvider.getCurrentUserId();
         Optional<RecipeEntity> existingOpt = recipeRepository.findByIdAndUserId(id, userId);
         if (existingOpt.isEmpty()) {
             return Optional.empty();
         }
+        EntityTags.requireIfMatch(ifMatch, id, existingOpt.get().getUpdatedAt());
 
         Instant now = Instant.now();
         List<RecipeIngredient> ingredients = request.ingredients().stream()
@@ -98,7 +183,8 @@ public class RecipeService {
         existing.setTags(RecipeEntityMapper.toTagSet(request.tags()));
         existing.setUpdatedAt(now);
 
-        RecipeEntity saved = recipeRepository.save(existing);
+        RecipeEntity saved = EntityTags.writeIfMatch(ifMatch, () -> recipeRepository.saveAndFlush(existing));
+        eventPublisher.publishEvent(new RecipeIngredientsChangedEvent(userId, id));
         return Optional.of(RecipeEntityMapper.toDomain(saved));
     }
 
@@ -113,20 +199,23 @@ public class RecipeService {
         return true;
     }
 
+    /**
+     * Adds each positive delta to the recipe's usage count in a single UPDATE, so a plan repeating the same recipe
+     * does not pay a load-and-save per occurrence.
+     */
     @Transactional
-    public boolean incrementUsageCount(String id, Instant usedAt) {
-        String userId = currentUserProvider.getCurrentUserId();
-        Optional<RecipeEntity> existingOpt = recipeRepository.findByIdAndUserId(id, userId);
-        if (existingOpt.isEmpty()) {
-            return false;
+    public void applyUsageDeltas(Map<String, Integer> usageDeltaByRecipeId, Instant usedAt) {
+        Map<String, Integer> positiveDeltas = new TreeMap<>();
+        usageDeltaByRecipeId.forEach((recipeId, delta) -> {
+            if (delta > 0) {
+                positiveDeltas.put(recipeId, delta);
+            }
+        });
+        if (positiveDeltas.isEmpty()) {
+            return;
         }
 
-        RecipeEntity existing = existingOpt.get();
-        existing.setUsageCount(existing.getUsageCount() + 1);
-        existing.setLastUsedAt(usedAt);
-        existing.setUpdatedAt(Instant.now());
-        recipeRepository.save(existing);
-        return true;
+        recipeRepository.incrementUsageCounts(currentUserProvider.getCurrentUserId(), positiveDeltas, usedAt, Instant.now());
     }
 
     private RecipeIngredient toValidatedIngredient(CreateRecipeRequest.IngredientInput input) {
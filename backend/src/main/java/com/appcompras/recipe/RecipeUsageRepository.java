@@ -0,0 +1,15 @@
+package com.appcompras.recipe;
+
+import java.time.Instant;
+import java.util.Map;
+
+public interface RecipeUsageRepository {
+
+    /**
+     * Adds each recipe's delta to its usage count in a single UPDATE and stamps {@code lastUsedAt}. Recipes the
+     * user does not own are left alone.
+     *
+     * @return the number of recipes updated
+     */
+    int incrementUsageCounts(String userId, Map<String, Integer> deltaByRecipeId, Instant usedAt, Instant updatedAt);
+}
@@ -0,0 +1,46 @@
+package com.appcompras.recipe;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class RecipeUsageRepositoryImpl implements RecipeUsageRepository {
+
+    private final EntityManager entityManager;
+
+    RecipeUsageRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int incrementUsageCounts(String userId, Map<String, Integer> deltaByRecipeId, Instant usedAt, Instant updatedAt) {
+        if (deltaByRecipeId.isEmpty()) {
+            return 0;
+        }
+
+        // One CASE branch per recipe: the statement text only varies with the number of recipes. The version bump
+        // makes a recipe PUT that loaded the old count fail instead of writing it back.
+        List<Map.Entry<String, Integer>> deltas = new ArrayList<>(deltaByRecipeId.entrySet());
+        StringBuilder jpql = new StringBuilder("update RecipeEntity r set r.usageCount = r.usageCount + case r.id");
+        for (int i = 0; i < deltas.size(); i++) {
+            jpql.append(" when :id").append(i).append(" then :delta").append(i);
+        }
+        jpql.append(" else 0 end, r.lastUsedAt = :usedAt, r.updatedAt = :updatedAt, r.version = r.version + 1")
+                .append(" where r.userId = :userId and r.id in :ids");
+
+        Query update = entityManager.createQuery(jpql.toString());
+        for (int i = 0; i < deltas.size(); i++) {
+            update.setParameter("id" + i, deltas.get(i).getKey());
+            update.setParameter("delta" + i, deltas.get(i).getValue());
+        }
+        return update.setParameter("usedAt", usedAt)
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("userId", userId)
+                .setParameter("ids", deltaByRecipeId.keySet())
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,51 @@
+package com.appcompras.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+
+/**
+ * Google JWK sets fetched by the JWT decoder. Entries expire five minutes after they were fetched, as with the
+ * decoder's default source, so a key Google rotates out stops being trusted. Emptied before a CRaC checkpoint so
+ * keys fetched while warming up are not restored days later; the first token after restore fetches them again.
+ * The decoder's HTTP client closes its connections after each fetch, so no socket is left open across the
+ * checkpoint either.
+ */
+public class JwkSetCache implements Resource {
+
+    static final Duration TTL = Duration.ofMinutes(5);
+
+    private final Cache cache;
+
+    public JwkSetCache() {
+        this(TTL, Ticker.systemTicker());
+    }
+
+    JwkSetCache(Duration ttl, Ticker ticker) {
+        this.cache = new CaffeineCache("jwk-sets", Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .build());
+        // The global context only keeps a weak reference; the bean holding this instance keeps it alive.
+        Core.getGlobalContext().register(this);
+    }
+
+    public Cache cache() {
+        return cache;
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        cache.clear();
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+    }
+}
@@ -2,9 +2,11 @@ package com.appcompras.security;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -14,11 +16,17 @@ import org.springframework.security.oauth2.core.OAuth2TokenValidator;
 import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.JwtDecoders;
 import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+// Absent in the non-web migrate run mode, which has no HttpSecurity to build a filter chain from.
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SecurityConfig {
 
     private static final String GOOGLE_ISSUER = "https://accounts.google.com";
@@ -43,6 +51,7 @@ public class SecurityConfig {
                                     "/swagger-ui/**",
                                     "/v3/api-docs/**",
                                     "/actuator/health",
+                                    "/actuator/health/**",
                                     "/actuator/info"
                             ).permitAll()
                             .requestMatchers("/api/**").authenticated()
@@ -61,20 +70,42 @@ public class SecurityConfig {
 
     @Bean
     @ConditionalOnProperty(name = "app.security.require-auth", havingValue = "true", matchIfMissing = true)
-    JwtDecoder jwtDecoder(@Value("${app.security.google-client-id:}") String googleClientId) {
+    JwkSetCache jwkSetCache() {
+        return new JwkSetCache();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.security.require-auth", havingValue = "true", matchIfMissing = true)
+    JwtDecoder jwtDecoder(@Value("${app.security.google-client-id:}") String googleClientId, JwkSetCache jwkSetCache) {
         if (googleClientId == null || googleClientId.isBlank()) {
             throw new IllegalStateException("Missing app.security.google-client-id");
         }
 
-        JwtDecoder decoder = JwtDecoders.fromIssuerLocation(GOOGLE_ISSUER);
+        // Issuer metadata and keys are fetched on the first token, not at startup.
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withIssuerLocation(GOOGLE_ISSUER)
+                .restOperations(new RestTemplate(new NonPersistentConnectionRequestFactory()))
+                .cache(jwkSetCache.cache())
+                .build();
         OAuth2TokenValidator<Jwt> withIssuer = JwtValidators.createDefaultWithIssuer(GOOGLE_ISSUER);
         OAuth2TokenValidator<Jwt> withAudience = jwt -> jwt.getAudience().contains(googleClientId)
                 ? OAuth2TokenValidatorResult.success()
                 : OAuth2TokenValidatorResult.failure(new OAuth2Error("invalid_token", "Invalid audience", null));
 
-        ((org.springframework.security.oauth2.jwt.NimbusJwtDecoder) decoder)
-                .setJwtValidator(new DelegatingOAuth2TokenValidator<>(withIssuer, withAudience));
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(withIssuer, withAudience));
 
         return decoder;
     }
+
+    /**
+     * JWK sets are fetched again only when the cached copy expires, every five minutes at most, so keep-alive buys
+     * nothing, and an idle pooled socket would make a CRaC checkpoint fail.
+     */
+    private static final class NonPersistentConnectionRequestFactory extends SimpleClientHttpRequestFactory {
+
+        @Override
+        protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+            super.prepareConnection(connection, httpMethod);
+            connection.setRequestProperty("Connection", "close");
+        }
+    }
 }
@@ -0,0 +1,85 @@
+package com.appcompras.service;
+
+import com.appcompras.domain.IngredientCatalogItem;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+@Component
+public class CustomIngredientCache {
+
+    static final String CACHE_NAME = "ingredients.custom";
+
+    private final AsyncCache<String, UserCustomCatalog> cache;
+
+    public CustomIngredientCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.ingredients.custom-cache.max-users:10000}") long maxUsers,
+            @Value("${app.ingredients.custom-cache.ttl:PT5M}") Duration ttl
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+    }
+
+    /**
+     * Only an empty future is installed under the cache's map lock; the loader runs afterwards on the calling
+     * thread. A synchronous {@code Cache.get} would run the repository query inside {@code ConcurrentHashMap.compute},
+     * whose {@code synchronized} bin lock pins a virtual thread to its carrier for the whole round trip.
+     * Concurrent callers for the same user still wait on the single load.
+     */
+    public UserCustomCatalog get(String userId, Function<String, UserCustomCatalog> loader) {
+        CompletableFuture<UserCustomCatalog> created = new CompletableFuture<>();
+        CompletableFuture<UserCustomCatalog> catalog = cache.get(userId, (key, executor) -> created);
+        if (catalog == created) {
+            try {
+                created.complete(loader.apply(userId));
+            } catch (Throwable ex) {
+                // Any failure, Errors included, must complete the future: waiters would otherwise block forever
+                // and the failed entry would never be evicted.
+                created.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+        try {
+            return catalog.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    public void invalidate(String userId) {
+        cache.synchronous().invalidate(userId);
+    }
+
+    /**
+     * One user's custom ingredients as loaded together. {@code generation} is the newest {@code created_at} among
+     * them in microseconds, or 0 when there are none, so it changes exactly when a reload sees a new ingredient.
+     */
+    public record UserCustomCatalog(
+            List<IngredientCatalogItem> items,
+            Map<String, IngredientConversionTable> conversionTablesById,
+            Map<String, String> ingredientIdByNormalizedName,
+            long generation
+    ) {
+    }
+}
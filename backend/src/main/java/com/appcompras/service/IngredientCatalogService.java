@@ -1,24 +1,29 @@
 package com.appcompras.service;
 
+import com.appcompras.config.ApiErrorCode;
+import com.appcompras.config.BusinessRuleException;
 import com.appcompras.domain.IngredientCatalogItem;
 import com.appcompras.domain.MeasurementType;
 import com.appcompras.domain.Unit;
+import com.appcompras.paging.KeysetPage;
 import com.appcompras.security.CurrentUserProvider;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.text.Normalizer;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Comparator;
 import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
@@ -28,57 +33,96 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
 
 @Service
 public class IngredientCatalogService {
 
     private static final String SEED_FILE = "seed/ingredients-catalog-cr.json";
     private static final int MIN_SUPPORTED_CATALOG_VERSION = 1;
+    private static final String CUSTOM_ID_PREFIX = "custom-";
 
     private final ConcurrentMap<String, IngredientCatalogItem> seedCatalog = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, IngredientConversionTable> seedConversionTables = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, String> seedAliasToIngredientId = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, List<String>> seedAliasesByIngredientId = new ConcurrentHashMap<>();
 
-    private final ConcurrentMap<String, IngredientCatalogItem> localCustomCatalog = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, IngredientConversionTable> localCustomCatalog = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, String> localCustomAliasToIngredientId = new ConcurrentHashMap<>();
 
     private final ObjectMapper objectMapper;
     private final IngredientCustomRepository ingredientCustomRepository;
     private final CurrentUserProvider currentUserProvider;
+    private final CustomIngredientCache customIngredientCache;
     private final int catalogVersion;
+    private final IngredientSearchIndex seedSearchIndex;
 
     @Autowired
     public IngredientCatalogService(
             ObjectMapper objectMapper,
             IngredientCustomRepository ingredientCustomRepository,
-            CurrentUserProvider currentUserProvider
+            CurrentUserProvider currentUserProvider,
+            CustomIngredientCache customIngredientCache,
+            ApplicationStartup applicationStartup
     ) {
         this.objectMapper = objectMapper;
         this.ingredientCustomRepository = ingredientCustomRepository;
         this.currentUserProvider = currentUserProvider;
+        this.customIngredientCache = customIngredientCache;
+
+        StartupStep seedLoad = applicationStartup.start("appcompras.ingredients.seed.load").tag("resource", SEED_FILE);
         this.catalogVersion = loadSeedFromResource(SEED_FILE);
+        seedLoad.tag("catalogVersion", String.valueOf(catalogVersion))
+                .tag("ingredients", String.valueOf(seedCatalog.size()))
+                .end();
+
+        StartupStep indexBuild = applicationStartup.start("appcompras.ingredients.seed.index");
+        this.seedSearchIndex = IngredientSearchIndex.build(seedCatalog.values(), seedAliasesByIngredientId);
+        indexBuild.end();
     }
 
     public IngredientCatalogService(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
-        this.ingredientCustomRepository = null;
-        this.currentUserProvider = null;
-        this.catalogVersion = loadSeedFromResource(SEED_FILE);
+        this(objectMapper, null, null, null, ApplicationStartup.DEFAULT);
     }
 
     public int catalogVersion() {
         return catalogVersion;
     }
 
+    /**
+     * Version of the current user's custom ingredients, read from the same cached catalog that {@link #search} serves,
+     * so a conditional request that hits the cache does no I/O and the tag always describes the body it stands for.
+     * A create on this instance invalidates the entry; one on another instance shows up once the entry expires.
+     * Together with {@link #catalogVersion()} it identifies what {@link #search(String, Integer)} can return.
+     */
+    public long customCatalogGeneration() {
+        if (ingredientCustomRepository != null) {
+            return customCatalogFor(currentUserId()).generation();
+        }
+        return localCustomCatalog.size();
+    }
+
+    public int seedIngredientCount() {
+        return seedConversionTables.size();
+    }
+
     public Optional<IngredientCatalogItem> findById(String ingredientId) {
-        IngredientCatalogItem seedItem = seedCatalog.get(ingredientId);
-        if (seedItem != null) {
-            return Optional.of(seedItem);
+        return findConversionTable(ingredientId).map(IngredientConversionTable::item);
+    }
+
+    public Optional<IngredientConversionTable> findConversionTable(String ingredientId) {
+        IngredientConversionTable seedTable = seedConversionTables.get(ingredientId);
+        if (seedTable != null) {
+            return Optional.of(seedTable);
         }
 
         if (ingredientCustomRepository != null) {
-            return ingredientCustomRepository.findByIdAndUserId(ingredientId, currentUserId())
-                    .map(this::toCustomCatalogItem);
+            String userId = currentUserId();
+            IngredientConversionTable cachedTable = customCatalogFor(userId).conversionTablesById().get(ingredientId);
+            if (cachedTable != null) {
+                return Optional.of(cachedTable);
+            }
+            return findCustomBypassingCache(userId, ingredientId);
         }
 
         return Optional.ofNullable(localCustomCatalog.get(ingredientId));
@@ -110,14 +154,16 @@ public class IngredientCatalogService {
         }
 
         if (ingredientCustomRepository != null) {
-            Optional<IngredientCustomEntity> match = ingredientCustomRepository.findByUserIdAndNormalizedName(
-                    currentUserId(), normalized);
-            if (match.isPresent()) {
-                return Optional.of(match.get().getId());
+            String userId = currentUserId();
+            CustomIngredientCache.UserCustomCatalog customCatalog = customCatalogFor(userId);
+            String match = customCatalog.ingredientIdByNormalizedName().get(normalized);
+            if (match != null) {
+                return Optional.of(match);
             }
-
-            return ingredientCustomRepository.findByIdAndUserId(direct, currentUserId())
-                    .map(IngredientCustomEntity::getId);
+            if (customCatalog.conversionTablesById().containsKey(direct)) {
+                return Optional.of(direct);
+            }
+            return findCustomBypassingCache(userId, direct).map(table -> table.item().ingredientId());
         }
 
         String customAliasMatch = localCustomAliasToIngredientId.get(normalized);
@@ -139,33 +185,85 @@ public class IngredientCatalogService {
     }
 
     public List<IngredientCatalogItem> list(String query) {
+        return search(query, null).stream()
+                .map(IngredientSearchResult::item)
+                .toList();
+    }
+
+    /**
+     * An explicit {@code limit} follows the same bounds as the paginated endpoints; no limit means every match.
+     */
+    public static int maxResults(Integer limit) {
+        if (limit == null) {
+            return Integer.MAX_VALUE;
+        }
+        if (limit < 1 || limit > KeysetPage.MAX_LIMIT) {
+            throw new BusinessRuleException(
+                    ApiErrorCode.INVALID_PAGINATION,
+                    "limit must be between 1 and " + KeysetPage.MAX_LIMIT + ", got: " + limit
+            );
+        }
+        return limit;
+    }
+
+    public List<IngredientSearchResult> search(String query, Integer limit) {
+        int maxResults = maxResults(limit);
         List<IngredientCatalogItem> customItems = customItemsForCurrentUser();
 
         if (query == null || query.isBlank()) {
-            return java.util.stream.Stream.concat(seedCatalog.values().stream(), customItems.stream())
-                    .sorted(Comparator.comparing(IngredientCatalogItem::displayName))
+            Stream<IngredientCatalogItem> items = seedSearchIndex.itemsByDisplayName().stream();
+            if (!customItems.isEmpty()) {
+                items = Stream.concat(items, customItems.stream())
+                        .sorted(Comparator.comparing(IngredientCatalogItem::displayName));
+            }
+            return items
+                    .limit(maxResults)
+                    .map(item -> new IngredientSearchResult(item, seedSearchIndex.defaultLabel(item)))
                     .toList();
         }
 
         String normalizedQuery = normalizeAlias(query);
-        return java.util.stream.Stream.concat(seedCatalog.values().stream(), customItems.stream())
-                .filter(item -> item.ingredientId().contains(normalizedQuery)
-                        || normalizeAlias(item.displayName()).contains(normalizedQuery)
-                        || hasMatchingAlias(item.ingredientId(), normalizedQuery))
-                .sorted(Comparator.comparing(IngredientCatalogItem::displayName))
+        List<RankedResult> ranked = new ArrayList<>();
+        seedSearchIndex.search(normalizedQuery).values().forEach(match -> {
+            IngredientCatalogItem item = seedCatalog.get(match.ingredientId());
+            String label = match.label() == null ? item.displayName() : match.label();
+            ranked.add(new RankedResult(new IngredientSearchResult(item, label), match.rank()));
+        });
+        for (IngredientCatalogItem item : customItems) {
+            int rank = customItemRank(item, normalizedQuery);
+            if (rank >= 0) {
+                ranked.add(new RankedResult(new IngredientSearchResult(item, item.displayName()), rank));
+            }
+        }
+
+        return ranked.stream()
+                .sorted(Comparator.comparingInt(RankedResult::rank)
+                        .thenComparing(result -> result.result().item().displayName()))
+                .limit(maxResults)
+                .map(RankedResult::result)
                 .toList();
     }
 
+    /**
+     * The seed items in display-name order with their default labels, i.e. the unfiltered listing without custom items.
+     */
+    public List<IngredientSearchResult> seedCatalog() {
+        return seedSearchIndex.itemsByDisplayName().stream()
+                .map(item -> new IngredientSearchResult(item, seedSearchIndex.defaultLabel(item)))
+                .toList();
+    }
+
+    public List<IngredientCatalogItem> customItems() {
+        return customItemsForCurrentUser();
+    }
+
     public List<String> aliasesForItem(IngredientCatalogItem item) {
         if (item == null) {
             return List.of();
         }
-        List<String> aliases = seedAliasesByIngredientId.get(item.ingredientId());
-        if (aliases != null && !aliases.isEmpty()) {
-            return aliases.stream()
-                    .map(this::toDisplayCase)
-                    .distinct()
-                    .toList();
+        List<String> aliases = seedSearchIndex.displayAliases(item.ingredientId());
+        if (aliases != null) {
+            return aliases;
         }
         return List.of(toDisplayCase(item.displayName()));
     }
@@ -174,27 +272,10 @@ public class IngredientCatalogService {
         if (item == null) {
             return "";
         }
-        List<String> aliases = seedAliasesByIngredientId.get(item.ingredientId());
-        if (aliases == null || aliases.isEmpty()) {
-            return item.displayName();
-        }
-        if (query != null && !query.isBlank()) {
-            String normalizedQuery = normalizeAlias(query);
-            Optional<String> startsWithMatch = aliases.stream()
-                    .filter(alias -> normalizeAlias(alias).startsWith(normalizedQuery))
-                    .findFirst();
-            if (startsWithMatch.isPresent()) {
-                return toDisplayCase(startsWithMatch.get());
-            }
-
-            Optional<String> containsMatch = aliases.stream()
-                    .filter(alias -> normalizeAlias(alias).contains(normalizedQuery))
-                    .findFirst();
-            if (containsMatch.isPresent()) {
-                return toDisplayCase(containsMatch.get());
-            }
-        }
-        return toDisplayCase(aliases.get(0));
+        String normalizedQuery = query == null || query.isBlank() ? null : normalizeAlias(query);
+        return seedSearchIndex.preferredAlias(item.ingredientId(), normalizedQuery)
+                .map(IngredientSearchIndex.IndexedAlias::display)
+                .orElse(item.displayName());
     }
 
     public IngredientCatalogItem createCustomIngredient(String name, MeasurementType measurementType) {
@@ -210,44 +291,106 @@ public class IngredientCatalogService {
             throw new IllegalArgumentException("Ingredient already exists: " + existing.get());
         }
 
-        String id = "custom-" + normalizedName + "-" + UUID.randomUUID().toString().substring(0, 8);
+        String id = CUSTOM_ID_PREFIX + normalizedName + "-" + UUID.randomUUID().toString().substring(0, 8);
 
         if (ingredientCustomRepository != null) {
+            String userId = currentUserId();
             IngredientCustomEntity entity = new IngredientCustomEntity();
             entity.setId(id);
-            entity.setUserId(currentUserId());
+            entity.setUserId(userId);
             entity.setName(canonicalName);
             entity.setNormalizedName(normalizedName);
             entity.setMeasurementType(measurementType);
-            entity.setCreatedAt(Instant.now());
+            entity.setCreatedAt(nextCreatedAt(userId));
 
             try {
                 IngredientCustomEntity saved = ingredientCustomRepository.save(entity);
-                return toCustomCatalogItem(saved);
+                return toCustomConversionTable(saved).item();
             } catch (DataIntegrityViolationException ex) {
                 throw new IllegalArgumentException("Ingredient already exists: " + trimmedName);
+            } finally {
+                invalidateCustomCatalog(userId);
             }
         }
 
-        IngredientCatalogItem localItem = buildCustomItem(id, canonicalName, measurementType);
-        localCustomCatalog.put(id, localItem);
+        IngredientConversionTable localTable = IngredientConversionTable.compile(
+                buildCustomItem(id, canonicalName, measurementType));
+        localCustomCatalog.put(id, localTable);
         addLocalCustomAlias(id, normalizedName);
         addLocalCustomAlias(id, id);
         addLocalCustomAlias(id, canonicalName);
-        return localItem;
+        return localTable.item();
+    }
+
+    // The newest created_at is the catalog generation, so it has to move forward even when this instance's clock
+    // lags the one that stored the user's previous ingredient.
+    private Instant nextCreatedAt(String userId) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        return ingredientCustomRepository.findLatestCreatedAtByUserId(userId)
+                .filter(latest -> !now.isAfter(latest))
+                .map(latest -> latest.plus(1, ChronoUnit.MICROS))
+                .orElse(now);
     }
 
     private List<IngredientCatalogItem> customItemsForCurrentUser() {
         if (ingredientCustomRepository != null) {
-            return ingredientCustomRepository.findAllByUserId(currentUserId()).stream()
-                    .map(this::toCustomCatalogItem)
-                    .toList();
+            return customCatalogFor(currentUserId()).items();
+        }
+        return localCustomCatalog.values().stream()
+                .map(IngredientConversionTable::item)
+                .toList();
+    }
+
+    private CustomIngredientCache.UserCustomCatalog customCatalogFor(String userId) {
+        if (customIngredientCache == null) {
+            return loadCustomCatalog(userId);
+        }
+        return customIngredientCache.get(userId, this::loadCustomCatalog);
+    }
+
+    private CustomIngredientCache.UserCustomCatalog loadCustomCatalog(String userId) {
+        List<IngredientCatalogItem> items = new ArrayList<>();
+        Map<String, IngredientConversionTable> conversionTablesById = new HashMap<>();
+        Map<String, String> ingredientIdByNormalizedName = new HashMap<>();
+        long generation = 0;
+        for (IngredientCustomEntity entity : ingredientCustomRepository.findAllByUserId(userId)) {
+            generation = Math.max(generation, ChronoUnit.MICROS.between(Instant.EPOCH, entity.getCreatedAt()));
+            IngredientConversionTable table = toCustomConversionTable(entity);
+            IngredientCatalogItem item = table.item();
+            items.add(item);
+            conversionTablesById.put(item.ingredientId(), table);
+            ingredientIdByNormalizedName.putIfAbsent(entity.getNormalizedName(), item.ingredientId());
+        }
+        return new CustomIngredientCache.UserCustomCatalog(
+                List.copyOf(items),
+                Map.copyOf(conversionTablesById),
+                Map.copyOf(ingredientIdByNormalizedName),
+                generation
+        );
+    }
+
+    // Another instance may have created the ingredient after this user's catalog was cached.
+    private Optional<IngredientConversionTable> findCustomBypassingCache(String userId, String ingredientId) {
+        if (!ingredientId.startsWith(CUSTOM_ID_PREFIX)) {
+            return Optional.empty();
+        }
+        Optional<IngredientConversionTable> table = ingredientCustomRepository.findByIdAndUserId(ingredientId, userId)
+                .map(this::toCustomConversionTable);
+        if (table.isPresent()) {
+            invalidateCustomCatalog(userId);
+        }
+        return table;
+    }
+
+    private void invalidateCustomCatalog(String userId) {
+        if (customIngredientCache != null) {
+            customIngredientCache.invalidate(userId);
         }
-        return localCustomCatalog.values().stream().toList();
     }
 
-    private IngredientCatalogItem toCustomCatalogItem(IngredientCustomEntity entity) {
-        return buildCustomItem(entity.getId(), entity.getName(), entity.getMeasurementType());
+    private IngredientConversionTable toCustomConversionTable(IngredientCustomEntity entity) {
+        return IngredientConversionTable.compile(
+                buildCustomItem(entity.getId(), entity.getName(), entity.getMeasurementType()));
     }
 
     private IngredientCatalogItem buildCustomItem(String id, String name, MeasurementType measurementType) {
@@ -350,6 +493,9 @@ public class IngredientCatalogService {
         );
 
         seedCatalog.put(id, item);
+        IngredientConversionTable previous = seedConversionTables.get(id);
+        int ordinal = previous == null ? seedConversionTables.size() : previous.ordinal();
+        seedConversionTables.put(id, IngredientConversionTable.compile(item, ordinal));
         addSeedAlias(id, id);
         addSeedAlias(id, displayName);
 
@@ -403,15 +549,22 @@ public class IngredientCatalogService {
         localCustomAliasToIngredientId.putIfAbsent(normalizedAlias, ingredientId);
     }
 
-    private boolean hasMatchingAlias(String ingredientId, String query) {
-        boolean seedMatch = seedAliasToIngredientId.entrySet().stream()
-                .anyMatch(entry -> entry.getValue().equals(ingredientId) && entry.getKey().contains(query));
-        if (seedMatch) {
-            return true;
+    private int customItemRank(IngredientCatalogItem item, String normalizedQuery) {
+        int best = bestRank(-1, IngredientSearchIndex.rank(item.ingredientId(), normalizedQuery));
+        best = bestRank(best, IngredientSearchIndex.rank(normalizeAlias(item.displayName()), normalizedQuery));
+        for (Map.Entry<String, String> entry : localCustomAliasToIngredientId.entrySet()) {
+            if (entry.getValue().equals(item.ingredientId())) {
+                best = bestRank(best, IngredientSearchIndex.rank(entry.getKey(), normalizedQuery));
+            }
         }
+        return best;
+    }
 
-        return localCustomAliasToIngredientId.entrySet().stream()
-                .anyMatch(entry -> entry.getValue().equals(ingredientId) && entry.getKey().contains(query));
+    private int bestRank(int current, int candidate) {
+        if (candidate < 0) {
+            return current;
+        }
+        return current < 0 ? candidate : Math.min(current, candidate);
     }
 
     private String currentUserId() {
@@ -422,20 +575,13 @@ public class IngredientCatalogService {
     }
 
     private String normalizeAlias(String value) {
-        String withoutAccent = Normalizer.normalize(value.trim().toLowerCase(Locale.ROOT), Normalizer.Form.NFD)
-                .replaceAll("\\p{M}", "");
-        String normalized = withoutAccent.replaceAll("[^a-z0-9]+", "-");
-        return normalized.replaceAll("^-+|-+$", "");
+        return IngredientNameNormalizer.normalize(value);
     }
 
     private String toDisplayCase(String value) {
-        if (value == null || value.isBlank()) {
-            return "";
-        }
-        return Arrays.stream(value.trim().toLowerCase(Locale.forLanguageTag("es-CR")).split("\\s+"))
-                .filter(token -> !token.isBlank())
-                .map(token -> Character.toUpperCase(token.charAt(0)) + token.substring(1))
-                .reduce((left, right) -> left + " " + right)
-                .orElse("");
+        return IngredientNameNormalizer.toDisplayCase(value);
+    }
+
+    private record RankedResult(IngredientSearchResult result, int rank) {
     }
 }
@@ -0,0 +1,177 @@
+package com.appcompras.service;
+
+import com.appcompras.domain.IngredientCatalogItem;
+import com.appcompras.domain.MeasurementType;
+import com.appcompras.domain.Unit;
+
+import java.util.Arrays;
+
+/**
+ * Conversion factors of a single catalog item, compiled once when the item is loaded or created.
+ * Factors are indexed by {@link Unit#ordinal()}; NaN marks a unit the item cannot be converted from.
+ */
+public final class IngredientConversionTable {
+
+    public static final int NO_ORDINAL = -1;
+
+    private static final Unit[] UNITS = Unit.values();
+    private static final double[][] PACKAGE_FACTORS = buildPackageFactors();
+
+    private final IngredientCatalogItem item;
+    private final int ordinal;
+    private final Unit baseUnit;
+    private final double[] factorsByUnit;
+    private final double packageBaseAmount;
+
+    private IngredientConversionTable(
+            IngredientCatalogItem item,
+            int ordinal,
+            Unit baseUnit,
+            double[] factorsByUnit,
+            double packageBaseAmount
+    ) {
+        this.item = item;
+        this.ordinal = ordinal;
+        this.baseUnit = baseUnit;
+        this.factorsByUnit = factorsByUnit;
+        this.packageBaseAmount = packageBaseAmount;
+    }
+
+    public static IngredientConversionTable compile(IngredientCatalogItem item) {
+        return compile(item, NO_ORDINAL);
+    }
+
+    /**
+     * Seed items carry a fixed dense ordinal (their position in the seed file); custom items use {@link #NO_ORDINAL}.
+     */
+    public static IngredientConversionTable compile(IngredientCatalogItem item, int ordinal) {
+        double[] factors = new double[UNITS.length];
+        Arrays.fill(factors, Double.NaN);
+        for (Unit unit : item.allowedUnits()) {
+            factors[unit.ordinal()] = factorFor(item, unit);
+        }
+
+        double packageFactor = PACKAGE_FACTORS[item.measurementType().ordinal()][item.suggestedPurchaseUnit().ordinal()];
+        return new IngredientConversionTable(
+                item,
+                ordinal,
+                baseUnitFor(item.measurementType()),
+                factors,
+                item.suggestedPurchaseAmount() * packageFactor
+        );
+    }
+
+    public static double packageBaseAmount(MeasurementType type, double amount, Unit unit) {
+        double factor = PACKAGE_FACTORS[type.ordinal()][unit.ordinal()];
+        if (Double.isNaN(factor)) {
+            throw packageUnitFailure(type, unit);
+        }
+        return amount * factor;
+    }
+
+    public IngredientCatalogItem item() {
+        return item;
+    }
+
+    public int ordinal() {
+        return ordinal;
+    }
+
+    public Unit baseUnit() {
+        return baseUnit;
+    }
+
+    public double toBaseAmount(double quantity, Unit unit) {
+        double factor = factorsByUnit[unit.ordinal()];
+        if (Double.isNaN(factor)) {
+            throw conversionFailure(unit);
+        }
+        return quantity * factor;
+    }
+
+    /**
+     * Base amount of one suggested purchase package of this item.
+     */
+    public double packageBaseAmount() {
+        if (Double.isNaN(packageBaseAmount)) {
+            throw packageUnitFailure(item.measurementType(), item.suggestedPurchaseUnit());
+        }
+        return packageBaseAmount;
+    }
+
+    private static Unit baseUnitFor(MeasurementType measurementType) {
+        return switch (measurementType) {
+            case WEIGHT -> Unit.GRAM;
+            case VOLUME -> Unit.MILLILITER;
+            case UNIT -> Unit.PIECE;
+            case TO_TASTE -> Unit.TO_TASTE;
+        };
+    }
+
+    private static double factorFor(IngredientCatalogItem item, Unit unit) {
+        if (item.measurementType() == MeasurementType.TO_TASTE || unit == Unit.TO_TASTE) {
+            return 0.0;
+        }
+
+        return switch (item.measurementType()) {
+            case WEIGHT -> switch (unit) {
+                case GRAM -> 1.0;
+                case KILOGRAM -> 1000.0;
+                case CUP, TABLESPOON, TEASPOON, PINCH -> item.densityRules().getOrDefault(unit, Double.NaN);
+                default -> Double.NaN;
+            };
+            case VOLUME -> switch (unit) {
+                case MILLILITER -> 1.0;
+                case LITER -> 1000.0;
+                case TABLESPOON -> 15.0;
+                case TEASPOON -> 5.0;
+                case CUP -> 240.0;
+                default -> Double.NaN;
+            };
+            case UNIT -> unit == Unit.PIECE ? 1.0 : Double.NaN;
+            case TO_TASTE -> 0.0;
+        };
+    }
+
+    private IllegalArgumentException conversionFailure(Unit unit) {
+        String ingredientId = item.ingredientId();
+        if (!item.allowedUnits().contains(unit)) {
+            return new IllegalArgumentException("Unit " + unit + " is not allowed for ingredient " + ingredientId);
+        }
+
+        return switch (item.measurementType()) {
+            case WEIGHT -> switch (unit) {
+                case CUP, TABLESPOON, TEASPOON, PINCH -> new IllegalArgumentException(
+                        "Missing ingredient specific conversion for ingredient " + ingredientId + " and unit " + unit);
+                default -> new IllegalArgumentException("Unsupported WEIGHT unit: " + unit);
+            };
+            case VOLUME -> new IllegalArgumentException("Unsupported VOLUME unit: " + unit);
+            case UNIT -> new IllegalArgumentException("Unsupported UNIT type unit: " + unit);
+            case TO_TASTE -> new IllegalArgumentException("Unsupported TO_TASTE unit: " + unit);
+        };
+    }
+
+    private static IllegalArgumentException packageUnitFailure(MeasurementType type, Unit unit) {
+        return switch (type) {
+            case WEIGHT -> new IllegalArgumentException("Package unit for WEIGHT must be GRAM or KILOGRAM, got: " + unit);
+            case VOLUME -> new IllegalArgumentException("Package unit for VOLUME must be MILLILITER or LITER, got: " + unit);
+            case UNIT -> new IllegalArgumentException("Package unit for UNIT must be PIECE, got: " + unit);
+            case TO_TASTE -> new IllegalArgumentException("TO_TASTE packages accept any unit, got: " + unit);
+        };
+    }
+
+    private static double[][] buildPackageFactors() {
+        double[][] factors = new double[MeasurementType.values().length][UNITS.length];
+        for (double[] row : factors) {
+            Arrays.fill(row, Double.NaN);
+        }
+        factors[MeasurementType.WEIGHT.ordinal()][Unit.GRAM.ordinal()] = 1.0;
+        factors[MeasurementType.WEIGHT.ordinal()][Unit.KILOGRAM.ordinal()] = 1000.0;
+        factors[MeasurementType.VOLUME.ordinal()][Unit.MILLILITER.ordinal()] = 1.0;
+        factors[MeasurementType.VOLUME.ordinal()][Unit.LITER.ordinal()] = 1000.0;
+        factors[MeasurementType.UNIT.ordinal()][Unit.PIECE.ordinal()] = 1.0;
+        // TO_TASTE packages always yield 0
+        Arrays.fill(factors[MeasurementType.TO_TASTE.ordinal()], 0.0);
+        return factors;
+    }
+}
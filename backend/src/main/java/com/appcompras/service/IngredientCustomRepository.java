@@ -1,7 +1,10 @@
 package com.appcompras.service;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +15,7 @@ public interface IngredientCustomRepository extends JpaRepository<IngredientCust
     Optional<IngredientCustomEntity> findByUserIdAndNormalizedName(String userId, String normalizedName);
 
     List<IngredientCustomEntity> findAllByUserId(String userId);
+
+    @Query("select max(c.createdAt) from IngredientCustomEntity c where c.userId = :userId")
+    Optional<Instant> findLatestCreatedAtByUserId(@Param("userId") String userId);
 }
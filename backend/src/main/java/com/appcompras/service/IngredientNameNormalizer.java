@@ -0,0 +1,75 @@
+package com.appcompras.service;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class IngredientNameNormalizer {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Locale DISPLAY_LOCALE = Locale.forLanguageTag("es-CR");
+
+    private IngredientNameNormalizer() {
+    }
+
+    /**
+     * Lowercases, strips accents and collapses every run of non [a-z0-9] characters into a single dash.
+     * Single pass and regex-free; only non-ASCII input pays for the NFD decomposition.
+     */
+    public static String normalize(String value) {
+        String lowered = value.trim().toLowerCase(Locale.ROOT);
+        String decomposed = isAscii(lowered) ? lowered : Normalizer.normalize(lowered, Normalizer.Form.NFD);
+
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean pendingSeparator = false;
+        int index = 0;
+        while (index < decomposed.length()) {
+            int codePoint = decomposed.codePointAt(index);
+            index += Character.charCount(codePoint);
+
+            if ((codePoint >= 'a' && codePoint <= 'z') || (codePoint >= '0' && codePoint <= '9')) {
+                if (pendingSeparator && normalized.length() > 0) {
+                    normalized.append('-');
+                }
+                pendingSeparator = false;
+                normalized.append((char) codePoint);
+            } else if (!isMark(codePoint)) {
+                pendingSeparator = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    public static String toDisplayCase(String value) {
+        if (value == null || value.isBlank()) {
+            return "";
+        }
+        StringBuilder display = new StringBuilder(value.length());
+        for (String token : WHITESPACE.split(value.trim().toLowerCase(DISPLAY_LOCALE))) {
+            if (token.isBlank()) {
+                continue;
+            }
+            if (display.length() > 0) {
+                display.append(' ');
+            }
+            display.append(Character.toUpperCase(token.charAt(0))).append(token, 1, token.length());
+        }
+        return display.toString();
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isMark(int codePoint) {
+        int type = Character.getType(codePoint);
+        return type == Character.NON_SPACING_MARK
+                || type == Character.ENCLOSING_MARK
+                || type == Character.COMBINING_SPACING_MARK;
+    }
+}
@@ -0,0 +1,250 @@
+package com.appcompras.service;
+
+import com.appcompras.domain.IngredientCatalogItem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+final class IngredientSearchIndex {
+
+    static final int RANK_EXACT = 0;
+    static final int RANK_PREFIX = 1;
+    static final int RANK_INFIX = 2;
+
+    private static final int NGRAM = 3;
+    private static final int NOT_AN_ALIAS = Integer.MAX_VALUE;
+
+    record IndexedAlias(String normalized, String display) {
+    }
+
+    record Match(String ingredientId, int rank, String label) {
+    }
+
+    private final String[] searchKeys;
+    private final String[] searchKeyIngredientIds;
+    private final int[] searchKeyAliasPositions;
+    private final RadixTrie trie;
+    private final Map<String, int[]> trigramPostings;
+    private final Map<String, List<IndexedAlias>> aliasesByIngredientId;
+    private final Map<String, List<String>> displayAliasesByIngredientId;
+    private final List<IngredientCatalogItem> itemsByDisplayName;
+
+    private IngredientSearchIndex(
+            String[] searchKeys,
+            String[] searchKeyIngredientIds,
+            int[] searchKeyAliasPositions,
+            Map<String, List<IndexedAlias>> aliasesByIngredientId,
+            Map<String, List<String>> displayAliasesByIngredientId,
+            List<IngredientCatalogItem> itemsByDisplayName
+    ) {
+        this.searchKeys = searchKeys;
+        this.searchKeyIngredientIds = searchKeyIngredientIds;
+        this.searchKeyAliasPositions = searchKeyAliasPositions;
+        this.aliasesByIngredientId = aliasesByIngredientId;
+        this.displayAliasesByIngredientId = displayAliasesByIngredientId;
+        this.itemsByDisplayName = itemsByDisplayName;
+        this.trie = buildTrie(searchKeys);
+        this.trigramPostings = buildTrigramPostings(searchKeys);
+    }
+
+    static IngredientSearchIndex build(
+            Collection<IngredientCatalogItem> items,
+            Map<String, List<String>> rawAliasesByIngredientId
+    ) {
+        List<String> keys = new ArrayList<>();
+        List<String> keyIngredientIds = new ArrayList<>();
+        List<Integer> keyAliasPositions = new ArrayList<>();
+        Map<String, List<IndexedAlias>> aliasesByIngredientId = new HashMap<>();
+        Map<String, List<String>> displayAliasesByIngredientId = new HashMap<>();
+
+        for (IngredientCatalogItem item : items) {
+            String ingredientId = item.ingredientId();
+            List<String> rawAliases = rawAliasesByIngredientId.getOrDefault(ingredientId, List.of());
+
+            Map<String, Integer> itemKeys = new LinkedHashMap<>();
+            itemKeys.putIfAbsent(ingredientId, NOT_AN_ALIAS);
+            itemKeys.putIfAbsent(IngredientNameNormalizer.normalize(ingredientId), NOT_AN_ALIAS);
+            itemKeys.putIfAbsent(IngredientNameNormalizer.normalize(item.displayName()), NOT_AN_ALIAS);
+
+            List<IndexedAlias> aliases = new ArrayList<>(rawAliases.size());
+            Set<String> displayAliases = new LinkedHashSet<>();
+            for (String rawAlias : rawAliases) {
+                IndexedAlias alias = new IndexedAlias(
+                        IngredientNameNormalizer.normalize(rawAlias),
+                        IngredientNameNormalizer.toDisplayCase(rawAlias)
+                );
+                itemKeys.merge(alias.normalized(), aliases.size(), Math::min);
+                aliases.add(alias);
+                displayAliases.add(alias.display());
+            }
+
+            itemKeys.forEach((key, aliasPosition) -> {
+                if (!key.isBlank()) {
+                    keys.add(key);
+                    keyIngredientIds.add(ingredientId);
+                    keyAliasPositions.add(aliasPosition);
+                }
+            });
+            if (!aliases.isEmpty()) {
+                aliasesByIngredientId.put(ingredientId, List.copyOf(aliases));
+                displayAliasesByIngredientId.put(ingredientId, List.copyOf(displayAliases));
+            }
+        }
+
+        List<IngredientCatalogItem> itemsByDisplayName = items.stream()
+                .sorted(Comparator.comparing(IngredientCatalogItem::displayName))
+                .toList();
+
+        return new IngredientSearchIndex(
+                keys.toArray(String[]::new),
+                keyIngredientIds.toArray(String[]::new),
+                keyAliasPositions.stream().mapToInt(Integer::intValue).toArray(),
+                Map.copyOf(aliasesByIngredientId),
+                Map.copyOf(displayAliasesByIngredientId),
+                itemsByDisplayName
+        );
+    }
+
+    static int rank(String key, String normalizedQuery) {
+        if (key.equals(normalizedQuery)) {
+            return RANK_EXACT;
+        }
+        if (key.startsWith(normalizedQuery)) {
+            return RANK_PREFIX;
+        }
+        return key.contains(normalizedQuery) ? RANK_INFIX : -1;
+    }
+
+    /**
+     * Returns the best match per ingredient; exact and prefix hits come from the trie,
+     * infix hits from the trigram postings (or a key scan for queries shorter than a trigram).
+     */
+    Map<String, Match> search(String normalizedQuery) {
+        Map<String, int[]> bestByIngredientId = new HashMap<>();
+
+        for (int keyIndex : trie.valuesWithPrefix(normalizedQuery)) {
+            int rank = searchKeys[keyIndex].length() == normalizedQuery.length() ? RANK_EXACT : RANK_PREFIX;
+            offer(bestByIngredientId, keyIndex, rank);
+        }
+
+        for (int keyIndex : infixCandidates(normalizedQuery)) {
+            if (searchKeys[keyIndex].contains(normalizedQuery)) {
+                offer(bestByIngredientId, keyIndex, RANK_INFIX);
+            }
+        }
+
+        Map<String, Match> matches = new HashMap<>(bestByIngredientId.size() * 2);
+        bestByIngredientId.forEach((ingredientId, best) ->
+                matches.put(ingredientId, new Match(ingredientId, best[0], labelFor(ingredientId, best[2]))));
+        return matches;
+    }
+
+    List<IngredientCatalogItem> itemsByDisplayName() {
+        return itemsByDisplayName;
+    }
+
+    List<String> displayAliases(String ingredientId) {
+        return displayAliasesByIngredientId.get(ingredientId);
+    }
+
+    String defaultLabel(IngredientCatalogItem item) {
+        List<IndexedAlias> aliases = aliasesByIngredientId.get(item.ingredientId());
+        return aliases == null ? item.displayName() : aliases.get(0).display();
+    }
+
+    Optional<IndexedAlias> preferredAlias(String ingredientId, String normalizedQuery) {
+        List<IndexedAlias> aliases = aliasesByIngredientId.get(ingredientId);
+        if (aliases == null) {
+            return Optional.empty();
+        }
+        if (normalizedQuery != null) {
+            for (IndexedAlias alias : aliases) {
+                if (alias.normalized().startsWith(normalizedQuery)) {
+                    return Optional.of(alias);
+                }
+            }
+            for (IndexedAlias alias : aliases) {
+                if (alias.normalized().contains(normalizedQuery)) {
+                    return Optional.of(alias);
+                }
+            }
+        }
+        return Optional.of(aliases.get(0));
+    }
+
+    private void offer(Map<String, int[]> bestByIngredientId, int keyIndex, int rank) {
+        int[] best = bestByIngredientId.computeIfAbsent(
+                searchKeyIngredientIds[keyIndex],
+                ignored -> new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE, NOT_AN_ALIAS}
+        );
+        best[0] = Math.min(best[0], rank);
+
+        int aliasPosition = searchKeyAliasPositions[keyIndex];
+        if (aliasPosition != NOT_AN_ALIAS && (rank < best[1] || (rank == best[1] && aliasPosition < best[2]))) {
+            best[1] = rank;
+            best[2] = aliasPosition;
+        }
+    }
+
+    private String labelFor(String ingredientId, int aliasPosition) {
+        List<IndexedAlias> aliases = aliasesByIngredientId.get(ingredientId);
+        if (aliases == null) {
+            return null;
+        }
+        return aliasPosition == NOT_AN_ALIAS ? aliases.get(0).display() : aliases.get(aliasPosition).display();
+    }
+
+    private int[] infixCandidates(String normalizedQuery) {
+        if (normalizedQuery.length() < NGRAM) {
+            int[] all = new int[searchKeys.length];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] smallest = null;
+        for (int i = 0; i + NGRAM <= normalizedQuery.length(); i++) {
+            int[] postings = trigramPostings.get(normalizedQuery.substring(i, i + NGRAM));
+            if (postings == null) {
+                return new int[0];
+            }
+            if (smallest == null || postings.length < smallest.length) {
+                smallest = postings;
+            }
+        }
+        return smallest;
+    }
+
+    private static RadixTrie buildTrie(String[] keys) {
+        RadixTrie trie = new RadixTrie();
+        for (int i = 0; i < keys.length; i++) {
+            trie.insert(keys[i], i);
+        }
+        trie.freeze();
+        return trie;
+    }
+
+    private static Map<String, int[]> buildTrigramPostings(String[] keys) {
+        Map<String, Set<Integer>> postings = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i];
+            for (int start = 0; start + NGRAM <= key.length(); start++) {
+                postings.computeIfAbsent(key.substring(start, start + NGRAM), ignored -> new LinkedHashSet<>()).add(i);
+            }
+        }
+
+        Map<String, int[]> frozen = new HashMap<>(postings.size() * 2);
+        postings.forEach((trigram, keyIndexes) ->
+                frozen.put(trigram, keyIndexes.stream().mapToInt(Integer::intValue).toArray()));
+        return Map.copyOf(frozen);
+    }
+}
@@ -0,0 +1,9 @@
+package com.appcompras.service;
+
+import com.appcompras.domain.IngredientCatalogItem;
+
+public record IngredientSearchResult(
+        IngredientCatalogItem item,
+        String preferredLabel
+) {
+}
@@ -0,0 +1,64 @@
+package com.appcompras.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Per-generation accumulator of base amounts keyed by dense ingredient ordinal. Seed ingredients use
+ * their fixed catalog ordinal; custom ingredients are appended after the seed range in first-seen order.
+ * Each distinct ingredient is resolved once; the sums themselves live in a primitive array.
+ */
+final class IngredientTotals {
+
+    private final Function<String, IngredientConversionTable> resolver;
+    private final Map<String, Integer> ordinalsByIngredientId = new HashMap<>();
+    private IngredientConversionTable[] tables;
+    private double[] totals;
+    private int nextCustomOrdinal;
+
+    IngredientTotals(int seedIngredientCount, Function<String, IngredientConversionTable> resolver) {
+        this.resolver = resolver;
+        this.tables = new IngredientConversionTable[seedIngredientCount];
+        this.totals = new double[seedIngredientCount];
+        this.nextCustomOrdinal = seedIngredientCount;
+    }
+
+    int ordinalOf(String ingredientId) {
+        Integer known = ordinalsByIngredientId.get(ingredientId);
+        if (known != null) {
+            return known;
+        }
+
+        IngredientConversionTable table = resolver.apply(ingredientId);
+        int ordinal = table.ordinal() == IngredientConversionTable.NO_ORDINAL ? nextCustomOrdinal++ : table.ordinal();
+        if (ordinal >= tables.length) {
+            int capacity = Math.max(ordinal + 1, tables.length + (tables.length >> 1) + 1);
+            tables = Arrays.copyOf(tables, capacity);
+            totals = Arrays.copyOf(totals, capacity);
+        }
+        tables[ordinal] = table;
+        ordinalsByIngredientId.put(ingredientId, ordinal);
+        return ordinal;
+    }
+
+    IngredientConversionTable table(int ordinal) {
+        return tables[ordinal];
+    }
+
+    void add(int ordinal, double baseAmount) {
+        totals[ordinal] += baseAmount;
+    }
+
+    /**
+     * Ordinal capacity; ordinals in [0, size) with a positive {@link #total(int)} hold aggregated amounts.
+     */
+    int size() {
+        return nextCustomOrdinal;
+    }
+
+    double total(int ordinal) {
+        return totals[ordinal];
+    }
+}
@@ -0,0 +1,109 @@
+package com.appcompras.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+final class RadixTrie {
+
+    private static final int[] NONE = new int[0];
+
+    private final Node root = new Node("");
+    private boolean frozen;
+
+    void insert(String key, int value) {
+        if (frozen) {
+            throw new IllegalStateException("Trie is frozen");
+        }
+
+        Node node = root;
+        int offset = 0;
+        while (offset < key.length()) {
+            char next = key.charAt(offset);
+            Node child = node.children.get(next);
+            if (child == null) {
+                Node leaf = new Node(key.substring(offset));
+                leaf.values.add(value);
+                node.children.put(next, leaf);
+                return;
+            }
+
+            int common = commonPrefixLength(child.label, key, offset);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children.put(child.label.charAt(0), child);
+                node.children.put(next, split);
+                child = split;
+            }
+            node = child;
+            offset += common;
+        }
+        node.values.add(value);
+    }
+
+    void freeze() {
+        root.collectSubtree();
+        frozen = true;
+    }
+
+    int[] valuesWithPrefix(String prefix) {
+        if (!frozen) {
+            throw new IllegalStateException("Trie must be frozen before querying");
+        }
+
+        Node node = root;
+        int offset = 0;
+        while (offset < prefix.length()) {
+            Node child = node.children.get(prefix.charAt(offset));
+            if (child == null) {
+                return NONE;
+            }
+
+            int remaining = prefix.length() - offset;
+            if (remaining <= child.label.length()) {
+                return child.label.startsWith(prefix.substring(offset)) ? child.subtreeValues : NONE;
+            }
+            if (!prefix.startsWith(child.label, offset)) {
+                return NONE;
+            }
+            node = child;
+            offset += child.label.length();
+        }
+        return node.subtreeValues;
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int length = 0;
+        while (length < max && label.charAt(length) == key.charAt(offset + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private static final class Node {
+
+        private String label;
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        private final List<Integer> values = new ArrayList<>(1);
+        private int[] subtreeValues = NONE;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private int[] collectSubtree() {
+            int[] collected = values.stream().mapToInt(Integer::intValue).toArray();
+            for (Node child : children.values()) {
+                int[] childValues = child.collectSubtree();
+                int start = collected.length;
+                collected = Arrays.copyOf(collected, start + childValues.length);
+                System.arraycopy(childValues, 0, collected, start, childValues.length);
+            }
+            subtreeValues = collected;
+            return collected;
+        }
+    }
+}
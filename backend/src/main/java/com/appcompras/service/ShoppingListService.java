@@ -7,9 +7,10 @@ import com.appcompras.domain.ShoppingListItem;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class ShoppingListService {
@@ -23,46 +24,97 @@ public class ShoppingListService {
     }
 
     public List<ShoppingListItem> generateFromRecipes(List<Recipe> recipes) {
-        Map<String, Double> totalsByIngredient = new HashMap<>();
+        IngredientTotals totals = new IngredientTotals(
+                catalogService.seedIngredientCount(), conversionService::conversionTableFor);
 
         for (Recipe recipe : recipes) {
             for (RecipeIngredient ingredient : recipe.ingredients()) {
-                double baseAmount = conversionService.toBaseAmount(
-                        ingredient.ingredientId(), ingredient.quantity(), ingredient.unit());
+                int ordinal = totals.ordinalOf(ingredient.ingredientId());
+                double baseAmount = totals.table(ordinal).toBaseAmount(ingredient.quantity(), ingredient.unit());
 
                 if (baseAmount <= 0) {
                     continue;
                 }
 
-                totalsByIngredient.merge(ingredient.ingredientId(), baseAmount, Double::sum);
+                totals.add(ordinal, baseAmount);
             }
         }
 
         List<ShoppingListItem> result = new ArrayList<>();
 
-        for (Map.Entry<String, Double> entry : totalsByIngredient.entrySet()) {
-            IngredientCatalogItem catalogItem = catalogService.findById(entry.getKey())
-                    .orElseThrow(() -> new IllegalArgumentException("Unknown ingredient: " + entry.getKey()));
-
-            double requiredBaseAmount = Math.round(entry.getValue() * 10.0) / 10.0;
-            double packageBaseAmount = conversionService.packageBaseAmount(
-                    catalogItem.measurementType(),
-                    catalogItem.suggestedPurchaseAmount(),
-                    catalogItem.suggestedPurchaseUnit());
-
-            int suggestedPackages = packageBaseAmount > 0 ? (int) Math.ceil(requiredBaseAmount / packageBaseAmount) : 0;
-
-            result.add(new ShoppingListItem(
-                    catalogItem.ingredientId(),
-                    catalogItem.displayName(),
-                    requiredBaseAmount,
-                    conversionService.baseUnitFor(catalogItem.ingredientId()),
-                    suggestedPackages,
-                    catalogItem.suggestedPurchaseAmount(),
-                    catalogItem.suggestedPurchaseUnit()
-            ));
+        for (int ordinal = 0; ordinal < totals.size(); ordinal++) {
+            double total = totals.total(ordinal);
+            if (total > 0) {
+                result.add(toShoppingListItem(totals.table(ordinal), total));
+            }
         }
 
         return result;
     }
+
+    /**
+     * Signed base amount change per ingredient, in catalog order, when each recipe appears
+     * {@code slotDeltaByRecipeId} more (or fewer) times in a plan. Only the given recipes are converted.
+     */
+    public Map<String, Double> baseAmountDeltas(List<Recipe> recipes, Map<String, Integer> slotDeltaByRecipeId) {
+        IngredientTotals totals = new IngredientTotals(
+                catalogService.seedIngredientCount(), conversionService::conversionTableFor);
+
+        for (Recipe recipe : recipes) {
+            int slotDelta = slotDeltaByRecipeId.getOrDefault(recipe.id(), 0);
+            if (slotDelta == 0) {
+                continue;
+            }
+
+            for (RecipeIngredient ingredient : recipe.ingredients()) {
+                int ordinal = totals.ordinalOf(ingredient.ingredientId());
+                double baseAmount = totals.table(ordinal).toBaseAmount(ingredient.quantity(), ingredient.unit());
+
+                if (baseAmount <= 0) {
+                    continue;
+                }
+
+                totals.add(ordinal, baseAmount * slotDelta);
+            }
+        }
+
+        Map<String, Double> deltas = new LinkedHashMap<>();
+        for (int ordinal = 0; ordinal < totals.size(); ordinal++) {
+            IngredientConversionTable conversionTable = totals.table(ordinal);
+            double delta = totals.total(ordinal);
+            if (conversionTable != null && delta != 0) {
+                deltas.put(conversionTable.item().ingredientId(), delta);
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * The generated list item for an aggregated base amount, or empty when nothing needs to be bought.
+     */
+    public Optional<ShoppingListItem> itemForBaseTotal(String ingredientId, double baseTotal) {
+        if (!(baseTotal > 0)) {
+            return Optional.empty();
+        }
+        return Optional.of(toShoppingListItem(conversionService.conversionTableFor(ingredientId), baseTotal));
+    }
+
+    private ShoppingListItem toShoppingListItem(IngredientConversionTable conversionTable, double total) {
+        IngredientCatalogItem catalogItem = conversionTable.item();
+
+        double requiredBaseAmount = Math.round(total * 10.0) / 10.0;
+        double packageBaseAmount = conversionTable.packageBaseAmount();
+
+        int suggestedPackages = packageBaseAmount > 0 ? (int) Math.ceil(requiredBaseAmount / packageBaseAmount) : 0;
+
+        return new ShoppingListItem(
+                catalogItem.ingredientId(),
+                catalogItem.displayName(),
+                requiredBaseAmount,
+                conversionTable.baseUnit(),
+                suggestedPackages,
+                catalogItem.suggestedPurchaseAmount(),
+                catalogItem.suggestedPurchaseUnit()
+        );
+    }
 }
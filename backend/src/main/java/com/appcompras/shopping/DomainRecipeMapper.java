@@ -0,0 +1,36 @@
+package com.appcompras.shopping;
+
+import com.appcompras.domain.Recipe;
+import com.appcompras.domain.RecipeIngredient;
+
+import java.util.List;
+
+final class DomainRecipeMapper {
+
+    private DomainRecipeMapper() {
+    }
+
+    static Recipe toDomain(com.appcompras.recipe.Recipe recipe) {
+        List<RecipeIngredient> ingredients = recipe.ingredients().stream()
+                .map(i -> new RecipeIngredient(
+                        i.ingredientId(),
+                        i.quantity(),
+                        com.appcompras.domain.Unit.valueOf(i.unit().name())
+                ))
+                .toList();
+
+        return new Recipe(
+                recipe.id(),
+                recipe.name(),
+                com.appcompras.domain.MealType.valueOf(recipe.type().name()),
+                ingredients,
+                recipe.preparation(),
+                recipe.notes(),
+                recipe.tags(),
+                recipe.usageCount(),
+                recipe.lastUsedAt(),
+                recipe.createdAt(),
+                recipe.updatedAt()
+        );
+    }
+}
@@ -0,0 +1,19 @@
+package com.appcompras.shopping;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Partial update of one draft item; null fields are left unchanged.
+ */
+public record PatchShoppingListItemRequest(
+        @Schema(example = "true")
+        Boolean bought,
+        @Schema(description = "Blank clears the note", example = "Comprar marca integral")
+        String note,
+        @Schema(example = "750")
+        @Positive Double quantity,
+        @Schema(description = "New sortOrder value for the item. Items whose sortOrder lies between the old and the new value shift by one toward the old value; other items and gaps keep their values", example = "0")
+        Integer sortOrder
+) {
+}
@@ -3,16 +3,20 @@ package com.appcompras.shopping;
 import com.appcompras.config.ApiErrorCode;
 import com.appcompras.config.BusinessRuleException;
 import com.appcompras.domain.Recipe;
-import com.appcompras.domain.RecipeIngredient;
+import com.appcompras.http.EntityTags;
 import com.appcompras.planning.MealPlan;
 import com.appcompras.planning.MealPlanService;
+import com.appcompras.planning.PlannedMealSlot;
 import com.appcompras.recipe.RecipeService;
 import com.appcompras.service.ShoppingListService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -26,7 +30,10 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.server.ResponseStatusException;
 import jakarta.validation.Valid;
 
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/shopping-lists")
@@ -61,13 +68,21 @@ public class ShoppingListController {
         MealPlan plan = mealPlanService.findById(planId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Plan not found"));
 
+        Map<String, Recipe> recipesById = new HashMap<>();
+        recipeService.findAllByIds(plan.slots().stream().map(PlannedMealSlot::recipeId).toList())
+                .forEach((recipeId, recipe) -> recipesById.put(recipeId, DomainRecipeMapper.toDomain(recipe)));
+
         List<Recipe> recipes = plan.slots().stream()
-                .map(slot -> recipeService.findById(slot.recipeId())
-                        .map(this::toDomainRecipe)
-                        .orElseThrow(() -> new BusinessRuleException(
+                .map(slot -> {
+                    Recipe recipe = recipesById.get(slot.recipeId());
+                    if (recipe == null) {
+                        throw new BusinessRuleException(
                                 ApiErrorCode.PLAN_RECIPE_NOT_FOUND,
                                 "Recipe not found for slot: " + slot.recipeId()
-                        )))
+                        );
+                    }
+                    return recipe;
+                })
                 .toList();
 
         ShoppingListDraft draft = shoppingListDraftService.createFromGenerated(
@@ -80,27 +95,84 @@ public class ShoppingListController {
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get shopping list draft by id")
-    public ShoppingListResponse getById(@PathVariable String id) {
+    @Operation(summary = "Get shopping list draft by id", description = "Send the last ETag in If-None-Match to get 304 when the draft is unchanged.")
+    public ResponseEntity<ShoppingListResponse> getById(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        if (ifNoneMatch != null) {
+            Instant updatedAt = shoppingListDraftService.findUpdatedAt(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Shopping list not found"));
+            String etag = EntityTags.of(id, updatedAt);
+            if (EntityTags.matchesIfNoneMatch(ifNoneMatch, etag)) {
+                return EntityTags.notModified(etag);
+            }
+        }
         ShoppingListDraft draft = shoppingListDraftService.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Shopping list not found"));
-        return ShoppingListResponse.from(draft);
+        return EntityTags.ok(EntityTags.of(draft.id(), draft.updatedAt()), ShoppingListResponse.from(draft));
     }
 
     @GetMapping
-    @Operation(summary = "List shopping list drafts")
-    public List<ShoppingListResponse> getAll() {
-        return shoppingListDraftService.findAll().stream()
+    @Operation(summary = "List shopping list drafts", description = "Newest first. Pass limit or cursor to page; the next cursor is returned in X-Next-Cursor.")
+    public ResponseEntity<List<ShoppingListResponse>> getAll(
+            @Parameter(description = "Optional page size (1-100, default 50 when paging)", example = "20")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Opaque cursor from a previous X-Next-Cursor header")
+            @RequestParam(required = false) String cursor
+    ) {
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(shoppingListDraftService.findAll().stream()
+                    .map(ShoppingListResponse::from)
+                    .toList());
+        }
+        return shoppingListDraftService.findPage(limit, cursor)
                 .map(ShoppingListResponse::from)
-                .toList();
+                .toResponseEntity();
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Replace shopping list draft items")
-    public ShoppingListResponse update(@PathVariable String id, @Valid @RequestBody UpdateShoppingListRequest request) {
-        ShoppingListDraft updated = shoppingListDraftService.replaceItems(id, request)
+    @Operation(summary = "Replace shopping list draft items", description = "Send the ETag in If-Match to get 412 instead of overwriting a newer version.")
+    public ResponseEntity<ShoppingListResponse> update(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody UpdateShoppingListRequest request
+    ) {
+        ShoppingListDraft updated = shoppingListDraftService.replaceItems(id, request, ifMatch)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Shopping list not found"));
+        return EntityTags.ok(EntityTags.of(updated.id(), updated.updatedAt()), ShoppingListResponse.from(updated));
+    }
+
+    @PatchMapping("/{id}/items/{itemId}")
+    @Operation(summary = "Update one draft item", description = "Toggle bought, edit note/quantity or set a new sortOrder value; returns only the changed items. A move shifts only the items whose sortOrder lies between the old and new value, by one, and keeps gaps. Editing quantity marks the item manual, so later plan edits leave it as is.")
+    public ShoppingListDeltaResponse patchItem(
+            @PathVariable String id,
+            @PathVariable String itemId,
+            @Valid @RequestBody PatchShoppingListItemRequest request
+    ) {
+        ShoppingListDraftDelta delta = shoppingListDraftService.patchItem(id, itemId, request)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Shopping list item not found"));
+        return ShoppingListDeltaResponse.from(delta);
+    }
+
+    @PostMapping("/{id}/items")
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Add one draft item", description = "Appended after the current last sortOrder unless one is given.")
+    public ShoppingListDeltaResponse addItem(
+            @PathVariable String id,
+            @Valid @RequestBody UpdateShoppingListRequest.ItemInput request
+    ) {
+        ShoppingListDraftDelta delta = shoppingListDraftService.addItem(id, request)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Shopping list not found"));
-        return ShoppingListResponse.from(updated);
+        return ShoppingListDeltaResponse.from(delta);
+    }
+
+    @DeleteMapping("/{id}/items/{itemId}")
+    @Operation(summary = "Remove one draft item")
+    public ShoppingListDeltaResponse removeItem(@PathVariable String id, @PathVariable String itemId) {
+        ShoppingListDraftDelta delta = shoppingListDraftService.removeItem(id, itemId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Shopping list item not found"));
+        return ShoppingListDeltaResponse.from(delta);
     }
 
     @DeleteMapping("/{id}")
@@ -112,28 +184,4 @@ public class ShoppingListController {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Shopping list not found");
         }
     }
-
-    private Recipe toDomainRecipe(com.appcompras.recipe.Recipe recipe) {
-        List<RecipeIngredient> ingredients = recipe.ingredients().stream()
-                .map(i -> new RecipeIngredient(
-                        i.ingredientId(),
-                        i.quantity(),
-                        com.appcompras.domain.Unit.valueOf(i.unit().name())
-                ))
-                .toList();
-
-        return new Recipe(
-                recipe.id(),
-                recipe.name(),
-                com.appcompras.domain.MealType.valueOf(recipe.type().name()),
-                ingredients,
-                recipe.preparation(),
-                recipe.notes(),
-                recipe.tags(),
-                recipe.usageCount(),
-                recipe.lastUsedAt(),
-                recipe.createdAt(),
-                recipe.updatedAt()
-        );
-    }
 }
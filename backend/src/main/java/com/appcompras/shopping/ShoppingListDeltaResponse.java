@@ -0,0 +1,20 @@
+package com.appcompras.shopping;
+
+import java.time.Instant;
+import java.util.List;
+
+public record ShoppingListDeltaResponse(
+        String id,
+        List<ShoppingListDraftItem> upsertedItems,
+        List<String> removedItemIds,
+        Instant updatedAt
+) {
+    public static ShoppingListDeltaResponse from(ShoppingListDraftDelta delta) {
+        return new ShoppingListDeltaResponse(
+                delta.draftId(),
+                delta.upsertedItems(),
+                delta.removedItemIds(),
+                delta.updatedAt()
+        );
+    }
+}
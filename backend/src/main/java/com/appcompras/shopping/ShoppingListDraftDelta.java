@@ -0,0 +1,15 @@
+package com.appcompras.shopping;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Result of an item-level draft operation: only the items whose stored state changed.
+ */
+public record ShoppingListDraftDelta(
+        String draftId,
+        List<ShoppingListDraftItem> upsertedItems,
+        List<String> removedItemIds,
+        Instant updatedAt
+) {
+}
@@ -1,22 +1,32 @@
 package com.appcompras.shopping;
 
-import jakarta.persistence.CollectionTable;
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OrderColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "shopping_list_drafts")
+@NamedEntityGraph(name = ShoppingListDraftEntity.WITH_ITEMS_GRAPH, attributeNodes = @NamedAttributeNode("items"))
 public class ShoppingListDraftEntity {
 
+    public static final String WITH_ITEMS_GRAPH = "ShoppingListDraftEntity.withItems";
+
+    static final int COLLECTION_BATCH_SIZE = 100;
+
     @Id
     @Column(nullable = false, length = 36)
     private String id;
@@ -30,10 +40,12 @@ public class ShoppingListDraftEntity {
     @Column(name = "idempotency_key", length = 128)
     private String idempotencyKey;
 
-    @ElementCollection
-    @CollectionTable(name = "shopping_list_draft_items", joinColumns = @JoinColumn(name = "draft_id"))
-    @OrderColumn(name = "position")
-    private List<ShoppingListDraftItemEmbeddable> items = new ArrayList<>();
+    // Rows own their draft_id, so the collection never issues key updates; removing a row deletes it.
+    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "draft_id", insertable = false, updatable = false)
+    @OrderBy("sortOrder ASC, id ASC")
+    @BatchSize(size = COLLECTION_BATCH_SIZE)
+    private List<ShoppingListDraftItemEntity> items = new ArrayList<>();
 
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
@@ -41,12 +53,18 @@ public class ShoppingListDraftEntity {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    // Bumped by every item change as well, since each one also moves updatedAt.
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public String getId() {
         return id;
     }
 
     public void setId(String id) {
         this.id = id;
+        items.forEach(item -> item.setDraftId(id));
     }
 
     public String getUserId() {
@@ -73,12 +91,22 @@ public class ShoppingListDraftEntity {
         this.idempotencyKey = idempotencyKey;
     }
 
-    public List<ShoppingListDraftItemEmbeddable> getItems() {
+    public List<ShoppingListDraftItemEntity> getItems() {
         return items;
     }
 
-    public void setItems(List<ShoppingListDraftItemEmbeddable> items) {
-        this.items = items;
+    /**
+     * Replaces the rows in place; rows carried over keep their identity and are only updated if they changed.
+     */
+    public void setItems(List<ShoppingListDraftItemEntity> items) {
+        List<ShoppingListDraftItemEntity> replacement = List.copyOf(items);
+        this.items.clear();
+        replacement.forEach(this::addItem);
+    }
+
+    public void addItem(ShoppingListDraftItemEntity item) {
+        item.setDraftId(id);
+        items.add(item);
     }
 
     public Instant getCreatedAt() {
@@ -89,11 +117,16 @@ public class ShoppingListDraftEntity {
         this.createdAt = createdAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Instant getUpdatedAt() {
         return updatedAt;
     }
 
+    // Kept at the column's microsecond precision so an ETag built before the flush matches one built after a reload.
     public void setUpdatedAt(Instant updatedAt) {
-        this.updatedAt = updatedAt;
+        this.updatedAt = updatedAt == null ? null : updatedAt.truncatedTo(ChronoUnit.MICROS);
     }
 }
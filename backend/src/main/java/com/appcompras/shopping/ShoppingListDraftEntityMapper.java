@@ -11,20 +11,7 @@ public final class ShoppingListDraftEntityMapper {
 
     public static ShoppingListDraft toDomain(ShoppingListDraftEntity entity) {
         List<ShoppingListDraftItem> items = entity.getItems().stream()
-                .map(i -> new ShoppingListDraftItem(
-                        i.getId(),
-                        i.getIngredientId(),
-                        i.getName(),
-                        i.getQuantity(),
-                        i.getUnit(),
-                        i.getSuggestedPackages(),
-                        i.getPackageAmount(),
-                        i.getPackageUnit(),
-                        i.isManual(),
-                        i.isBought(),
-                        i.getNote(),
-                        i.getSortOrder()
-                ))
+                .map(ShoppingListDraftEntityMapper::toDomain)
                 .toList();
 
         return new ShoppingListDraft(
@@ -36,22 +23,57 @@ public final class ShoppingListDraftEntityMapper {
         );
     }
 
-    public static List<ShoppingListDraftItemEmbeddable> toEmbeddables(List<ShoppingListDraftItem> items) {
+    public static ShoppingListDraftItem toDomain(ShoppingListDraftItemEntity item) {
+        return new ShoppingListDraftItem(
+                item.getId(),
+                item.getIngredientId(),
+                item.getName(),
+                item.getQuantity(),
+                item.getUnit(),
+                item.getSuggestedPackages(),
+                item.getPackageAmount(),
+                item.getPackageUnit(),
+                item.isManual(),
+                item.isBought(),
+                item.getNote(),
+                item.getSortOrder()
+        );
+    }
+
+    public static List<ShoppingListDraftItemEntity> toEntities(List<ShoppingListDraftItem> items) {
         return items.stream()
-                .map(i -> new ShoppingListDraftItemEmbeddable(
-                        i.id(),
-                        i.ingredientId(),
-                        i.name(),
-                        i.quantity(),
-                        i.unit(),
-                        i.suggestedPackages(),
-                        i.packageAmount(),
-                        i.packageUnit(),
-                        i.manual(),
-                        i.bought(),
-                        i.note(),
-                        i.sortOrder()
-                ))
+                .map(ShoppingListDraftEntityMapper::toEntity)
                 .collect(Collectors.toCollection(ArrayList::new));
     }
+
+    public static ShoppingListDraftItemEntity toEntity(ShoppingListDraftItem item) {
+        return new ShoppingListDraftItemEntity(
+                item.id(),
+                item.ingredientId(),
+                item.name(),
+                item.quantity(),
+                item.unit(),
+                item.suggestedPackages(),
+                item.packageAmount(),
+                item.packageUnit(),
+                item.manual(),
+                item.bought(),
+                item.note(),
+                item.sortOrder()
+        );
+    }
+
+    public static void copyToEntity(ShoppingListDraftItem item, ShoppingListDraftItemEntity row) {
+        row.setIngredientId(item.ingredientId());
+        row.setName(item.name());
+        row.setQuantity(item.quantity());
+        row.setUnit(item.unit());
+        row.setSuggestedPackages(item.suggestedPackages());
+        row.setPackageAmount(item.packageAmount());
+        row.setPackageUnit(item.packageUnit());
+        row.setManual(item.manual());
+        row.setBought(item.bought());
+        row.setNote(item.note());
+        row.setSortOrder(item.sortOrder());
+    }
 }
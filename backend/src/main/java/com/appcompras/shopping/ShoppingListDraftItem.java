@@ -1,5 +1,9 @@
 package com.appcompras.shopping;
 
+import com.appcompras.domain.ShoppingListItem;
+
+import java.util.UUID;
+
 public record ShoppingListDraftItem(
         String id,
         String ingredientId,
@@ -14,4 +18,21 @@ public record ShoppingListDraftItem(
         String note,
         int sortOrder
 ) {
+
+    public static ShoppingListDraftItem fromGenerated(ShoppingListItem item, int sortOrder) {
+        return new ShoppingListDraftItem(
+                UUID.randomUUID().toString(),
+                item.ingredientId(),
+                item.name(),
+                item.requiredBaseAmount(),
+                item.baseUnit().name(),
+                item.suggestedPackages(),
+                item.packageAmount(),
+                item.packageUnit().name(),
+                false,
+                false,
+                null,
+                sortOrder
+        );
+    }
 }
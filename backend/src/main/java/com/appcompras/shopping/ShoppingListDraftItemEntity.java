@@ -1,11 +1,26 @@
 package com.appcompras.shopping;
 
 import jakarta.persistence.Column;
-import jakarta.persistence.Embeddable;
-
-@Embeddable
-public class ShoppingListDraftItemEmbeddable {
-
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+/**
+ * One row of a draft, identified by its item id within the draft. Display order is {@code sortOrder};
+ * there is no positional index, so edits, inserts and removals only touch the rows involved.
+ */
+@Entity
+@Table(name = "shopping_list_draft_items")
+@IdClass(ShoppingListDraftItemId.class)
+public class ShoppingListDraftItemEntity {
+
+    @Id
+    @Column(name = "draft_id", nullable = false, length = 36)
+    private String draftId;
+
+    @Id
     @Column(name = "item_id", nullable = false, length = 64)
     private String id;
 
@@ -42,10 +57,15 @@ public class ShoppingListDraftItemEmbeddable {
     @Column(name = "sort_order", nullable = false)
     private int sortOrder;
 
-    public ShoppingListDraftItemEmbeddable() {
+    // Null until the row is inserted, which lets Hibernate tell new rows from existing ones without a select.
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    public ShoppingListDraftItemEntity() {
     }
 
-    public ShoppingListDraftItemEmbeddable(
+    public ShoppingListDraftItemEntity(
             String id,
             String ingredientId,
             String name,
@@ -73,6 +93,14 @@ public class ShoppingListDraftItemEmbeddable {
         this.sortOrder = sortOrder;
     }
 
+    public String getDraftId() {
+        return draftId;
+    }
+
+    void setDraftId(String draftId) {
+        this.draftId = draftId;
+    }
+
     public String getId() {
         return id;
     }
@@ -168,4 +196,8 @@ public class ShoppingListDraftItemEmbeddable {
     public void setSortOrder(int sortOrder) {
         this.sortOrder = sortOrder;
     }
+
+    public Long getVersion() {
+        return version;
+    }
 }
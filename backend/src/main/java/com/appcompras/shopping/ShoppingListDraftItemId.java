@@ -0,0 +1,42 @@
+package com.appcompras.shopping;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class ShoppingListDraftItemId implements Serializable {
+
+    private String draftId;
+    private String id;
+
+    public ShoppingListDraftItemId() {
+    }
+
+    public ShoppingListDraftItemId(String draftId, String id) {
+        this.draftId = draftId;
+        this.id = id;
+    }
+
+    public String getDraftId() {
+        return draftId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ShoppingListDraftItemId that)) {
+            return false;
+        }
+        return Objects.equals(draftId, that.draftId) && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(draftId, id);
+    }
+}
@@ -1,18 +1,44 @@
 package com.appcompras.shopping;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 public interface ShoppingListDraftRepository extends JpaRepository<ShoppingListDraftEntity, String> {
 
+    @EntityGraph(ShoppingListDraftEntity.WITH_ITEMS_GRAPH)
     Optional<ShoppingListDraftEntity> findByIdAndUserId(String id, String userId);
 
     boolean existsByIdAndUserId(String id, String userId);
 
+    @Query("select d.updatedAt from ShoppingListDraftEntity d where d.id = :id and d.userId = :userId")
+    Optional<Instant> findUpdatedAt(@Param("id") String id, @Param("userId") String userId);
+
     List<ShoppingListDraftEntity> findAllByUserIdOrderByCreatedAtDescIdAsc(String userId);
 
+    List<ShoppingListDraftEntity> findAllByUserIdOrderByCreatedAtDescIdAsc(String userId, Limit limit);
+
+    @Query("""
+            select d from ShoppingListDraftEntity d
+            where d.userId = :userId
+              and (d.createdAt < :createdAt or (d.createdAt = :createdAt and d.id > :id))
+            order by d.createdAt desc, d.id asc
+            """)
+    List<ShoppingListDraftEntity> findPageAfter(
+            @Param("userId") String userId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") String id,
+            Limit limit
+    );
+
+    List<ShoppingListDraftEntity> findAllByUserIdAndPlanId(String userId, String planId);
+
     Optional<ShoppingListDraftEntity> findTopByUserIdAndPlanIdAndIdempotencyKeyOrderByCreatedAtDesc(
             String userId,
             String planId,
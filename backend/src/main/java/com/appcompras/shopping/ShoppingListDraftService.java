@@ -3,15 +3,27 @@ package com.appcompras.shopping;
 import com.appcompras.config.ApiErrorCode;
 import com.appcompras.config.BusinessRuleException;
 import com.appcompras.domain.ShoppingListItem;
+import com.appcompras.http.EntityTags;
+import com.appcompras.paging.KeysetCursor;
+import com.appcompras.paging.KeysetPage;
 import com.appcompras.security.CurrentUserProvider;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.IntStream;
 
@@ -51,9 +63,9 @@ public class ShoppingListDraftService {
         entity.setIdempotencyKey(normalizedIdempotencyKey);
         List<ShoppingListDraftItem> generatedDraftItems = new ArrayList<>();
         for (int i = 0; i < generatedItems.size(); i++) {
-            generatedDraftItems.add(toDraftItem(generatedItems.get(i), i));
+            generatedDraftItems.add(ShoppingListDraftItem.fromGenerated(generatedItems.get(i), i));
         }
-        entity.setItems(ShoppingListDraftEntityMapper.toEmbeddables(generatedDraftItems));
+        entity.setItems(ShoppingListDraftEntityMapper.toEntities(generatedDraftItems));
         entity.setCreatedAt(now);
         entity.setUpdatedAt(now);
 
@@ -82,6 +94,15 @@ public class ShoppingListDraftService {
                 .map(ShoppingListDraftEntityMapper::toDomain);
     }
 
+    /**
+     * Last modification time of the draft without loading its items, for answering conditional requests.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Instant> findUpdatedAt(String id) {
+        String userId = currentUserProvider.getCurrentUserId();
+        return shoppingListDraftRepository.findUpdatedAt(id, userId);
+    }
+
     @Transactional(readOnly = true)
     public List<ShoppingListDraft> findAll() {
         String userId = currentUserProvider.getCurrentUserId();
@@ -90,27 +111,164 @@ public class ShoppingListDraftService {
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public KeysetPage<ShoppingListDraft> findPage(Integer limit, String cursor) {
+        String userId = currentUserProvider.getCurrentUserId();
+        int pageSize = KeysetPage.resolveLimit(limit);
+        Limit overfetch = Limit.of(pageSize + 1);
+
+        List<ShoppingListDraftEntity> entities;
+        if (cursor == null) {
+            entities = shoppingListDraftRepository.findAllByUserIdOrderByCreatedAtDescIdAsc(userId, overfetch);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            entities = shoppingListDraftRepository.findPageAfter(userId, after.createdAt(), after.id(), overfetch);
+        }
+
+        return KeysetPage.fromOverfetched(
+                entities,
+                pageSize,
+                entity -> new KeysetCursor(entity.getCreatedAt(), entity.getId()),
+                ShoppingListDraftEntityMapper::toDomain
+        );
+    }
+
     @Transactional
     public Optional<ShoppingListDraft> replaceItems(String id, UpdateShoppingListRequest request) {
+        return replaceItems(id, request, null);
+    }
+
+    /**
+     * Replaces the draft items; a non-null {@code ifMatch} must match the current entity tag.
+     */
+    @Transactional
+    public Optional<ShoppingListDraft> replaceItems(String id, UpdateShoppingListRequest request, String ifMatch) {
         String userId = currentUserProvider.getCurrentUserId();
         Optional<ShoppingListDraftEntity> existingOpt = shoppingListDraftRepository.findByIdAndUserId(id, userId);
         if (existingOpt.isEmpty()) {
             return Optional.empty();
         }
+        EntityTags.requireIfMatch(ifMatch, id, existingOpt.get().getUpdatedAt());
 
         ShoppingListDraftEntity existing = existingOpt.get();
         validateItems(request.items());
-        existing.setItems(ShoppingListDraftEntityMapper.toEmbeddables(
-                IntStream.range(0, request.items().size())
-                        .mapToObj(i -> fromRequestItem(request.items().get(i), i))
-                        .toList()
-        ));
+        List<ShoppingListDraftItem> requestedItems = IntStream.range(0, request.items().size())
+                .mapToObj(i -> fromRequestItem(request.items().get(i), i))
+                .toList();
+
+        // Rows are matched by item id: kept rows are updated only if they changed, the rest are inserted or deleted.
+        Map<String, ShoppingListDraftItemEntity> rowsById = new HashMap<>();
+        for (ShoppingListDraftItemEntity row : existing.getItems()) {
+            rowsById.put(row.getId(), row);
+        }
+        Set<String> seenIds = new HashSet<>();
+        List<ShoppingListDraftItemEntity> rows = new ArrayList<>(requestedItems.size());
+        for (int i = 0; i < requestedItems.size(); i++) {
+            ShoppingListDraftItem item = requestedItems.get(i);
+            if (!seenIds.add(item.id())) {
+                throw new BusinessRuleException(
+                        ApiErrorCode.SHOPPING_ITEM_DUPLICATE_ID,
+                        "items[" + i + "].id is repeated in this request: " + item.id()
+                );
+            }
+            ShoppingListDraftItemEntity row = rowsById.get(item.id());
+            if (row == null) {
+                rows.add(ShoppingListDraftEntityMapper.toEntity(item));
+            } else {
+                ShoppingListDraftEntityMapper.copyToEntity(item, row);
+                rows.add(row);
+            }
+        }
+        existing.setItems(rows);
         existing.setUpdatedAt(Instant.now());
 
-        ShoppingListDraftEntity saved = shoppingListDraftRepository.save(existing);
+        ShoppingListDraftEntity saved = EntityTags.writeIfMatch(ifMatch, () -> shoppingListDraftRepository.saveAndFlush(existing));
         return Optional.of(ShoppingListDraftEntityMapper.toDomain(saved));
     }
 
+    @Transactional
+    public Optional<ShoppingListDraftDelta> patchItem(String id, String itemId, PatchShoppingListItemRequest request) {
+        Optional<ShoppingListDraftEntity> existingOpt = findOwned(id);
+        if (existingOpt.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ShoppingListDraftEntity existing = existingOpt.get();
+        List<ShoppingListDraftItemEntity> items = existing.getItems();
+        int index = indexOfItem(items, itemId);
+        if (index < 0) {
+            return Optional.empty();
+        }
+        validatePatch(request);
+
+        // Only rows whose values differ are flushed, each as a single-row update.
+        ShoppingListDraftItemEntity row = items.get(index);
+        Map<String, ShoppingListDraftItemEntity> changed = new LinkedHashMap<>();
+        if (request.bought() != null && request.bought() != row.isBought()) {
+            row.setBought(request.bought());
+            changed.put(row.getId(), row);
+        }
+        if (request.note() != null) {
+            String note = request.note().isBlank() ? null : request.note().trim();
+            if (!Objects.equals(note, row.getNote())) {
+                row.setNote(note);
+                changed.put(row.getId(), row);
+            }
+        }
+        if (request.quantity() != null && request.quantity() != row.getQuantity()) {
+            row.setQuantity(request.quantity());
+            // The user owns an edited quantity: plan edits no longer recompute this row.
+            row.setManual(true);
+            changed.put(row.getId(), row);
+        }
+        if (request.sortOrder() != null) {
+            moveItem(items, row, request.sortOrder(), changed);
+        }
+
+        return Optional.of(toDelta(existing, changed.values(), List.of()));
+    }
+
+    @Transactional
+    public Optional<ShoppingListDraftDelta> addItem(String id, UpdateShoppingListRequest.ItemInput input) {
+        Optional<ShoppingListDraftEntity> existingOpt = findOwned(id);
+        if (existingOpt.isEmpty()) {
+            return Optional.empty();
+        }
+
+        validateItem(input, "item");
+        ShoppingListDraftEntity existing = existingOpt.get();
+        List<ShoppingListDraftItemEntity> items = existing.getItems();
+        if (input.id() != null && !input.id().isBlank() && indexOfItem(items, input.id()) >= 0) {
+            throw new BusinessRuleException(ApiErrorCode.SHOPPING_ITEM_DUPLICATE_ID, "item.id already exists in this draft: " + input.id());
+        }
+
+        int nextSortOrder = items.stream().mapToInt(ShoppingListDraftItemEntity::getSortOrder).max().orElse(-1) + 1;
+        ShoppingListDraftItemEntity row = ShoppingListDraftEntityMapper.toEntity(fromRequestItem(input, nextSortOrder));
+        existing.addItem(row);
+
+        return Optional.of(toDelta(existing, List.of(row), List.of()));
+    }
+
+    @Transactional
+    public Optional<ShoppingListDraftDelta> removeItem(String id, String itemId) {
+        Optional<ShoppingListDraftEntity> existingOpt = findOwned(id);
+        if (existingOpt.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ShoppingListDraftEntity existing = existingOpt.get();
+        List<ShoppingListDraftItemEntity> items = existing.getItems();
+        int index = indexOfItem(items, itemId);
+        if (index < 0) {
+            return Optional.empty();
+        }
+
+        // Display order is sortOrder, so the gap is left as is and only the removed row is deleted.
+        items.remove(index);
+
+        return Optional.of(toDelta(existing, List.of(), List.of(itemId)));
+    }
+
     @Transactional
     public boolean deleteById(String id) {
         String userId = currentUserProvider.getCurrentUserId();
@@ -122,20 +280,67 @@ public class ShoppingListDraftService {
         return true;
     }
 
-    private ShoppingListDraftItem toDraftItem(ShoppingListItem item, int index) {
-        return new ShoppingListDraftItem(
-                UUID.randomUUID().toString(),
-                item.ingredientId(),
-                item.name(),
-                item.requiredBaseAmount(),
-                item.baseUnit().name(),
-                item.suggestedPackages(),
-                item.packageAmount(),
-                item.packageUnit().name(),
-                false,
-                false,
-                null,
-                index
+    private Optional<ShoppingListDraftEntity> findOwned(String id) {
+        String userId = currentUserProvider.getCurrentUserId();
+        return shoppingListDraftRepository.findByIdAndUserId(id, userId);
+    }
+
+    private int indexOfItem(List<ShoppingListDraftItemEntity> items, String itemId) {
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).getId().equals(itemId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // sortOrder is a value, not a position: gaps left by removed rows stay, and only the rows whose value lies
+    // between the old and the new one shift by one toward the old value.
+    private void moveItem(
+            List<ShoppingListDraftItemEntity> items,
+            ShoppingListDraftItemEntity row,
+            int targetSortOrder,
+            Map<String, ShoppingListDraftItemEntity> changed
+    ) {
+        int currentSortOrder = row.getSortOrder();
+        if (targetSortOrder == currentSortOrder) {
+            return;
+        }
+        boolean movingUp = targetSortOrder < currentSortOrder;
+        row.setSortOrder(targetSortOrder);
+        changed.put(row.getId(), row);
+
+        List<ShoppingListDraftItemEntity> shifted = new ArrayList<>();
+        for (ShoppingListDraftItemEntity item : items) {
+            int sortOrder = item.getSortOrder();
+            if (item == row) {
+                continue;
+            }
+            if (movingUp && sortOrder >= targetSortOrder && sortOrder < currentSortOrder) {
+                item.setSortOrder(sortOrder + 1);
+                shifted.add(item);
+            } else if (!movingUp && sortOrder > currentSortOrder && sortOrder <= targetSortOrder) {
+                item.setSortOrder(sortOrder - 1);
+                shifted.add(item);
+            }
+        }
+        shifted.sort(Comparator.comparingInt(ShoppingListDraftItemEntity::getSortOrder));
+        shifted.forEach(item -> changed.put(item.getId(), item));
+    }
+
+    private ShoppingListDraftDelta toDelta(
+            ShoppingListDraftEntity draft,
+            Collection<ShoppingListDraftItemEntity> upserted,
+            List<String> removedItemIds
+    ) {
+        if (!upserted.isEmpty() || !removedItemIds.isEmpty()) {
+            draft.setUpdatedAt(Instant.now());
+        }
+        return new ShoppingListDraftDelta(
+                draft.getId(),
+                upserted.stream().map(ShoppingListDraftEntityMapper::toDomain).toList(),
+                removedItemIds,
+                draft.getUpdatedAt()
         );
     }
 
@@ -166,44 +371,55 @@ public class ShoppingListDraftService {
 
     private void validateItems(List<UpdateShoppingListRequest.ItemInput> items) {
         for (int i = 0; i < items.size(); i++) {
-            UpdateShoppingListRequest.ItemInput item = items.get(i);
-            String context = "items[" + i + "]";
+            validateItem(items.get(i), "items[" + i + "]");
+        }
+    }
 
-            if (!item.manual() && (item.ingredientId() == null || item.ingredientId().isBlank())) {
-                throw new BusinessRuleException(
-                        ApiErrorCode.SHOPPING_ITEM_INGREDIENT_REQUIRED,
-                        context + ".ingredientId is required when manual=false"
-                );
-            }
+    private void validatePatch(PatchShoppingListItemRequest request) {
+        if (request.note() != null && request.note().length() > 280) {
+            throw new BusinessRuleException(ApiErrorCode.SHOPPING_ITEM_NOTE_TOO_LONG, "note max length is 280");
+        }
 
-            boolean hasSuggestedPackages = item.suggestedPackages() != null;
-            boolean hasPackageAmount = item.packageAmount() != null;
-            boolean hasPackageUnit = item.packageUnit() != null && !item.packageUnit().isBlank();
-            boolean hasPackagingData = hasSuggestedPackages || hasPackageAmount || hasPackageUnit;
-            boolean hasCompletePackagingData = hasSuggestedPackages && hasPackageAmount && hasPackageUnit;
+        if (request.sortOrder() != null && request.sortOrder() < 0) {
+            throw new BusinessRuleException(ApiErrorCode.SHOPPING_ITEM_INVALID_SORT_ORDER, "sortOrder must be >= 0");
+        }
+    }
 
-            if (hasPackagingData && !hasCompletePackagingData) {
-                throw new BusinessRuleException(
-                        ApiErrorCode.SHOPPING_ITEM_PACKAGE_FIELDS_INCOMPLETE,
-                        context + " package fields must be sent together: suggestedPackages, packageAmount, packageUnit"
-                );
-            }
+    private void validateItem(UpdateShoppingListRequest.ItemInput item, String context) {
+        if (!item.manual() && (item.ingredientId() == null || item.ingredientId().isBlank())) {
+            throw new BusinessRuleException(
+                    ApiErrorCode.SHOPPING_ITEM_INGREDIENT_REQUIRED,
+                    context + ".ingredientId is required when manual=false"
+            );
+        }
 
-            if (hasSuggestedPackages && item.suggestedPackages() <= 0) {
-                throw new BusinessRuleException(ApiErrorCode.SHOPPING_ITEM_INVALID_SUGGESTED_PACKAGES, context + ".suggestedPackages must be > 0");
-            }
+        boolean hasSuggestedPackages = item.suggestedPackages() != null;
+        boolean hasPackageAmount = item.packageAmount() != null;
+        boolean hasPackageUnit = item.packageUnit() != null && !item.packageUnit().isBlank();
+        boolean hasPackagingData = hasSuggestedPackages || hasPackageAmount || hasPackageUnit;
+        boolean hasCompletePackagingData = hasSuggestedPackages && hasPackageAmount && hasPackageUnit;
 
-            if (hasPackageAmount && item.packageAmount() <= 0) {
-                throw new BusinessRuleException(ApiErrorCode.SHOPPING_ITEM_INVALID_PACKAGE_AMOUNT, context + ".packageAmount must be > 0");
-            }
+        if (hasPackagingData && !hasCompletePackagingData) {
+            throw new BusinessRuleException(
+                    ApiErrorCode.SHOPPING_ITEM_PACKAGE_FIELDS_INCOMPLETE,
+                    context + " package fields must be sent together: suggestedPackages, packageAmount, packageUnit"
+            );
+        }
 
-            if (item.note() != null && item.note().length() > 280) {
-                throw new BusinessRuleException(ApiErrorCode.SHOPPING_ITEM_NOTE_TOO_LONG, context + ".note max length is 280");
-            }
+        if (hasSuggestedPackages && item.suggestedPackages() <= 0) {
+            throw new BusinessRuleException(ApiErrorCode.SHOPPING_ITEM_INVALID_SUGGESTED_PACKAGES, context + ".suggestedPackages must be > 0");
+        }
 
-            if (item.sortOrder() != null && item.sortOrder() < 0) {
-                throw new BusinessRuleException(ApiErrorCode.SHOPPING_ITEM_INVALID_SORT_ORDER, context + ".sortOrder must be >= 0");
-            }
+        if (hasPackageAmount && item.packageAmount() <= 0) {
+            throw new BusinessRuleException(ApiErrorCode.SHOPPING_ITEM_INVALID_PACKAGE_AMOUNT, context + ".packageAmount must be > 0");
+        }
+
+        if (item.note() != null && item.note().length() > 280) {
+            throw new BusinessRuleException(ApiErrorCode.SHOPPING_ITEM_NOTE_TOO_LONG, context + ".note max length is 280");
+        }
+
+        if (item.sortOrder() != null && item.sortOrder() < 0) {
+            throw new BusinessRuleException(ApiErrorCode.SHOPPING_ITEM_INVALID_SORT_ORDER, context + ".sortOrder must be >= 0");
         }
     }
 }
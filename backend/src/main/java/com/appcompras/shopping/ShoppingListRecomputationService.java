@@ -0,0 +1,252 @@
+package com.appcompras.shopping;
+
+import com.appcompras.domain.Recipe;
+import com.appcompras.domain.ShoppingListItem;
+import com.appcompras.planning.MealPlanEntity;
+import com.appcompras.recipe.RecipeService;
+import com.appcompras.service.ShoppingListService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Keeps the per-plan ingredient totals and the plan's existing drafts in step with plan edits.
+ * Only recipes whose slot count changed are loaded and converted; only the draft rows of the
+ * ingredients they touch are patched, so manual rows, deleted rows and bought/note state survive.
+ */
+@Service
+public class ShoppingListRecomputationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ShoppingListRecomputationService.class);
+
+    // Totals are kept unrounded; anything below this after subtracting a recipe is floating-point residue.
+    private static final double EMPTY_TOTAL = 1e-9;
+
+    private final RecipeService recipeService;
+    private final ShoppingListService shoppingListService;
+    private final ShoppingListDraftRepository shoppingListDraftRepository;
+
+    public ShoppingListRecomputationService(
+            RecipeService recipeService,
+            ShoppingListService shoppingListService,
+            ShoppingListDraftRepository shoppingListDraftRepository
+    ) {
+        this.recipeService = recipeService;
+        this.shoppingListService = shoppingListService;
+        this.shoppingListDraftRepository = shoppingListDraftRepository;
+    }
+
+    @Transactional
+    public void applyPlanChange(
+            MealPlanEntity plan,
+            Map<String, Integer> previousCountByRecipe,
+            Map<String, Integer> nextCountByRecipe
+    ) {
+        Map<String, Integer> slotDeltaByRecipeId = slotDeltas(previousCountByRecipe, nextCountByRecipe);
+        if (slotDeltaByRecipeId.isEmpty() && plan.getIngredientTotalsAt() != null) {
+            return;
+        }
+
+        Set<String> previousIngredientIds;
+        Set<String> affectedIngredientIds;
+        try {
+            if (plan.getIngredientTotalsAt() == null) {
+                // Invalidated, e.g. by a recipe edit or for plans older than the stored totals: the previous
+                // ingredient set comes from the previous slots, so ingredients the change brings in still get rows.
+                Set<String> recipeIds = new LinkedHashSet<>(previousCountByRecipe.keySet());
+                recipeIds.addAll(nextCountByRecipe.keySet());
+                List<Recipe> recipes = toDomainRecipes(recipeService.findAllByIds(recipeIds).values());
+                previousIngredientIds = shoppingListService.baseAmountDeltas(recipes, previousCountByRecipe).keySet();
+                affectedIngredientIds = rebuildTotals(plan, recipes, nextCountByRecipe);
+            } else {
+                previousIngredientIds = Set.copyOf(plan.getIngredientTotals().keySet());
+                affectedIngredientIds = applyTotalsDelta(plan, slotDeltaByRecipeId)
+                        .orElseGet(() -> rebuildTotals(plan, toDomainRecipes(
+                                recipeService.findAllByIds(nextCountByRecipe.keySet()).values()), nextCountByRecipe));
+            }
+        } catch (IllegalArgumentException ex) {
+            // Same failure generate would report; leave drafts alone and rebuild on the next edit.
+            log.warn("Could not recompute ingredient totals for plan {}: {}", plan.getId(), ex.getMessage());
+            plan.setIngredientTotalsAt(null);
+            return;
+        }
+        plan.setIngredientTotalsAt(Instant.now());
+
+        if (!affectedIngredientIds.isEmpty()) {
+            Set<String> newIngredientIds = new HashSet<>();
+            for (String ingredientId : affectedIngredientIds) {
+                if (!previousIngredientIds.contains(ingredientId) && plan.getIngredientTotals().containsKey(ingredientId)) {
+                    newIngredientIds.add(ingredientId);
+                }
+            }
+            patchDrafts(plan, affectedIngredientIds, newIngredientIds);
+        }
+    }
+
+    private Optional<Set<String>> applyTotalsDelta(MealPlanEntity plan, Map<String, Integer> slotDeltaByRecipeId) {
+        Map<String, com.appcompras.recipe.Recipe> changedRecipes = recipeService.findAllByIds(slotDeltaByRecipeId.keySet());
+        if (changedRecipes.size() != slotDeltaByRecipeId.size()) {
+            // A removed slot points at a deleted recipe, so its contribution can no longer be subtracted.
+            return Optional.empty();
+        }
+
+        Map<String, Double> deltas = shoppingListService.baseAmountDeltas(
+                toDomainRecipes(changedRecipes.values()), slotDeltaByRecipeId);
+
+        Map<String, Double> totals = plan.getIngredientTotals();
+        deltas.forEach((ingredientId, delta) -> {
+            double total = totals.getOrDefault(ingredientId, 0.0) + delta;
+            if (total > EMPTY_TOTAL) {
+                totals.put(ingredientId, total);
+            } else {
+                totals.remove(ingredientId);
+            }
+        });
+        return Optional.of(deltas.keySet());
+    }
+
+    private Set<String> rebuildTotals(MealPlanEntity plan, List<Recipe> recipes, Map<String, Integer> nextCountByRecipe) {
+        Map<String, Double> rebuilt = shoppingListService.baseAmountDeltas(recipes, nextCountByRecipe);
+
+        Map<String, Double> totals = plan.getIngredientTotals();
+        Set<String> affectedIngredientIds = new LinkedHashSet<>(rebuilt.keySet());
+        affectedIngredientIds.addAll(totals.keySet());
+
+        for (String ingredientId : List.copyOf(totals.keySet())) {
+            if (!rebuilt.containsKey(ingredientId)) {
+                totals.remove(ingredientId);
+            }
+        }
+        totals.putAll(rebuilt);
+        return affectedIngredientIds;
+    }
+
+    private void patchDrafts(MealPlanEntity plan, Set<String> affectedIngredientIds, Set<String> newIngredientIds) {
+        List<ShoppingListDraftEntity> drafts = shoppingListDraftRepository.findAllByUserIdAndPlanId(
+                plan.getUserId(), plan.getId());
+        if (drafts.isEmpty()) {
+            return;
+        }
+
+        Map<String, Optional<ShoppingListItem>> itemsByIngredientId = new LinkedHashMap<>();
+        for (String ingredientId : affectedIngredientIds) {
+            itemsByIngredientId.put(ingredientId, shoppingListService.itemForBaseTotal(
+                    ingredientId, plan.getIngredientTotals().getOrDefault(ingredientId, 0.0)));
+        }
+
+        Instant now = Instant.now();
+        for (ShoppingListDraftEntity draft : drafts) {
+            if (patchDraft(draft, itemsByIngredientId, newIngredientIds)) {
+                draft.setUpdatedAt(now);
+            }
+        }
+    }
+
+    /**
+     * Updates the generated rows that are still in the draft and adds rows only for ingredients new to the plan.
+     * A generated row the user deleted stays deleted while its ingredient remains in the plan.
+     */
+    private boolean patchDraft(
+            ShoppingListDraftEntity draft,
+            Map<String, Optional<ShoppingListItem>> itemsByIngredientId,
+            Set<String> newIngredientIds
+    ) {
+        List<ShoppingListDraftItemEntity> items = draft.getItems();
+        Map<String, ShoppingListDraftItemEntity> generatedRows = new HashMap<>();
+        Set<String> listedIngredientIds = new HashSet<>();
+        int nextSortOrder = 0;
+        for (ShoppingListDraftItemEntity item : items) {
+            if (item.getIngredientId() != null) {
+                listedIngredientIds.add(item.getIngredientId());
+                if (!item.isManual()) {
+                    generatedRows.putIfAbsent(item.getIngredientId(), item);
+                }
+            }
+            nextSortOrder = Math.max(nextSortOrder, item.getSortOrder() + 1);
+        }
+
+        boolean changed = false;
+        Set<ShoppingListDraftItemEntity> removed = new HashSet<>();
+        List<ShoppingListDraftItemEntity> added = new ArrayList<>();
+        for (Map.Entry<String, Optional<ShoppingListItem>> entry : itemsByIngredientId.entrySet()) {
+            ShoppingListDraftItemEntity row = generatedRows.get(entry.getKey());
+            Optional<ShoppingListItem> item = entry.getValue();
+            if (item.isEmpty()) {
+                if (row != null) {
+                    removed.add(row);
+                }
+            } else if (row == null) {
+                // A manual row for the ingredient, e.g. one whose quantity the user edited, stands in for it.
+                if (newIngredientIds.contains(entry.getKey()) && !listedIngredientIds.contains(entry.getKey())) {
+                    added.add(ShoppingListDraftEntityMapper.toEntity(
+                            ShoppingListDraftItem.fromGenerated(item.get(), nextSortOrder++)));
+                }
+            } else {
+                changed |= updateGeneratedRow(row, item.get());
+            }
+        }
+
+        if (!removed.isEmpty()) {
+            items.removeIf(removed::contains);
+        }
+        added.forEach(draft::addItem);
+        return changed || !removed.isEmpty() || !added.isEmpty();
+    }
+
+    // Quantity and packaging follow the plan; id, name, bought, note and sortOrder belong to the user.
+    private boolean updateGeneratedRow(ShoppingListDraftItemEntity row, ShoppingListItem item) {
+        String unit = item.baseUnit().name();
+        String packageUnit = item.packageUnit().name();
+        boolean unchanged = row.getQuantity() == item.requiredBaseAmount()
+                && unit.equals(row.getUnit())
+                && Integer.valueOf(item.suggestedPackages()).equals(row.getSuggestedPackages())
+                && Double.valueOf(item.packageAmount()).equals(row.getPackageAmount())
+                && packageUnit.equals(row.getPackageUnit());
+        if (unchanged) {
+            return false;
+        }
+
+        row.setQuantity(item.requiredBaseAmount());
+        row.setUnit(unit);
+        row.setSuggestedPackages(item.suggestedPackages());
+        row.setPackageAmount(item.packageAmount());
+        row.setPackageUnit(packageUnit);
+        return true;
+    }
+
+    private List<Recipe> toDomainRecipes(Iterable<com.appcompras.recipe.Recipe> recipes) {
+        List<Recipe> domainRecipes = new ArrayList<>();
+        for (com.appcompras.recipe.Recipe recipe : recipes) {
+            domainRecipes.add(DomainRecipeMapper.toDomain(recipe));
+        }
+        return domainRecipes;
+    }
+
+    private Map<String, Integer> slotDeltas(Map<String, Integer> previousCountByRecipe, Map<String, Integer> nextCountByRecipe) {
+        Map<String, Integer> deltas = new LinkedHashMap<>();
+        nextCountByRecipe.forEach((recipeId, count) -> {
+            int delta = count - previousCountByRecipe.getOrDefault(recipeId, 0);
+            if (delta != 0) {
+                deltas.put(recipeId, delta);
+            }
+        });
+        previousCountByRecipe.forEach((recipeId, count) -> {
+            if (!nextCountByRecipe.containsKey(recipeId)) {
+                deltas.put(recipeId, -count);
+            }
+        });
+        return deltas;
+    }
+}
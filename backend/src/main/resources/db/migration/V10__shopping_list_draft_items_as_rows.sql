@@ -0,0 +1,53 @@
+-- Draft items become rows keyed by (draft_id, item_id); sort_order is the only ordering,
+-- so the positional key is dropped. Rebuilt as a new table because the primary key changes.
+-- sort_order is renumbered per draft in the order items were shown, by sort_order and then position,
+-- so duplicate values no longer fall back to the random item id.
+CREATE TABLE shopping_list_draft_items_v10 (
+    draft_id VARCHAR(36) NOT NULL,
+    item_id VARCHAR(64) NOT NULL,
+    ingredient_id VARCHAR(128),
+    name VARCHAR(255) NOT NULL,
+    quantity DOUBLE PRECISION NOT NULL,
+    unit VARCHAR(64) NOT NULL,
+    suggested_packages INTEGER,
+    package_amount DOUBLE PRECISION,
+    package_unit VARCHAR(64),
+    manual BOOLEAN NOT NULL,
+    bought BOOLEAN NOT NULL DEFAULT FALSE,
+    note TEXT,
+    sort_order INTEGER NOT NULL DEFAULT 0,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO shopping_list_draft_items_v10 (
+    draft_id, item_id, ingredient_id, name, quantity, unit,
+    suggested_packages, package_amount, package_unit, manual, bought, note, sort_order, version
+)
+SELECT
+    draft_id, item_id, ingredient_id, name, quantity, unit,
+    suggested_packages, package_amount, package_unit, manual, bought, note,
+    ROW_NUMBER() OVER (PARTITION BY draft_id ORDER BY sort_order, position) - 1,
+    0
+FROM shopping_list_draft_items;
+
+DROP TABLE shopping_list_draft_items;
+
+ALTER TABLE shopping_list_draft_items_v10 RENAME TO shopping_list_draft_items;
+
+ALTER TABLE shopping_list_draft_items
+    ADD CONSTRAINT pk_shopping_list_draft_items PRIMARY KEY (draft_id, item_id);
+
+ALTER TABLE shopping_list_draft_items
+    ADD CONSTRAINT fk_shopping_list_draft_items_draft
+        FOREIGN KEY (draft_id)
+        REFERENCES shopping_list_drafts(id)
+        ON DELETE CASCADE;
+
+ALTER TABLE shopping_list_draft_items
+    ADD CONSTRAINT chk_shopping_list_draft_items_quantity_positive CHECK (quantity > 0);
+
+ALTER TABLE shopping_list_draft_items
+    ADD CONSTRAINT chk_shopping_list_draft_items_package_amount_positive CHECK (package_amount IS NULL OR package_amount > 0);
+
+CREATE INDEX idx_shopping_list_draft_items_draft_sort_order ON shopping_list_draft_items (draft_id, sort_order);
+CREATE INDEX idx_shopping_list_draft_items_ingredient_id ON shopping_list_draft_items (ingredient_id);
@@ -0,0 +1,4 @@
+-- Optimistic lock for plans: the ingredient totals are updated in place from the loaded row, so two concurrent
+-- edits must not both apply their delta to the same starting totals.
+ALTER TABLE meal_plans
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,7 @@
+-- Optimistic lock for recipes and drafts: a PUT writes only if the row is still at the version it loaded,
+-- so two writers that sent the same If-Match cannot both succeed.
+ALTER TABLE recipes
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE shopping_list_drafts
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
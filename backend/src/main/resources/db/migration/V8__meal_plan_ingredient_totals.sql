@@ -0,0 +1,13 @@
+ALTER TABLE meal_plans
+    ADD COLUMN ingredient_totals_at TIMESTAMP WITH TIME ZONE;
+
+CREATE TABLE meal_plan_ingredient_totals (
+    plan_id VARCHAR(36) NOT NULL,
+    ingredient_id VARCHAR(128) NOT NULL,
+    base_amount DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (plan_id, ingredient_id),
+    CONSTRAINT fk_meal_plan_ingredient_totals_plan
+        FOREIGN KEY (plan_id)
+        REFERENCES meal_plans(id)
+        ON DELETE CASCADE
+);
@@ -0,0 +1,11 @@
+-- Keyset pagination reads each user's rows ordered by (created_at DESC, id ASC).
+-- The composite indexes make every page a bounded index range scan; user_id is their leading column,
+-- so the single-column user_id indexes from V5 become redundant.
+CREATE INDEX idx_recipes_user_created_at_id ON recipes (user_id, created_at DESC, id);
+CREATE INDEX idx_recipes_user_type_created_at_id ON recipes (user_id, type, created_at DESC, id);
+CREATE INDEX idx_meal_plans_user_created_at_id ON meal_plans (user_id, created_at DESC, id);
+CREATE INDEX idx_shopping_list_drafts_user_created_at_id ON shopping_list_drafts (user_id, created_at DESC, id);
+
+DROP INDEX IF EXISTS idx_recipes_user_id;
+DROP INDEX IF EXISTS idx_meal_plans_user_id;
+DROP INDEX IF EXISTS idx_shopping_list_drafts_user_id;
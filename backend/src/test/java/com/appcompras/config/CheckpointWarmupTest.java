@@ -0,0 +1,32 @@
+package com.appcompras.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The test JVM has no CRaC support, so the checkpoint is refused and the app must keep serving.
+@SpringBootTest(properties = "app.crac.checkpoint-after-warmup=true")
+@AutoConfigureMockMvc
+class CheckpointWarmupTest {
+
+    @Autowired
+    private CheckpointWarmup checkpointWarmup;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void warmUpRunsAndTheAppServesWhenTheJvmCannotCheckpoint() throws Exception {
+        assertNotNull(checkpointWarmup);
+        checkpointWarmup.warmUp();
+
+        mockMvc.perform(get("/api/ingredients").param("q", "arr"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,64 @@
+package com.appcompras.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles(DeferredBeanInitializer.PROFILE)
+class DeferredBeanInitializerTest {
+
+    @Autowired
+    private DeferredBeanInitializer deferredBeanInitializer;
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void docsBeansAreDeferredAndRequestPathBeansAreNot() {
+        assertTrue(deferredBeanInitializer.deferredBeanNames().contains("appOpenApi"));
+        assertTrue(beanFactory.getBeanDefinition("appOpenApi").isLazyInit());
+
+        assertFalse(deferredBeanInitializer.deferredBeanNames().contains("dataSource"));
+        assertFalse(deferredBeanInitializer.deferredBeanNames().contains("ingredientCatalogService"));
+        assertFalse(deferredBeanInitializer.deferredBeanNames().contains("filterChain"));
+    }
+
+    @Test
+    void originsOutsideTheDeferredPackagesStayEager() {
+        assertTrue(DeferredBeanInitializer.isDeferred("org.springdoc.webmvc.api.OpenApiWebMvcResource"));
+        assertFalse(DeferredBeanInitializer.isDeferred("com.appcompras.service.IngredientCatalogService"));
+        assertFalse(DeferredBeanInitializer.isDeferred("com.zaxxer.hikari.HikariDataSource"));
+        assertFalse(DeferredBeanInitializer.isDeferred(null));
+    }
+
+    @Test
+    void readinessIsExposedAndDocsServeAfterWarmUp() throws Exception {
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+
+        deferredBeanInitializer.warmUp().get(30, TimeUnit.SECONDS);
+        assertTrue(beanFactory.containsSingleton("appOpenApi"));
+
+        mockMvc.perform(get("/v3/api-docs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.info.title").value("AppCompras Backend API"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.appcompras.config;
+
+import com.appcompras.service.CustomIngredientCache;
+import com.appcompras.service.IngredientCatalogService;
+import com.appcompras.service.ShoppingListService;
+import com.appcompras.service.UnitConversionService;
+import com.appcompras.shopping.ShoppingListDraftRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "app.warmup.enabled=true",
+        "app.warmup.iterations=50",
+        "app.warmup.max-duration=PT1M"
+})
+class JitWarmupTest {
+
+    @Autowired
+    private JitWarmup jitWarmup;
+
+    @Autowired
+    private IngredientCatalogService ingredientCatalogService;
+
+    @Autowired
+    private UnitConversionService unitConversionService;
+
+    @Autowired
+    private ShoppingListService shoppingListService;
+
+    @Autowired
+    private CustomIngredientCache customIngredientCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ShoppingListDraftRepository shoppingListDraftRepository;
+
+    @Test
+    void runsTheConfiguredIterationsWithoutWritingAndReportsThem() {
+        long draftsBefore = shoppingListDraftRepository.count();
+
+        JitWarmup.WarmupResult result = jitWarmup.warmUp();
+
+        assertEquals("completed", result.outcome());
+        assertEquals(50, result.iterations());
+        assertEquals(draftsBefore, shoppingListDraftRepository.count());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+        // Once at startup, once above.
+        assertEquals(100.0, meterRegistry.get("appcompras.warmup.iterations").tag("outcome", "completed").counter().count());
+        assertEquals(2, meterRegistry.get("appcompras.warmup.duration").tag("outcome", "completed").timer().count());
+    }
+
+    @Test
+    void stopsAtTheMaxDuration() {
+        JitWarmup bounded = new JitWarmup(
+                ingredientCatalogService,
+                unitConversionService,
+                shoppingListService,
+                customIngredientCache,
+                objectMapper,
+                meterRegistry,
+                true,
+                Integer.MAX_VALUE,
+                Duration.ofMillis(200)
+        );
+
+        JitWarmup.WarmupResult result = bounded.warmUp();
+
+        assertEquals("deadline", result.outcome());
+        assertTrue(result.iterations() > 0);
+        assertNotNull(meterRegistry.find("appcompras.warmup.duration").tag("outcome", "deadline").timer());
+    }
+
+    @Test
+    void runDoesNothingWhenDisabledAtRuntime() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JitWarmup disabled = new JitWarmup(
+                ingredientCatalogService,
+                unitConversionService,
+                shoppingListService,
+                customIngredientCache,
+                objectMapper,
+                registry,
+                false,
+                50,
+                Duration.ofMinutes(1)
+        );
+
+        disabled.run(null);
+
+        assertTrue(registry.getMeters().isEmpty());
+    }
+}
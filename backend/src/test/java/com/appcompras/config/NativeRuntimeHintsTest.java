@@ -0,0 +1,53 @@
+package com.appcompras.config;
+
+import com.appcompras.ingredient.IngredientResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void registerHints() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void seedCatalogAndEveryMigrationAreIncludedAsResources() throws Exception {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("seed/ingredients-catalog-cr.json").test(hints));
+
+        Resource[] migrations = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/*.sql");
+        assertTrue(migrations.length > 0);
+        for (Resource migration : migrations) {
+            assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/" + migration.getFilename()).test(hints),
+                    migration.getFilename());
+        }
+    }
+
+    @Test
+    void swaggerUiWebjarFilesAreIncludedBelowTheirVersionDirectory() throws Exception {
+        String webjarRoot = "META-INF/resources/webjars/swagger-ui/";
+        Resource[] bundles = new PathMatchingResourcePatternResolver()
+                .getResources("classpath*:" + webjarRoot + "*/swagger-ui-bundle.js");
+        assertTrue(bundles.length > 0);
+        for (Resource bundle : bundles) {
+            String url = bundle.getURL().toString();
+            String path = url.substring(url.indexOf(webjarRoot));
+            assertTrue(RuntimeHintsPredicates.resource().forResource(path).test(hints), path);
+            assertTrue(RuntimeHintsPredicates.resource().forResource(path.replace("swagger-ui-bundle.js", "index.html")).test(hints), path);
+        }
+    }
+
+    @Test
+    void bodiesSerializedOutsideTypedControllerMethodsAreReflective() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(IngredientResponse.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ApiError.class).test(hints));
+    }
+}
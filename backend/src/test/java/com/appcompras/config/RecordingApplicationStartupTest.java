@@ -0,0 +1,49 @@
+package com.appcompras.config;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.core.metrics.StartupStep;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RecordingApplicationStartupTest {
+
+    @Test
+    void stepsAreBufferedForTheEndpointAndEmittedAsJfrEvents() throws Exception {
+        RecordingApplicationStartup startup = new RecordingApplicationStartup(16);
+        Path dump = Files.createTempFile("startup-steps", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.appcompras.StartupStep");
+            recording.start();
+
+            StartupStep parent = startup.start("appcompras.ingredients.seed.load").tag("resource", "seed.json");
+            startup.start("appcompras.ingredients.seed.index").end();
+            parent.tag("ingredients", "42").end();
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<StartupTimeline.TimelineEvent> buffered = startup.getBufferedTimeline().getEvents();
+        assertEquals(2, buffered.size());
+        assertEquals("appcompras.ingredients.seed.index", buffered.get(0).getStartupStep().getName());
+        assertEquals(buffered.get(1).getStartupStep().getId(), buffered.get(0).getStartupStep().getParentId());
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        Files.deleteIfExists(dump);
+        assertEquals(2, events.size());
+        RecordedEvent load = events.stream()
+                .filter(event -> event.getString("name").equals("appcompras.ingredients.seed.load"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(-1, load.getLong("parentId"));
+        assertEquals("resource=seed.json, ingredients=42", load.getString("tags"));
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.server.ResponseStatusException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -62,6 +63,35 @@ class RestExceptionHandlerTest {
 		assertNotNull(response.getBody().timestamp());
 	}
 
+	@Test
+	void optimisticLockFailureReturnsConflict() {
+		ObjectOptimisticLockingFailureException exception = new ObjectOptimisticLockingFailureException(
+				"ShoppingListDraftItemEntity",
+				"item-1"
+		);
+		HttpServletRequest request = mockRequest("/api/shopping-lists/draft-1/items/item-1");
+
+		ResponseEntity<ApiError> response = handler.handleOptimisticLock(exception, request);
+
+		assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+		assertEquals(409, response.getBody().status());
+		assertEquals("CONCURRENT_MODIFICATION", response.getBody().code());
+		assertNotNull(response.getBody().timestamp());
+	}
+
+	@Test
+	void preconditionFailureReturnsPreconditionFailed() {
+		PreconditionFailedException exception = new PreconditionFailedException("Resource has changed");
+		HttpServletRequest request = mockRequest("/api/recipes/recipe-1");
+
+		ResponseEntity<ApiError> response = handler.handlePreconditionFailed(exception, request);
+
+		assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+		assertEquals(412, response.getBody().status());
+		assertEquals("PRECONDITION_FAILED", response.getBody().code());
+		assertNotNull(response.getBody().timestamp());
+	}
+
 	@Test
 	void apiErrorHasRequiredFields() {
 		BusinessRuleException exception = new BusinessRuleException(
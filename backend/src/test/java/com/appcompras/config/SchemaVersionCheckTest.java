@@ -0,0 +1,90 @@
+package com.appcompras.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaVersionCheckTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:schema-check-" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void migratesWhenMigrateOnBootIsOn() {
+        new SchemaVersionCheck(true).migrate(flyway("latest"));
+
+        assertEquals(0, flyway("latest").info().pending().length);
+    }
+
+    @Test
+    void passesWhenTheDatabaseIsAtThePackagedVersion() {
+        flyway("latest").migrate();
+
+        assertDoesNotThrow(() -> new SchemaVersionCheck(false).migrate(flyway("latest")));
+    }
+
+    @Test
+    void passesWhenTheDatabaseIsAhead() {
+        flyway("latest").migrate();
+        jdbcTemplate.update("""
+                insert into flyway_schema_history
+                    (installed_rank, version, description, type, script, checksum, installed_by, execution_time, success)
+                values (1000, '1000', 'next release', 'SQL', 'V1000__next_release.sql', 0, 'sa', 1, true)
+                """);
+
+        assertDoesNotThrow(() -> new SchemaVersionCheck(false).migrate(flyway("latest")));
+    }
+
+    @Test
+    void failsWithoutMigratingWhenTheDatabaseIsBehind() {
+        flyway("11").migrate();
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> new SchemaVersionCheck(false).migrate(flyway("latest")));
+        assertTrue(ex.getMessage().contains("version 11"), ex.getMessage());
+        assertTrue(ex.getMessage().contains("migrate"), ex.getMessage());
+        assertEquals(1, flyway("latest").info().pending().length);
+    }
+
+    @Test
+    void failsWhenTheNewestMigrationFailed() {
+        flyway("latest").migrate();
+        jdbcTemplate.update("update flyway_schema_history set success = false where version = '12'");
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> new SchemaVersionCheck(false).migrate(flyway("latest")));
+        assertTrue(ex.getMessage().contains("failed"), ex.getMessage());
+    }
+
+    @Test
+    void failsWhenNothingWasMigrated() {
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> new SchemaVersionCheck(false).migrate(flyway("latest")));
+        assertTrue(ex.getMessage().contains("No applied migrations"), ex.getMessage());
+    }
+
+    private Flyway flyway(String target) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .target(target)
+                .load();
+    }
+}
@@ -0,0 +1,26 @@
+package com.appcompras.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StartupEndpointExposureTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void startupTimelineIsNotServedUnlessEnabled() throws Exception {
+        mockMvc.perform(get("/actuator/startup"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+}
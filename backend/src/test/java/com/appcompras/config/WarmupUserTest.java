@@ -0,0 +1,19 @@
+package com.appcompras.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class WarmupUserTest {
+
+    @Test
+    void authenticatesAsTheWarmupUserUntilTheScopeCloses() {
+        try (WarmupUser.Scope ignored = WarmupUser.signIn("warmup-test")) {
+            assertEquals("warmup-test", SecurityContextHolder.getContext().getAuthentication().getName());
+        }
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+}
@@ -0,0 +1,66 @@
+package com.appcompras.http;
+
+import com.appcompras.config.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityTagsTest {
+
+    private static final Instant UPDATED_AT = Instant.parse("2026-02-08T12:00:00.123456Z");
+
+    @Test
+    void tagIsQuotedAndStableAtColumnPrecision() {
+        String etag = EntityTags.of("recipe-1", UPDATED_AT);
+
+        assertTrue(etag.startsWith("\"recipe-1-") && etag.endsWith("\""));
+        assertEquals(etag, EntityTags.of("recipe-1", Instant.parse("2026-02-08T12:00:00.123456789Z")));
+        assertNotEquals(etag, EntityTags.of("recipe-1", Instant.parse("2026-02-08T12:00:00.123457Z")));
+        assertNotEquals(etag, EntityTags.of("recipe-2", UPDATED_AT));
+    }
+
+    @Test
+    void ifNoneMatchUsesWeakComparisonOverAList() {
+        String etag = EntityTags.of("plan-1", UPDATED_AT);
+
+        assertTrue(EntityTags.matchesIfNoneMatch(etag, etag));
+        assertTrue(EntityTags.matchesIfNoneMatch("\"other\", W/" + etag, etag));
+        assertTrue(EntityTags.matchesIfNoneMatch("*", etag));
+        assertFalse(EntityTags.matchesIfNoneMatch("\"other\"", etag));
+        assertFalse(EntityTags.matchesIfNoneMatch(null, etag));
+    }
+
+    @Test
+    void ifMatchUsesStrongComparison() {
+        String etag = EntityTags.of("draft-1", UPDATED_AT);
+
+        assertDoesNotThrow(() -> EntityTags.requireIfMatch(null, "draft-1", UPDATED_AT));
+        assertDoesNotThrow(() -> EntityTags.requireIfMatch(etag, "draft-1", UPDATED_AT));
+        assertDoesNotThrow(() -> EntityTags.requireIfMatch("*", "draft-1", UPDATED_AT));
+        assertThrows(PreconditionFailedException.class,
+                () -> EntityTags.requireIfMatch("W/" + etag, "draft-1", UPDATED_AT));
+        assertThrows(PreconditionFailedException.class,
+                () -> EntityTags.requireIfMatch(etag, "draft-1", UPDATED_AT.plusMillis(1)));
+    }
+
+    @Test
+    void notModifiedCarriesTheTagButNoBody() {
+        String etag = EntityTags.of("draft-1", UPDATED_AT);
+
+        ResponseEntity<Object> response = EntityTags.notModified(etag);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+}
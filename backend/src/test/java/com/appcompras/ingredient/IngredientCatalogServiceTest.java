@@ -1,8 +1,10 @@
 package com.appcompras.ingredient;
 
+import com.appcompras.config.BusinessRuleException;
 import com.appcompras.domain.IngredientCatalogItem;
 import com.appcompras.domain.MeasurementType;
 import com.appcompras.service.IngredientCatalogService;
+import com.appcompras.service.IngredientSearchResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -136,6 +138,44 @@ class IngredientCatalogServiceTest {
         assertTrue(results.stream().anyMatch(item -> item.ingredientId().startsWith("custom-")));
     }
 
+    @Test
+    void searchRanksPrefixMatchesBeforeInfixMatches() {
+        List<IngredientSearchResult> results = catalogService.search("arr", null);
+        assertEquals("rice", results.get(0).item().ingredientId());
+        assertEquals("Arroz", results.get(0).preferredLabel());
+        assertTrue(results.stream().anyMatch(result -> result.item().ingredientId().equals("carrot")));
+    }
+
+    @Test
+    void searchReturnsExactAliasMatchFirst() {
+        List<IngredientSearchResult> results = catalogService.search("Pollo", null);
+        assertEquals("chicken", results.get(0).item().ingredientId());
+        assertEquals("Pollo", results.get(0).preferredLabel());
+    }
+
+    @Test
+    void searchHonorsLimit() {
+        List<IngredientSearchResult> limited = catalogService.search("ll", 2);
+        assertEquals(2, limited.size());
+        assertEquals(catalogService.search("ll", null).subList(0, 2), limited);
+        assertEquals(3, catalogService.search(null, 3).size());
+    }
+
+    @Test
+    void searchRejectsLimitOutsidePaginationBounds() {
+        BusinessRuleException zero = assertThrows(BusinessRuleException.class, () -> catalogService.search("arroz", 0));
+        assertEquals("INVALID_PAGINATION", zero.getCodeAsString());
+        BusinessRuleException tooLarge = assertThrows(BusinessRuleException.class, () -> catalogService.search("arroz", 101));
+        assertEquals("INVALID_PAGINATION", tooLarge.getCodeAsString());
+        assertFalse(catalogService.search("arroz", 100).isEmpty());
+    }
+
+    @Test
+    void searchMatchesInfixWithoutSharedPrefix() {
+        List<IngredientSearchResult> results = catalogService.search("ozzarel", null);
+        assertTrue(results.stream().anyMatch(result -> result.item().ingredientId().equals("cheese")));
+    }
+
     @Test
     void resolveIngredientIdReturnsSeedItemDirectly() {
         Optional<String> result = catalogService.resolveIngredientId("rice");
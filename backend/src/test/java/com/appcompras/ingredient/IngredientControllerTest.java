@@ -5,12 +5,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -38,6 +41,55 @@ class IngredientControllerTest {
                 .andExpect(jsonPath("$[0].aliases").isArray());
     }
 
+    @Test
+    void listIngredientsHonorsLimit() throws Exception {
+        mockMvc.perform(get("/api/ingredients").param("q", "arr").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value("rice"));
+    }
+
+    @Test
+    void listIngredientsRejectsLimitOutsidePaginationBounds() throws Exception {
+        mockMvc.perform(get("/api/ingredients").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_PAGINATION"));
+        mockMvc.perform(get("/api/ingredients").param("q", "arroz").param("limit", "101"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_PAGINATION"));
+    }
+
+    @Test
+    void listIngredientsAnswersNotModifiedUntilACustomIngredientIsAdded() throws Exception {
+        String etag = mockMvc.perform(get("/api/ingredients"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, org.hamcrest.Matchers.containsString(HttpHeaders.AUTHORIZATION)))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/ingredients").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(post("/api/ingredients/custom")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "name": "Pejibaye rojo",
+                                  "measurementType": "UNIT"
+                                }
+                                """))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/ingredients").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, org.hamcrest.Matchers.not(etag)))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, org.hamcrest.Matchers.containsString("private")))
+                .andExpect(jsonPath("$[?(@.name=='Pejibaye Rojo')]").isNotEmpty());
+    }
+
     @Test
     void aliasBackwardCompatibilitySearchStillResolvesLegacyNames() throws Exception {
         mockMvc.perform(get("/api/ingredients").param("q", "frijoles negros"))
@@ -0,0 +1,74 @@
+package com.appcompras.ingredient;
+
+import com.appcompras.domain.MeasurementType;
+import com.appcompras.service.IngredientCatalogService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SeedCatalogJsonTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private IngredientCatalogService catalogService;
+    private SeedCatalogJson seedCatalogJson;
+
+    @BeforeEach
+    void setUp() {
+        catalogService = new IngredientCatalogService(objectMapper);
+        seedCatalogJson = new SeedCatalogJson(catalogService, objectMapper);
+    }
+
+    @Test
+    void seedOnlyBodyMatchesSerializingTheUnfilteredSearch() throws Exception {
+        assertArrayEquals(objectMapper.writeValueAsBytes(unfilteredSearch(null)), seedCatalogJson.seedOnly());
+        assertSame(seedCatalogJson.seedOnly(), seedCatalogJson.render(List.of(), Integer.MAX_VALUE));
+    }
+
+    @Test
+    void customItemsAreMergedInNameOrderAndLimitApplies() throws Exception {
+        catalogService.createCustomIngredient("Zapote", MeasurementType.UNIT);
+        catalogService.createCustomIngredient("Achiote en pasta", MeasurementType.WEIGHT);
+        catalogService.createCustomIngredient("Mamon chino", MeasurementType.UNIT);
+        List<IngredientResponse> customItems = catalogService.customItems().stream()
+                .map(item -> IngredientResponse.from(
+                        item,
+                        catalogService.preferredLabelForItem(item, null),
+                        catalogService.aliasesForItem(item)
+                ))
+                .toList();
+
+        assertArrayEquals(
+                objectMapper.writeValueAsBytes(unfilteredSearch(null)),
+                seedCatalogJson.render(customItems, Integer.MAX_VALUE)
+        );
+        assertArrayEquals(
+                objectMapper.writeValueAsBytes(unfilteredSearch(5)),
+                seedCatalogJson.render(customItems, 5)
+        );
+    }
+
+    @Test
+    void gzippedSeedBodyInflatesToTheSameBytes() throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(seedCatalogJson.seedOnlyGzip()))) {
+            assertArrayEquals(seedCatalogJson.seedOnly(), in.readAllBytes());
+        }
+    }
+
+    private List<IngredientResponse> unfilteredSearch(Integer limit) {
+        return catalogService.search(null, limit).stream()
+                .map(result -> IngredientResponse.from(
+                        result.item(),
+                        result.preferredLabel(),
+                        catalogService.aliasesForItem(result.item())
+                ))
+                .toList();
+    }
+}
@@ -0,0 +1,254 @@
+package com.appcompras.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestClassOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Closed-loop load on the read endpoints against a real PostgreSQL, once with Tomcat's platform-thread pool and
+ * once with {@code spring.threads.virtual.enabled}. Every simulated user sends its next request as soon as the
+ * previous one answers. The virtual-thread run needs a Java 21 runtime: {@code ./gradlew dbBenchmark -PruntimeJava=21}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers(disabledWithoutDocker = true)
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+class RequestConcurrencyBenchmarkTest {
+
+    private static final List<Integer> CONCURRENT_USERS = List.of(50, 200, 1000);
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(15);
+
+    private static final Map<String, Map<Integer, LoadResult>> RESULTS_BY_MODE = new TreeMap<>();
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("appcompras_load_benchmark")
+            .withUsername("appcompras_user")
+            .withPassword("appcompras_pass");
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
+    }
+
+    @Nested
+    @Order(1)
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+    class PlatformThreads {
+
+        @LocalServerPort
+        private int port;
+
+        @Test
+        void measureReadEndpoints() throws Exception {
+            RESULTS_BY_MODE.put("platform", measure(port));
+        }
+    }
+
+    @Nested
+    @Order(2)
+    @TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+    class VirtualThreads {
+
+        @LocalServerPort
+        private int port;
+
+        @Autowired
+        private Environment environment;
+
+        @Test
+        void measureReadEndpointsAndCompare() throws Exception {
+            assumeTrue(Threading.VIRTUAL.isActive(environment),
+                    "Virtual threads need a Java 21 runtime: ./gradlew dbBenchmark -PruntimeJava=21");
+            Map<Integer, LoadResult> virtual = measure(port);
+            RESULTS_BY_MODE.put("virtual", virtual);
+
+            Map<Integer, LoadResult> platform = RESULTS_BY_MODE.get("platform");
+            assumeTrue(platform != null, "Run the whole class to compare against the platform-thread mode");
+
+            System.out.println(report(platform, virtual));
+        }
+    }
+
+    private static Map<Integer, LoadResult> measure(int port) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        List<HttpRequest> requests = seedReadRequests(client, "http://localhost:" + port);
+
+        Map<Integer, LoadResult> results = new TreeMap<>();
+        for (int users : CONCURRENT_USERS) {
+            run(client, requests, users, WARMUP);
+            LoadResult result = run(client, requests, users, MEASUREMENT);
+            assertThat(result.errors()).as("failed requests with %d users", users).isZero();
+            results.put(users, result);
+        }
+        return results;
+    }
+
+    /**
+     * One recipe, one plan page and one generated draft, so each user cycles through a read from every aggregate.
+     */
+    private static List<HttpRequest> seedReadRequests(HttpClient client, String baseUrl) throws Exception {
+        String recipeId = JsonPath.read(send(client, post(baseUrl + "/api/recipes", """
+                {
+                  "name": "Arroz con pollo",
+                  "type": "LUNCH",
+                  "ingredients": [
+                    { "ingredientId": "rice", "quantity": 2, "unit": "CUP" },
+                    { "ingredientId": "chicken", "quantity": 500, "unit": "GRAM" },
+                    { "ingredientId": "sweet-pepper", "quantity": 1, "unit": "PIECE" }
+                  ],
+                  "tags": ["rapido", "tico"]
+                }
+                """), 201), "$.id");
+        String planId = JsonPath.read(send(client, post(baseUrl + "/api/plans", """
+                {
+                  "startDate": "2026-03-02",
+                  "period": "WEEK",
+                  "slots": [
+                    { "date": "2026-03-02", "mealType": "LUNCH", "recipeId": "%1$s" },
+                    { "date": "2026-03-03", "mealType": "DINNER", "recipeId": "%1$s" }
+                  ]
+                }
+                """.formatted(recipeId)), 201), "$.id");
+        String draftId = JsonPath.read(send(client, HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/api/shopping-lists/generate?planId=" + planId))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), 200), "$.id");
+
+        return List.of(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/recipes/" + recipeId)).GET().build(),
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/plans?limit=10")).GET().build(),
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/shopping-lists/" + draftId)).GET().build()
+        );
+    }
+
+    private static LoadResult run(HttpClient client, List<HttpRequest> requests, int users, Duration duration)
+            throws Exception {
+        ExecutorService userThreads = Executors.newFixedThreadPool(users);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<UserResult>> futures = new ArrayList<>(users);
+            for (int user = 0; user < users; user++) {
+                int firstRequest = user % requests.size();
+                futures.add(userThreads.submit(() -> {
+                    start.await();
+                    return runUser(client, requests, firstRequest, System.nanoTime() + duration.toNanos());
+                }));
+            }
+
+            long startedAt = System.nanoTime();
+            start.countDown();
+            List<Long> latencies = new ArrayList<>();
+            long errors = 0;
+            for (Future<UserResult> future : futures) {
+                UserResult result = future.get();
+                latencies.addAll(result.latencies());
+                errors += result.errors();
+            }
+            return LoadResult.of(latencies, errors, System.nanoTime() - startedAt);
+        } finally {
+            userThreads.shutdownNow();
+        }
+    }
+
+    private static UserResult runUser(HttpClient client, List<HttpRequest> requests, int firstRequest, long deadline) {
+        List<Long> latencies = new ArrayList<>();
+        long errors = 0;
+        for (int i = firstRequest; System.nanoTime() < deadline; i++) {
+            long sentAt = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(requests.get(i % requests.size()), HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    errors++;
+                    continue;
+                }
+            } catch (IOException ex) {
+                errors++;
+                continue;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            latencies.add(System.nanoTime() - sentAt);
+        }
+        return new UserResult(latencies, errors);
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static String send(HttpClient client, HttpRequest request, int expectedStatus) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as("%s %s", request.method(), request.uri()).isEqualTo(expectedStatus);
+        return response.body();
+    }
+
+    private static String report(Map<Integer, LoadResult> platform, Map<Integer, LoadResult> virtual) {
+        StringBuilder report = new StringBuilder("\nRead endpoints on PostgreSQL (")
+                .append(MEASUREMENT.toSeconds()).append(" s closed loop per level)\n");
+        report.append(String.format("%-6s %14s %14s %14s %14s%n",
+                "users", "req/s platform", "req/s virtual", "p99 ms platf.", "p99 ms virtual"));
+        platform.forEach((users, before) -> {
+            LoadResult after = virtual.get(users);
+            report.append(String.format("%-6d %14.0f %14.0f %14.2f %14.2f%n",
+                    users, before.throughput(), after.throughput(), before.p99Millis(), after.p99Millis()));
+        });
+        return report.toString();
+    }
+
+    private record UserResult(List<Long> latencies, long errors) {
+    }
+
+    private record LoadResult(double throughput, double p99Millis, long errors) {
+
+        static LoadResult of(List<Long> latencies, long errors, long elapsedNanos) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            double p99 = sorted.length == 0 ? 0 : sorted[(int) Math.ceil(sorted.length * 0.99) - 1] / 1_000_000.0;
+            return new LoadResult(sorted.length / (elapsedNanos / 1_000_000_000.0), p99, errors);
+        }
+    }
+}
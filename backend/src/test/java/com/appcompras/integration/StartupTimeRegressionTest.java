@@ -0,0 +1,216 @@
+package com.appcompras.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Boots the packaged jar as a separate JVM, with the Dockerfile's flags, against a real PostgreSQL and measures
+ * the time from process start to the first 200 from {@code /actuator/health}. As in prod, the {@code migrate} run
+ * mode applies the migrations once and the measured boots skip Flyway. Fails when the median exceeds
+ * {@code startup.maxMedianMs}. {@code startup.profiles} sets the profiles of the measured boots, e.g. {@code fast-start}.
+ * Run with {@code ./gradlew startupBenchmark}, which builds the jar first.
+ */
+@Tag("startup")
+@Testcontainers(disabledWithoutDocker = true)
+class StartupTimeRegressionTest {
+
+    private static final Duration BOOT_TIMEOUT = Duration.ofMinutes(2);
+    private static final int SLOWEST_STEPS_REPORTED = 12;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("appcompras_startup_benchmark")
+            .withUsername("appcompras_user")
+            .withPassword("appcompras_pass");
+
+    @Test
+    void medianTimeToReadyStaysWithinBudget() throws Exception {
+        Path jar = Path.of(System.getProperty("startup.jar", ""));
+        assumeTrue(Files.isRegularFile(jar), "Run through ./gradlew startupBenchmark, which builds the boot jar");
+        int runs = Integer.getInteger("startup.runs", 5);
+        long maxMedianMs = Long.getLong("startup.maxMedianMs", 15_000);
+        String profiles = System.getProperty("startup.profiles", "");
+
+        // Like prod: the migrate run mode applies the migrations once, and the measured boots skip Flyway.
+        migrate(jar);
+
+        List<Long> readyMillis = new ArrayList<>();
+        JsonNode lastTimeline = null;
+        for (int run = 1; run <= runs; run++) {
+            Boot boot = boot(jar, profiles);
+            readyMillis.add(boot.readyMillis());
+            lastTimeline = boot.timeline();
+            System.out.printf("startup run %d: %d ms to ready%n", run, boot.readyMillis());
+        }
+
+        long median = readyMillis.stream().sorted().toList().get(readyMillis.size() / 2);
+        System.out.println(slowestSteps(lastTimeline));
+        System.out.printf("median time to ready over %d runs with profiles [%s]: %d ms (budget %d ms)%n",
+                runs, profiles, median, maxMedianMs);
+        assertThat(median).as("median time to ready in ms").isLessThanOrEqualTo(maxMedianMs);
+    }
+
+    private void migrate(Path jar) throws Exception {
+        Path log = Files.createTempFile("appcompras-migrate-", ".log");
+        ProcessBuilder builder = jarProcess(jar, log);
+        builder.environment().put("SPRING_PROFILES_ACTIVE", "migrate");
+        try {
+            Process process = builder.start();
+            if (!process.waitFor(BOOT_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                fail("Migrate run did not exit; log:%n%s", Files.readString(log));
+            }
+            if (process.exitValue() != 0) {
+                fail("Migrate run exited with %d; log:%n%s", process.exitValue(), Files.readString(log));
+            }
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    private Boot boot(Path jar, String profiles) throws Exception {
+        int port = freePort();
+        Path log = Files.createTempFile("appcompras-startup-", ".log");
+        ProcessBuilder builder = jarProcess(jar, log, "--server.port=" + port);
+        Map<String, String> environment = builder.environment();
+        environment.put("APP_MIGRATE_ON_BOOT", "false");
+        environment.put("APP_JPA_DDL_AUTO", "none");
+        environment.put("APP_STARTUP_ENDPOINT_ENABLED", "true");
+        if (!profiles.isBlank()) {
+            environment.put("SPRING_PROFILES_ACTIVE", profiles);
+        }
+
+        long startedAt = System.nanoTime();
+        Process process = builder.start();
+        try {
+            URI health = URI.create("http://localhost:" + port + "/actuator/health");
+            long deadline = startedAt + BOOT_TIMEOUT.toNanos();
+            while (!isHealthy(health)) {
+                if (!process.isAlive() || System.nanoTime() > deadline) {
+                    fail("App did not become healthy; log:%n%s", Files.readString(log));
+                }
+                Thread.sleep(20);
+            }
+            long readyMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+            HttpResponse<String> startup = client.send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/startup")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertThat(startup.statusCode()).as("GET /actuator/startup").isEqualTo(200);
+            return new Boot(readyMillis, objectMapper.readTree(startup.body()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+            Files.deleteIfExists(log);
+        }
+    }
+
+    private ProcessBuilder jarProcess(Path jar, Path log, String... args) {
+        List<String> command = new ArrayList<>(List.of(
+                ProcessHandle.current().info().command().orElse("java"),
+                "-XX:+UseSerialGC", "-Xshare:auto", "-XX:TieredStopAtLevel=1",
+                "-jar", jar.toString()
+        ));
+        command.addAll(List.of(args));
+        ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile());
+        Map<String, String> environment = builder.environment();
+        environment.put("DB_URL", postgres.getJdbcUrl());
+        environment.put("DB_USERNAME", postgres.getUsername());
+        environment.put("DB_PASSWORD", postgres.getPassword());
+        environment.put("GOOGLE_CLIENT_ID", "startup-benchmark.apps.googleusercontent.com");
+        return builder;
+    }
+
+    private boolean isHealthy(URI health) throws InterruptedException {
+        try {
+            return client.send(HttpRequest.newBuilder(health).GET().build(), HttpResponse.BodyHandlers.discarding())
+                    .statusCode() == 200;
+        } catch (IOException notListeningYet) {
+            return false;
+        }
+    }
+
+    /**
+     * Bean instantiations and the app's own steps, slowest first. Durations include nested steps.
+     */
+    private static String slowestSteps(JsonNode startup) {
+        List<StepDuration> steps = new ArrayList<>();
+        for (JsonNode event : startup.path("timeline").path("events")) {
+            JsonNode step = event.path("startupStep");
+            String name = step.path("name").asText();
+            if (!name.equals("spring.beans.instantiate") && !name.startsWith("appcompras.")) {
+                continue;
+            }
+            String label = name;
+            for (JsonNode tag : step.path("tags")) {
+                if (tag.path("key").asText().equals("beanName")) {
+                    label = tag.path("value").asText();
+                }
+            }
+            steps.add(new StepDuration(label, durationMillis(event)));
+        }
+
+        StringBuilder report = new StringBuilder("\nSlowest startup steps in the last run (inclusive ms)\n");
+        steps.stream()
+                .sorted(Comparator.comparingDouble(StepDuration::millis).reversed())
+                .limit(SLOWEST_STEPS_REPORTED)
+                .forEach(step -> report.append(String.format("%10.1f  %s%n", step.millis(), step.label())));
+        return report.toString();
+    }
+
+    private static double durationMillis(JsonNode event) {
+        JsonNode duration = event.path("duration");
+        if (duration.isTextual()) {
+            return Duration.parse(duration.asText()).toNanos() / 1_000_000.0;
+        }
+        if (duration.isNumber()) {
+            return duration.asDouble() * 1000;
+        }
+        return Duration.between(Instant.parse(event.path("startTime").asText()), Instant.parse(event.path("endTime").asText()))
+                .toNanos() / 1_000_000.0;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Boot(long readyMillis, JsonNode timeline) {
+    }
+
+    private record StepDuration(String label, double millis) {
+    }
+}
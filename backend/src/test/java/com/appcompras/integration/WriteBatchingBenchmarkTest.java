@@ -0,0 +1,313 @@
+package com.appcompras.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestClassOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Measures the write endpoints against a real PostgreSQL with and without JDBC batching.
+ * Round trips are statement executions seen by the driver; a JDBC batch counts as one.
+ * Run with {@code ./gradlew dbBenchmark}; the default test task skips the {@code benchmark} tag.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(WriteBatchingBenchmarkTest.RoundTripCountingConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+class WriteBatchingBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 15;
+
+    // 37 catalog ingredients spread over four recipes, so a generated draft has one row per ingredient.
+    private static final List<List<String>> RECIPE_INGREDIENTS = List.of(
+            List.of("rice:200:GRAM", "beans:150:GRAM", "chicken:300:GRAM", "beef:250:GRAM", "pork:200:GRAM",
+                    "fish:200:GRAM", "egg:2:PIECE", "milk:200:MILLILITER", "natilla:2:TABLESPOON", "cheese:100:GRAM"),
+            List.of("oil:1:TABLESPOON", "butter:20:GRAM", "salt:5:GRAM", "honey:1:TABLESPOON", "onion:1:PIECE",
+                    "garlic:2:PIECE", "sweet-pepper:1:PIECE", "tomato:2:PIECE", "cilantro:1:PIECE"),
+            List.of("carrot:1:PIECE", "potato:2:PIECE", "cassava:300:GRAM", "plantain-green:1:PIECE",
+                    "plantain-ripe:1:PIECE", "banana:2:PIECE", "avocado:1:PIECE", "lettuce:1:PIECE", "lime:2:PIECE"),
+            List.of("orange:2:PIECE", "sugar:50:GRAM", "brown-sugar:50:GRAM", "corn-flour:100:GRAM",
+                    "wheat-flour:100:GRAM", "coffee-ground:30:GRAM", "salsa-lizano:2:TABLESPOON",
+                    "tortilla-corn:4:PIECE", "bread:2:PIECE")
+    );
+    private static final List<String> MEAL_TYPES = List.of("BREAKFAST", "LUNCH", "DINNER");
+
+    private static final AtomicLong ROUND_TRIPS = new AtomicLong();
+    private static final Map<String, Map<String, Measurement>> RESULTS_BY_MODE = new TreeMap<>();
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("appcompras_write_benchmark")
+            .withUsername("appcompras_user")
+            .withPassword("appcompras_pass");
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
+    }
+
+    @Nested
+    @Order(1)
+    @TestPropertySource(properties = {
+            "spring.jpa.properties.hibernate.jdbc.batch_size=1",
+            "spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=false"
+    })
+    class Unbatched {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Test
+        void measureWriteEndpoints() throws Exception {
+            RESULTS_BY_MODE.put("unbatched", measure(mockMvc));
+        }
+    }
+
+    @Nested
+    @Order(2)
+    @TestPropertySource(properties = {
+            "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+            "spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=true"
+    })
+    class Batched {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Test
+        void measureWriteEndpointsAndCompare() throws Exception {
+            Map<String, Measurement> batched = measure(mockMvc);
+            RESULTS_BY_MODE.put("batched", batched);
+
+            Map<String, Measurement> unbatched = RESULTS_BY_MODE.get("unbatched");
+            assumeTrue(unbatched != null, "Run the whole class to compare against the unbatched mode");
+
+            System.out.println(report(unbatched, batched));
+            batched.forEach((endpoint, measurement) -> assertThat(measurement.roundTrips())
+                    .as("round trips for %s", endpoint)
+                    .isLessThan(unbatched.get(endpoint).roundTrips()));
+        }
+    }
+
+    private static Map<String, Measurement> measure(MockMvc mockMvc) throws Exception {
+        Map<String, List<Sample>> samples = new TreeMap<>();
+        for (int i = 0; i < WARMUP_ITERATIONS + MEASURED_ITERATIONS; i++) {
+            boolean measured = i >= WARMUP_ITERATIONS;
+
+            List<String> recipeIds = new ArrayList<>();
+            for (int r = 0; r < RECIPE_INGREDIENTS.size(); r++) {
+                String body = perform(mockMvc, samples, measured, "POST /api/recipes",
+                        post("/api/recipes").contentType(MediaType.APPLICATION_JSON).content(recipeJson(i, r)),
+                        status().isCreated());
+                recipeIds.add(JsonPath.read(body, "$.id"));
+            }
+
+            String planBody = perform(mockMvc, samples, measured, "POST /api/plans",
+                    post("/api/plans").contentType(MediaType.APPLICATION_JSON).content(planJson(i, recipeIds)),
+                    status().isCreated());
+            String planId = JsonPath.read(planBody, "$.id");
+
+            perform(mockMvc, samples, measured, "POST /api/shopping-lists/generate",
+                    post("/api/shopping-lists/generate").param("planId", planId),
+                    status().isOk());
+        }
+
+        Map<String, Measurement> measurements = new TreeMap<>();
+        samples.forEach((endpoint, endpointSamples) -> measurements.put(endpoint, Measurement.of(endpointSamples)));
+        return measurements;
+    }
+
+    private static String perform(
+            MockMvc mockMvc,
+            Map<String, List<Sample>> samples,
+            boolean measured,
+            String endpoint,
+            RequestBuilder request,
+            ResultMatcher expectedStatus
+    ) throws Exception {
+        ROUND_TRIPS.set(0);
+        long start = System.nanoTime();
+        String body = mockMvc.perform(request)
+                .andExpect(expectedStatus)
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        long elapsedNanos = System.nanoTime() - start;
+        if (measured) {
+            samples.computeIfAbsent(endpoint, ignored -> new ArrayList<>()).add(new Sample(ROUND_TRIPS.get(), elapsedNanos));
+        }
+        return body;
+    }
+
+    private static String recipeJson(int iteration, int recipeIndex) {
+        StringJoiner ingredients = new StringJoiner(",\n");
+        for (String ingredient : RECIPE_INGREDIENTS.get(recipeIndex)) {
+            String[] parts = ingredient.split(":");
+            ingredients.add("""
+                    { "ingredientId": "%s", "quantity": %s, "unit": "%s" }""".formatted(parts[0], parts[1], parts[2]));
+        }
+        return """
+                {
+                  "name": "Benchmark %d-%d",
+                  "type": "LUNCH",
+                  "ingredients": [
+                %s
+                  ],
+                  "tags": ["rapido", "tico", "familiar", "barato"]
+                }
+                """.formatted(iteration, recipeIndex, ingredients);
+    }
+
+    private static String planJson(int iteration, List<String> recipeIds) {
+        LocalDate startDate = LocalDate.of(2026, 1, 5).plusWeeks(iteration);
+        StringJoiner slots = new StringJoiner(",\n");
+        int slot = 0;
+        for (int day = 0; day < 7; day++) {
+            for (String mealType : MEAL_TYPES) {
+                slots.add("""
+                        { "date": "%s", "mealType": "%s", "recipeId": "%s" }""".formatted(
+                        startDate.plusDays(day), mealType, recipeIds.get(slot++ % recipeIds.size())));
+            }
+        }
+        return """
+                {
+                  "startDate": "%s",
+                  "period": "WEEK",
+                  "slots": [
+                %s
+                  ]
+                }
+                """.formatted(startDate, slots);
+    }
+
+    private static String report(Map<String, Measurement> unbatched, Map<String, Measurement> batched) {
+        StringBuilder report = new StringBuilder("\nWrite endpoints on PostgreSQL (")
+                .append(MEASURED_ITERATIONS).append(" measured requests each)\n");
+        report.append(String.format("%-36s %12s %12s %14s %14s%n",
+                "endpoint", "trips before", "trips after", "p50 ms before", "p50 ms after"));
+        unbatched.forEach((endpoint, before) -> {
+            Measurement after = batched.get(endpoint);
+            report.append(String.format("%-36s %12d %12d %14.2f %14.2f%n",
+                    endpoint, before.roundTrips(), after.roundTrips(), before.medianMillis(), after.medianMillis()));
+        });
+        return report.toString();
+    }
+
+    private record Sample(long roundTrips, long elapsedNanos) {
+    }
+
+    private record Measurement(long roundTrips, double medianMillis) {
+
+        static Measurement of(List<Sample> samples) {
+            long[] elapsed = samples.stream().mapToLong(Sample::elapsedNanos).sorted().toArray();
+            long maxRoundTrips = samples.stream().mapToLong(Sample::roundTrips).max().orElse(0);
+            return new Measurement(maxRoundTrips, elapsed[elapsed.length / 2] / 1_000_000.0);
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class RoundTripCountingConfig {
+
+        @Bean
+        static BeanPostProcessor roundTripCountingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new RoundTripCountingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    private static final class RoundTripCountingDataSource extends DelegatingDataSource {
+
+        private RoundTripCountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(Connection.class, super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(Connection.class, super.getConnection(username, password));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T counting(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (type != Connection.class && method.getName().startsWith("execute")) {
+                ROUND_TRIPS.incrementAndGet();
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+            if (type == Connection.class) {
+                if (result instanceof CallableStatement callable) {
+                    return counting(CallableStatement.class, callable);
+                }
+                if (result instanceof PreparedStatement prepared) {
+                    return counting(PreparedStatement.class, prepared);
+                }
+                if (result instanceof Statement statement) {
+                    return counting(Statement.class, statement);
+                }
+            }
+            return result;
+        });
+    }
+}
@@ -39,7 +39,7 @@ class FlywaySchemaHistoryTest {
 				"SELECT COUNT(*) FROM flyway_schema_history"
 		).getSingleResult();
 
-		assertEquals(7L, count, "Expected exactly 7 applied migrations (V1 through V7)");
+		assertEquals(12L, count, "Expected exactly 12 applied migrations (V1 through V12)");
 	}
 
 	@Test
@@ -58,11 +58,11 @@ class FlywaySchemaHistoryTest {
 	@Test
 	void migrationsAppliedInOrder() {
 		var results = entityManager.createNativeQuery(
-				"SELECT version FROM flyway_schema_history ORDER BY version ASC",
+				"SELECT version FROM flyway_schema_history ORDER BY installed_rank ASC",
 				String.class
 		).getResultList();
 
-		assertEquals(7, results.size(), "Expected 7 migrations");
+		assertEquals(12, results.size(), "Expected 12 migrations");
 		for (int i = 0; i < results.size(); i++) {
 			String version = (String) results.get(i);
 			assertEquals(String.valueOf(i + 1), version, "Migration V" + (i + 1) + " should be at position " + (i + 1));
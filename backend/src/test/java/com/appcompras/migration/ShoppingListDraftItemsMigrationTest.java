@@ -0,0 +1,106 @@
+package com.appcompras.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Testcontainers(disabledWithoutDocker = true)
+class ShoppingListDraftItemsMigrationTest {
+
+	@Container
+	static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+			.withDatabaseName("appcompras_draft_items_migration_test")
+			.withUsername("appcompras_user")
+			.withPassword("appcompras_pass");
+
+	@Test
+	void v10KeepsEveryDraftItemAndKeysRowsByItemId() throws SQLException {
+		flyway("9").migrate();
+		try (Connection connection = connection(); Statement statement = connection.createStatement()) {
+			statement.executeUpdate("""
+					INSERT INTO shopping_list_drafts (id, plan_id, user_id, created_at, updated_at)
+					VALUES ('draft-1', 'plan-1', 'user-a', now(), now()),
+					       ('draft-2', 'plan-1', 'user-a', now(), now())
+					""");
+			statement.executeUpdate("""
+					INSERT INTO shopping_list_draft_items
+					    (draft_id, position, item_id, ingredient_id, name, quantity, unit,
+					     suggested_packages, package_amount, package_unit, manual, bought, note, sort_order)
+					VALUES
+					    ('draft-1', 0, 'item-rice', 'rice', 'Arroz', 400, 'GRAM', 1, 1000, 'GRAM', false, true, 'Integral', 1),
+					    ('draft-1', 1, 'item-napkins', NULL, 'Servilletas', 1, 'PIECE', NULL, NULL, NULL, true, false, NULL, 0),
+					    ('draft-2', 0, 'item-a', NULL, 'A', 1, 'PIECE', NULL, NULL, NULL, true, false, NULL, 2),
+					    ('draft-2', 1, 'item-b', NULL, 'B', 1, 'PIECE', NULL, NULL, NULL, true, false, NULL, 0),
+					    ('draft-2', 2, 'item-c', NULL, 'C', 1, 'PIECE', NULL, NULL, NULL, true, false, NULL, 2),
+					    ('draft-2', 3, 'item-d', NULL, 'D', 1, 'PIECE', NULL, NULL, NULL, true, false, NULL, 7)
+					""");
+		}
+
+		flyway("10").migrate();
+
+		try (Connection connection = connection(); Statement statement = connection.createStatement()) {
+			List<String> rows = new ArrayList<>();
+			try (ResultSet resultSet = statement.executeQuery("""
+					SELECT item_id, name, bought, note, sort_order, version
+					FROM shopping_list_draft_items
+					WHERE draft_id = 'draft-1'
+					ORDER BY sort_order
+					""")) {
+				while (resultSet.next()) {
+					rows.add(resultSet.getString("item_id") + "|" + resultSet.getString("name") + "|"
+							+ resultSet.getBoolean("bought") + "|" + resultSet.getString("note") + "|"
+							+ resultSet.getInt("sort_order") + "|" + resultSet.getLong("version"));
+				}
+			}
+			assertEquals(List.of(
+					"item-napkins|Servilletas|false|null|0|0",
+					"item-rice|Arroz|true|Integral|1|0"
+			), rows);
+
+			// Duplicate and sparse values are renumbered in the order they were shown: sort_order, then position.
+			List<String> renumbered = new ArrayList<>();
+			try (ResultSet resultSet = statement.executeQuery("""
+					SELECT item_id, sort_order
+					FROM shopping_list_draft_items
+					WHERE draft_id = 'draft-2'
+					ORDER BY sort_order
+					""")) {
+				while (resultSet.next()) {
+					renumbered.add(resultSet.getString("item_id") + "|" + resultSet.getInt("sort_order"));
+				}
+			}
+			assertEquals(List.of("item-b|0", "item-a|1", "item-c|2", "item-d|3"), renumbered);
+
+			assertThrows(SQLException.class, () -> statement.executeUpdate("""
+					INSERT INTO shopping_list_draft_items
+					    (draft_id, item_id, name, quantity, unit, manual, sort_order)
+					VALUES ('draft-1', 'item-rice', 'Arroz', 1, 'GRAM', false, 2)
+					"""));
+		}
+	}
+
+	private static Flyway flyway(String target) {
+		return Flyway.configure()
+				.dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+				.locations("classpath:db/migration")
+				.target(target)
+				.load();
+	}
+
+	private static Connection connection() throws SQLException {
+		return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+	}
+}
@@ -0,0 +1,58 @@
+package com.appcompras.paging;
+
+import com.appcompras.config.ApiErrorCode;
+import com.appcompras.config.BusinessRuleException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsCreatedAtAndId() {
+        KeysetCursor cursor = new KeysetCursor(Instant.parse("2026-02-08T12:00:00.123456Z"), "recipe|with|pipes");
+
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        String notBase64 = "***";
+        String missingId = Base64.getUrlEncoder().encodeToString("2026-02-08T12:00:00Z|".getBytes(StandardCharsets.UTF_8));
+        String badInstant = Base64.getUrlEncoder().encodeToString("yesterday|recipe-1".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of(notBase64, missingId, badInstant)) {
+            BusinessRuleException ex = assertThrows(BusinessRuleException.class, () -> KeysetCursor.decode(cursor));
+            assertEquals(ApiErrorCode.INVALID_PAGINATION, ex.getCode());
+        }
+    }
+
+    @Test
+    void pageFromOverfetchedRowsPointsCursorAtLastReturnedRow() {
+        Instant createdAt = Instant.parse("2026-02-08T12:00:00Z");
+        List<String> rows = List.of("a", "b", "c");
+
+        KeysetPage<String> page = KeysetPage.fromOverfetched(rows, 2, id -> new KeysetCursor(createdAt, id), String::toUpperCase);
+        KeysetPage<String> lastPage = KeysetPage.fromOverfetched(rows, 3, id -> new KeysetCursor(createdAt, id), String::toUpperCase);
+
+        assertEquals(List.of("A", "B"), page.items());
+        assertEquals(new KeysetCursor(createdAt, "b"), KeysetCursor.decode(page.nextCursor()));
+        assertEquals(List.of("A", "B", "C"), lastPage.items());
+        assertNull(lastPage.nextCursor());
+    }
+
+    @Test
+    void limitMustStayWithinBounds() {
+        assertEquals(KeysetPage.DEFAULT_LIMIT, KeysetPage.resolveLimit(null));
+        assertEquals(KeysetPage.MAX_LIMIT, KeysetPage.resolveLimit(KeysetPage.MAX_LIMIT));
+        assertThrows(BusinessRuleException.class, () -> KeysetPage.resolveLimit(0));
+        assertThrows(BusinessRuleException.class, () -> KeysetPage.resolveLimit(KeysetPage.MAX_LIMIT + 1));
+    }
+}
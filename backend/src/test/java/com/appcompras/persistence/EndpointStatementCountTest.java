@@ -0,0 +1,217 @@
+package com.appcompras.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the read paths against N+1 collection loading and the item-level draft writes against
+ * collection rewrites: the number of JDBC statements per request must not grow with the row count.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class EndpointStatementCountTest {
+
+    // Mirrors the @BatchSize on the entity collections.
+    private static final int COLLECTION_BATCH_SIZE = 100;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void disableStatistics() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void recipeReadsUseConstantStatementCount() throws Exception {
+        String recipeId = createRecipe("Gallo pinto");
+        createRecipe("Casado");
+        createRecipe("Olla de carne");
+
+        assertStatements(get("/api/recipes?limit=3"), 3);
+        assertStatements(get("/api/recipes?type=LUNCH&limit=3"), 3);
+        assertStatements(get("/api/recipes/{id}", recipeId), 1);
+
+        int total = listSize(get("/api/recipes"));
+        assertStatements(get("/api/recipes"), 1 + 2 * batches(total));
+    }
+
+    @Test
+    void planReadsUseConstantStatementCount() throws Exception {
+        String recipeId = createRecipe("Arroz con pollo");
+        String planId = createPlan(recipeId, "2026-04-06");
+        createPlan(recipeId, "2026-04-13");
+        createPlan(recipeId, "2026-04-20");
+
+        assertStatements(get("/api/plans?limit=3"), 2);
+        assertStatements(get("/api/plans/{id}", planId), 1);
+
+        int total = listSize(get("/api/plans"));
+        assertStatements(get("/api/plans"), 1 + batches(total));
+    }
+
+    @Test
+    void shoppingListReadsUseConstantStatementCount() throws Exception {
+        String recipeId = createRecipe("Sopa negra");
+        String draftId = generateDraft(createPlan(recipeId, "2026-05-04"));
+        generateDraft(createPlan(recipeId, "2026-05-11"));
+        generateDraft(createPlan(recipeId, "2026-05-18"));
+
+        assertStatements(get("/api/shopping-lists?limit=3"), 2);
+        assertStatements(get("/api/shopping-lists/{id}", draftId), 1);
+
+        int total = listSize(get("/api/shopping-lists"));
+        assertStatements(get("/api/shopping-lists"), 1 + batches(total));
+    }
+
+    @Test
+    void draftItemWritesTouchOnlyTheAffectedRows() throws Exception {
+        String riceRecipe = createRecipe("Arroz blanco");
+        String draftBody = generateDraftBody(createPlan(riceRecipe, "2026-06-01"));
+        String draftId = JsonPath.read(draftBody, "$.id");
+        String itemId = JsonPath.read(draftBody, "$.items[0].id");
+
+        // Load draft with items, update the one changed row, update the draft's updated_at.
+        List<Map<String, Object>> items = JsonPath.read(draftBody, "$.items");
+        items.get(items.size() - 1).put("note", "Sin sal");
+        assertStatements(put("/api/shopping-lists/{id}", draftId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("items", items))), 3);
+        assertStatements(patch("/api/shopping-lists/{id}/items/{itemId}", draftId, itemId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        { "bought": true }
+                        """), 3);
+        assertStatements(post("/api/shopping-lists/{id}/items", draftId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        { "name": "Servilletas", "quantity": 1, "unit": "PIECE", "manual": true }
+                        """), 3, status().isCreated());
+    }
+
+    @Test
+    void conditionalReadsAnswerNotModifiedFromTheUpdatedAtProjection() throws Exception {
+        String recipeId = createRecipe("Picadillo");
+        String planId = createPlan(recipeId, "2026-06-08");
+        String draftId = generateDraft(planId);
+
+        for (String path : List.of("/api/recipes/" + recipeId, "/api/plans/" + planId, "/api/shopping-lists/" + draftId)) {
+            String etag = mockMvc.perform(get(path))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getHeader(HttpHeaders.ETAG);
+            assertStatements(get(path).header(HttpHeaders.IF_NONE_MATCH, etag), 1, status().isNotModified());
+        }
+    }
+
+    private void assertStatements(RequestBuilder request, long expected) throws Exception {
+        assertStatements(request, expected, status().isOk());
+    }
+
+    private void assertStatements(RequestBuilder request, long expected, ResultMatcher expectedStatus) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request).andExpect(expectedStatus);
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL statements for %s", request)
+                .isEqualTo(expected);
+    }
+
+    private int listSize(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+        List<Object> items = JsonPath.read(result.getResponse().getContentAsString(), "$");
+        return items.size();
+    }
+
+    private static int batches(int rows) {
+        return Math.max(1, (rows + COLLECTION_BATCH_SIZE - 1) / COLLECTION_BATCH_SIZE);
+    }
+
+    private String createRecipe(String name) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/recipes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "name": "%s",
+                                  "type": "LUNCH",
+                                  "ingredients": [
+                                    { "ingredientId": "rice", "quantity": 1, "unit": "CUP" },
+                                    { "ingredientId": "tomato", "quantity": 2, "unit": "PIECE" }
+                                  ],
+                                  "tags": ["rapido", "tico"]
+                                }
+                                """.formatted(name)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return JsonPath.read(result.getResponse().getContentAsString(), "$.id");
+    }
+
+    private String createPlan(String recipeId, String startDate) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/plans")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "startDate": "%1$s",
+                                  "period": "WEEK",
+                                  "slots": [
+                                    { "date": "%1$s", "mealType": "LUNCH", "recipeId": "%2$s" },
+                                    { "date": "%1$s", "mealType": "DINNER", "recipeId": "%2$s" }
+                                  ]
+                                }
+                                """.formatted(startDate, recipeId)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return JsonPath.read(result.getResponse().getContentAsString(), "$.id");
+    }
+
+    private String generateDraft(String planId) throws Exception {
+        return JsonPath.read(generateDraftBody(planId), "$.id");
+    }
+
+    private String generateDraftBody(String planId) throws Exception {
+        return mockMvc.perform(post("/api/shopping-lists/generate").param("planId", planId))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+}
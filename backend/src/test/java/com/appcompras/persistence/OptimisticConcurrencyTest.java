@@ -0,0 +1,168 @@
+package com.appcompras.persistence;
+
+import com.appcompras.config.PreconditionFailedException;
+import com.appcompras.domain.Unit;
+import com.appcompras.http.EntityTags;
+import com.appcompras.planning.CreateMealPlanRequest;
+import com.appcompras.planning.MealPlan;
+import com.appcompras.planning.MealPlanEntity;
+import com.appcompras.planning.MealPlanRepository;
+import com.appcompras.planning.MealPlanService;
+import com.appcompras.planning.PlanPeriod;
+import com.appcompras.recipe.CreateRecipeRequest;
+import com.appcompras.recipe.MealType;
+import com.appcompras.recipe.RecipeEntity;
+import com.appcompras.recipe.RecipeRepository;
+import com.appcompras.recipe.RecipeService;
+import com.appcompras.shopping.ShoppingListDraft;
+import com.appcompras.shopping.ShoppingListDraftEntity;
+import com.appcompras.shopping.ShoppingListDraftItem;
+import com.appcompras.shopping.ShoppingListDraftRepository;
+import com.appcompras.shopping.ShoppingListDraftService;
+import com.appcompras.shopping.UpdateShoppingListRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Two writers read the same version and both pass the If-Match check; the one that writes second must fail
+ * instead of overwriting the first. The first transaction reads, a second one writes and commits, then the
+ * first one writes from what it read.
+ */
+@SpringBootTest
+class OptimisticConcurrencyTest {
+
+    // The user the app falls back to with app.security.require-auth=false.
+    private static final String USER_ID = "local-dev-user";
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private MealPlanService mealPlanService;
+
+    @Autowired
+    private MealPlanRepository mealPlanRepository;
+
+    @Autowired
+    private ShoppingListDraftService shoppingListDraftService;
+
+    @Autowired
+    private ShoppingListDraftRepository shoppingListDraftRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate first;
+    private TransactionTemplate second;
+
+    @BeforeEach
+    void setUp() {
+        first = new TransactionTemplate(transactionManager);
+        second = new TransactionTemplate(transactionManager);
+        second.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Test
+    void recipePutThatLostTheRaceFailsItsPrecondition() {
+        String id = recipeService.create(recipeRequest("Gallo pinto")).id();
+
+        assertThrows(PreconditionFailedException.class, () -> interleave(
+                () -> recipeRepository.findByIdAndUserId(id, USER_ID).map(RecipeEntity::getUpdatedAt).orElseThrow(),
+                () -> recipeService.update(id, recipeRequest("Gallo pinto con natilla"), null),
+                staleUpdatedAt -> recipeService.update(id, recipeRequest("Gallo pinto sin cebolla"), EntityTags.of(id, staleUpdatedAt))
+        ));
+
+        assertEquals("Gallo pinto con natilla", recipeService.findById(id).orElseThrow().name());
+    }
+
+    @Test
+    void recipePutWithoutIfMatchThatLostTheRaceConflicts() {
+        String id = recipeService.create(recipeRequest("Casado")).id();
+
+        assertThrows(OptimisticLockingFailureException.class, () -> interleave(
+                () -> recipeRepository.findByIdAndUserId(id, USER_ID).map(RecipeEntity::getUpdatedAt).orElseThrow(),
+                () -> recipeService.update(id, recipeRequest("Casado con pescado"), null),
+                staleUpdatedAt -> recipeService.update(id, recipeRequest("Casado con pollo"), null)
+        ));
+
+        assertEquals("Casado con pescado", recipeService.findById(id).orElseThrow().name());
+    }
+
+    @Test
+    void planPutThatLostTheRaceFailsItsPrecondition() {
+        String recipeId = recipeService.create(recipeRequest("Arroz con pollo")).id();
+        String id = mealPlanService.create(planRequest(recipeId, LocalDate.of(2026, 6, 2))).id();
+
+        assertThrows(PreconditionFailedException.class, () -> interleave(
+                () -> mealPlanRepository.findByIdAndUserId(id, USER_ID).map(MealPlanEntity::getUpdatedAt).orElseThrow(),
+                () -> mealPlanService.update(id, planRequest(recipeId, LocalDate.of(2026, 6, 3)), null),
+                staleUpdatedAt -> mealPlanService.update(id, planRequest(recipeId, LocalDate.of(2026, 6, 4)), EntityTags.of(id, staleUpdatedAt))
+        ));
+
+        MealPlan plan = mealPlanService.findById(id).orElseThrow();
+        assertEquals(LocalDate.of(2026, 6, 3), plan.slots().get(0).date());
+    }
+
+    @Test
+    void draftPutThatLostTheRaceFailsItsPrecondition() {
+        String id = shoppingListDraftService.createFromGenerated("plan-concurrency", List.of(), null).id();
+
+        assertThrows(PreconditionFailedException.class, () -> interleave(
+                () -> shoppingListDraftRepository.findByIdAndUserId(id, USER_ID).map(ShoppingListDraftEntity::getUpdatedAt).orElseThrow(),
+                () -> shoppingListDraftService.replaceItems(id, draftRequest("Servilletas"), null),
+                staleUpdatedAt -> shoppingListDraftService.replaceItems(id, draftRequest("Jabón"), EntityTags.of(id, staleUpdatedAt))
+        ));
+
+        ShoppingListDraft draft = shoppingListDraftService.findById(id).orElseThrow();
+        assertEquals(List.of("Servilletas"), draft.items().stream().map(ShoppingListDraftItem::name).toList());
+    }
+
+    private <T> void interleave(Supplier<T> firstRead, Runnable secondWrite, Consumer<T> firstWrite) {
+        first.executeWithoutResult(status -> {
+            T read = firstRead.get();
+            second.executeWithoutResult(inner -> secondWrite.run());
+            firstWrite.accept(read);
+        });
+    }
+
+    private CreateRecipeRequest recipeRequest(String name) {
+        return new CreateRecipeRequest(
+                name,
+                MealType.LUNCH,
+                List.of(new CreateRecipeRequest.IngredientInput("rice", 1.0, Unit.CUP)),
+                null,
+                null,
+                null
+        );
+    }
+
+    private CreateMealPlanRequest planRequest(String recipeId, LocalDate slotDate) {
+        return new CreateMealPlanRequest(
+                LocalDate.of(2026, 6, 1),
+                PlanPeriod.WEEK,
+                List.of(new CreateMealPlanRequest.SlotInput(slotDate, MealType.LUNCH, recipeId))
+        );
+    }
+
+    private UpdateShoppingListRequest draftRequest(String name) {
+        return new UpdateShoppingListRequest(List.of(new UpdateShoppingListRequest.ItemInput(
+                null, null, name, 1.0, "PIECE", null, null, null, true, false, null, 0)));
+    }
+}
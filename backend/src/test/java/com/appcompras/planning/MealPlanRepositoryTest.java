@@ -1,18 +1,26 @@
 package com.appcompras.planning;
 
+import com.appcompras.recipe.MealType;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -22,6 +30,9 @@ class MealPlanRepositoryTest {
     @Autowired
     private MealPlanRepository mealPlanRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private MealPlanEntity planUserA;
     private MealPlanEntity planUserB;
 
@@ -223,4 +234,84 @@ class MealPlanRepositoryTest {
         assertFalse(planAResult.isPresent());
         assertTrue(planBResult.isPresent());
     }
+
+    @Test
+    void clearIngredientTotalsForRecipeOnlyTouchesPlansUsingIt() {
+        Instant computedAt = Instant.parse("2026-02-07T12:00:00Z");
+        mealPlanRepository.saveAll(List.of(
+                buildPlanWithTotals("plan-uses", "user-a", "r-edited", computedAt),
+                buildPlanWithTotals("plan-other", "user-a", "r-other", computedAt),
+                buildPlanWithTotals("plan-foreign", "user-b", "r-edited", computedAt)
+        ));
+        mealPlanRepository.flush();
+
+        int cleared = mealPlanRepository.clearIngredientTotalsForRecipe("user-a", "r-edited");
+        entityManager.clear();
+
+        assertEquals(1, cleared);
+        assertNull(mealPlanRepository.findById("plan-uses").orElseThrow().getIngredientTotalsAt());
+        assertEquals(computedAt, mealPlanRepository.findById("plan-other").orElseThrow().getIngredientTotalsAt());
+        assertEquals(computedAt, mealPlanRepository.findById("plan-foreign").orElseThrow().getIngredientTotalsAt());
+    }
+
+    @Test
+    void clearIngredientTotalsForRecipeDoesNotLeaveALoadedPlanWithStaleTotals() {
+        mealPlanRepository.saveAndFlush(buildPlanWithTotals("plan-uses", "user-a", "r-edited", Instant.parse("2026-02-07T12:00:00Z")));
+        MealPlanEntity loaded = mealPlanRepository.findByIdAndUserId("plan-uses", "user-a").orElseThrow();
+        loaded.setUpdatedAt(Instant.parse("2026-02-07T12:05:00Z"));
+
+        mealPlanRepository.clearIngredientTotalsForRecipe("user-a", "r-edited");
+
+        MealPlanEntity reloaded = mealPlanRepository.findByIdAndUserId("plan-uses", "user-a").orElseThrow();
+        assertNull(reloaded.getIngredientTotalsAt());
+        assertEquals(Instant.parse("2026-02-07T12:05:00Z"), reloaded.getUpdatedAt());
+    }
+
+    @Test
+    void clearIngredientTotalsForRecipeBumpsTheVersion() {
+        mealPlanRepository.saveAndFlush(buildPlanWithTotals("plan-uses", "user-a", "r-edited", Instant.parse("2026-02-07T12:00:00Z")));
+        entityManager.clear();
+        long loadedVersion = mealPlanRepository.findById("plan-uses").orElseThrow().getVersion();
+        entityManager.clear();
+
+        mealPlanRepository.clearIngredientTotalsForRecipe("user-a", "r-edited");
+        entityManager.clear();
+
+        assertEquals(loadedVersion + 1, mealPlanRepository.findById("plan-uses").orElseThrow().getVersion());
+    }
+
+    @Test
+    void saveRejectsTotalsLoadedBeforeAConcurrentEdit() {
+        mealPlanRepository.saveAndFlush(buildPlanWithTotals("plan-uses", "user-a", "r-edited", Instant.parse("2026-02-07T12:00:00Z")));
+        entityManager.clear();
+
+        MealPlanEntity stale = mealPlanRepository.findById("plan-uses").orElseThrow();
+        stale.getIngredientTotals().size();
+        entityManager.detach(stale);
+        MealPlanEntity current = mealPlanRepository.findById("plan-uses").orElseThrow();
+        current.getIngredientTotals().put("rice", 360.0);
+        current.setUpdatedAt(Instant.parse("2026-02-07T12:05:00Z"));
+        mealPlanRepository.saveAndFlush(current);
+
+        stale.getIngredientTotals().put("rice", 90.0);
+        stale.setUpdatedAt(Instant.parse("2026-02-07T12:06:00Z"));
+
+        assertThrows(OptimisticLockingFailureException.class, () -> mealPlanRepository.saveAndFlush(stale));
+    }
+
+    private MealPlanEntity buildPlanWithTotals(String id, String userId, String recipeId, Instant computedAt) {
+        MealPlanEntity plan = new MealPlanEntity();
+        plan.setId(id);
+        plan.setUserId(userId);
+        plan.setStartDate(LocalDate.of(2026, 2, 9));
+        plan.setEndDate(LocalDate.of(2026, 2, 15));
+        plan.setPeriod(PlanPeriod.WEEK);
+        plan.setSlots(new ArrayList<>(List.of(
+                new MealPlanSlotEmbeddable(LocalDate.of(2026, 2, 9), MealType.LUNCH, recipeId))));
+        plan.setIngredientTotals(new HashMap<>(Map.of("rice", 180.0)));
+        plan.setIngredientTotalsAt(computedAt);
+        plan.setCreatedAt(computedAt);
+        plan.setUpdatedAt(computedAt);
+        return plan;
+    }
 }
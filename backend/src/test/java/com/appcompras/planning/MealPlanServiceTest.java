@@ -2,9 +2,9 @@ package com.appcompras.planning;
 
 import com.appcompras.config.BusinessRuleException;
 import com.appcompras.recipe.MealType;
-import com.appcompras.recipe.Recipe;
 import com.appcompras.recipe.RecipeService;
 import com.appcompras.security.CurrentUserProvider;
+import com.appcompras.shopping.ShoppingListRecomputationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,14 +13,20 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,11 +41,15 @@ class MealPlanServiceTest {
     @Mock
     private CurrentUserProvider currentUserProvider;
 
+    @Mock
+    private ShoppingListRecomputationService shoppingListRecomputationService;
+
     private MealPlanService mealPlanService;
 
     @BeforeEach
     void setUp() {
-        mealPlanService = new MealPlanService(mealPlanRepository, recipeService, currentUserProvider);
+        mealPlanService = new MealPlanService(
+                mealPlanRepository, recipeService, currentUserProvider, shoppingListRecomputationService);
         when(currentUserProvider.getCurrentUserId()).thenReturn("test-user-id");
     }
 
@@ -91,11 +101,33 @@ class MealPlanServiceTest {
             List.of(slot)
         );
 
-        when(recipeService.findById("nonexistent-recipe")).thenReturn(Optional.empty());
+        when(recipeService.findExistingIds(Set.of("nonexistent-recipe"))).thenReturn(Set.of());
 
         assertThrows(BusinessRuleException.class, () -> mealPlanService.create(request));
     }
 
+    @Test
+    void createMealPlanReportsEveryMissingRecipeInOneQuery() {
+        LocalDate startDate = LocalDate.of(2026, 5, 1);
+        CreateMealPlanRequest request = new CreateMealPlanRequest(
+            startDate,
+            PlanPeriod.WEEK,
+            List.of(
+                new CreateMealPlanRequest.SlotInput(LocalDate.of(2026, 5, 1), MealType.BREAKFAST, "missing-1"),
+                new CreateMealPlanRequest.SlotInput(LocalDate.of(2026, 5, 2), MealType.BREAKFAST, "recipe-1"),
+                new CreateMealPlanRequest.SlotInput(LocalDate.of(2026, 5, 3), MealType.BREAKFAST, "missing-2"),
+                new CreateMealPlanRequest.SlotInput(LocalDate.of(2026, 5, 4), MealType.BREAKFAST, "missing-1")
+            )
+        );
+
+        when(recipeService.findExistingIds(Set.of("missing-1", "recipe-1", "missing-2"))).thenReturn(Set.of("recipe-1"));
+
+        BusinessRuleException ex = assertThrows(BusinessRuleException.class, () -> mealPlanService.create(request));
+
+        assertEquals("Recipe not found for slot: missing-1, missing-2", ex.getMessage());
+        verify(recipeService, never()).findById(any());
+    }
+
     @Test
     void createMealPlanWithWeekPeriodCalculatesEndDate() {
         LocalDate startDate = LocalDate.of(2026, 5, 1);
@@ -108,8 +140,7 @@ class MealPlanServiceTest {
             List.of(slot)
         );
 
-        Recipe recipe = new Recipe("recipe-1", "Test Recipe", MealType.LUNCH, List.of(), null, null, null, 0, null, Instant.now(), Instant.now());
-        when(recipeService.findById("recipe-1")).thenReturn(Optional.of(recipe));
+        when(recipeService.findExistingIds(Set.of("recipe-1"))).thenReturn(Set.of("recipe-1"));
 
         MealPlanEntity savedEntity = new MealPlanEntity();
         savedEntity.setId("plan-id");
@@ -137,8 +168,7 @@ class MealPlanServiceTest {
             List.of(slot)
         );
 
-        Recipe recipe = new Recipe("recipe-2", "Dinner", MealType.DINNER, List.of(), null, null, null, 0, null, Instant.now(), Instant.now());
-        when(recipeService.findById("recipe-2")).thenReturn(Optional.of(recipe));
+        when(recipeService.findExistingIds(Set.of("recipe-2"))).thenReturn(Set.of("recipe-2"));
 
         MealPlanEntity savedEntity = new MealPlanEntity();
         savedEntity.setId("plan-id");
@@ -216,4 +246,43 @@ class MealPlanServiceTest {
 
         assertFalse(result);
     }
+
+    @Test
+    void updatePassesSlotCountsToShoppingListRecomputation() {
+        LocalDate startDate = LocalDate.of(2026, 5, 1);
+        MealPlanEntity existing = new MealPlanEntity();
+        existing.setId("plan-id");
+        existing.setUserId("test-user-id");
+        existing.setStartDate(startDate);
+        existing.setEndDate(startDate.plusDays(6));
+        existing.setPeriod(PlanPeriod.WEEK);
+        existing.setSlots(new ArrayList<>(List.of(
+                new MealPlanSlotEmbeddable(LocalDate.of(2026, 5, 2), MealType.LUNCH, "recipe-1"),
+                new MealPlanSlotEmbeddable(LocalDate.of(2026, 5, 3), MealType.LUNCH, "recipe-1")
+        )));
+        existing.setCreatedAt(Instant.now());
+        existing.setUpdatedAt(Instant.now());
+        when(mealPlanRepository.findByIdAndUserId("plan-id", "test-user-id")).thenReturn(Optional.of(existing));
+        when(mealPlanRepository.saveAndFlush(existing)).thenReturn(existing);
+
+        when(recipeService.findExistingIds(Set.of("recipe-1", "recipe-2"))).thenReturn(Set.of("recipe-1", "recipe-2"));
+
+        CreateMealPlanRequest request = new CreateMealPlanRequest(
+            startDate,
+            PlanPeriod.WEEK,
+            List.of(
+                new CreateMealPlanRequest.SlotInput(LocalDate.of(2026, 5, 2), MealType.LUNCH, "recipe-1"),
+                new CreateMealPlanRequest.SlotInput(LocalDate.of(2026, 5, 3), MealType.DINNER, "recipe-2")
+            )
+        );
+
+        mealPlanService.update("plan-id", request);
+
+        verify(recipeService).applyUsageDeltas(eq(Map.of("recipe-2", 1)), any(Instant.class));
+        verify(shoppingListRecomputationService).applyPlanChange(
+                existing,
+                Map.of("recipe-1", 2),
+                Map.of("recipe-1", 1, "recipe-2", 1)
+        );
+    }
 }
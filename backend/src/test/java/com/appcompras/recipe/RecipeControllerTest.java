@@ -5,14 +5,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -103,6 +107,28 @@ class RecipeControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getRecipeByIdAnswersNotModifiedForCurrentETag() throws Exception {
+        String id = createRecipeAndGetId();
+
+        String etag = mockMvc.perform(get("/api/recipes/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/recipes/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/recipes/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(jsonPath("$.id").value(id));
+    }
+
     @Test
     void getRecipesReturnsList() throws Exception {
         createRecipeAndGetId();
@@ -125,6 +151,35 @@ class RecipeControllerTest {
                 .andExpect(jsonPath("$[0].type").value("BREAKFAST"));
     }
 
+    @Test
+    void getRecipesPagesWithOpaqueCursor() throws Exception {
+        String olderId = createRecipeAndGetId("Cena 1", "DINNER");
+        String newerId = createRecipeAndGetId("Cena 2", "DINNER");
+
+        MvcResult firstPage = mockMvc.perform(get("/api/recipes?type=DINNER&limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(newerId))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn();
+
+        String cursor = firstPage.getResponse().getHeader("X-Next-Cursor");
+        mockMvc.perform(get("/api/recipes").param("type", "DINNER").param("limit", "1").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(olderId));
+    }
+
+    @Test
+    void getRecipesRejectsInvalidCursorAndLimit() throws Exception {
+        mockMvc.perform(get("/api/recipes?cursor=not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_PAGINATION"));
+
+        mockMvc.perform(get("/api/recipes?limit=0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_PAGINATION"));
+    }
+
     @Test
     void updateRecipeReturnsUpdatedRecipe() throws Exception {
         String id = createRecipeAndGetId();
@@ -152,6 +207,42 @@ class RecipeControllerTest {
                 .andExpect(jsonPath("$.notes").value("actualizada"));
     }
 
+    @Test
+    void updateRecipeRejectsStaleIfMatch() throws Exception {
+        String id = createRecipeAndGetId();
+        String etag = mockMvc.perform(get("/api/recipes/{id}", id))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        String payload = """
+                {
+                  "name": "Arroz con huevo",
+                  "type": "DINNER",
+                  "ingredients": [
+                    { "ingredientId": "rice", "quantity": 200, "unit": "GRAM" }
+                  ]
+                }
+                """;
+
+        String nextEtag = mockMvc.perform(put("/api/recipes/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, nextEtag);
+
+        mockMvc.perform(put("/api/recipes/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.code").value("PRECONDITION_FAILED"));
+    }
+
     @Test
     void updateRecipeReturnsNotFoundWhenMissing() throws Exception {
         String payload = """
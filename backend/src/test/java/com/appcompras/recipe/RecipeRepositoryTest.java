@@ -1,13 +1,16 @@
 package com.appcompras.recipe;
 
 import com.appcompras.domain.Unit;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -18,6 +21,9 @@ class RecipeRepositoryTest {
     @Autowired
     private RecipeRepository recipeRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @BeforeEach
     void clean() {
         recipeRepository.deleteAll();
@@ -129,6 +135,32 @@ class RecipeRepositoryTest {
         assertThat(recipeRepository.findAllByUserIdOrderByCreatedAtDescIdAsc("user-a")).isEmpty();
     }
 
+    @Test
+    void findAllWithCollectionsByUserIdAndIdInLoadsOnlyOwnedRecipes() {
+        RecipeEntity rice = buildRecipe("r-rice", "Rice", MealType.LUNCH, Instant.now());
+        rice.setUserId("user-a");
+        rice.setIngredients(List.of(
+                new RecipeIngredientEmbeddable("rice", 1.0, Unit.CUP),
+                new RecipeIngredientEmbeddable("salt", 1.0, Unit.PINCH)
+        ));
+        rice.setTags(Set.of("rapido", "batch"));
+        RecipeEntity beans = buildRecipe("r-beans", "Beans", MealType.DINNER, Instant.now());
+        beans.setUserId("user-a");
+        RecipeEntity foreign = buildRecipe("r-foreign", "Foreign", MealType.DINNER, Instant.now());
+        foreign.setUserId("user-b");
+
+        recipeRepository.saveAll(List.of(rice, beans, foreign));
+
+        List<RecipeEntity> results = recipeRepository.findAllWithCollectionsByUserIdAndIdIn(
+                "user-a", List.of("r-rice", "r-beans", "r-foreign", "missing"));
+
+        assertThat(results).extracting(RecipeEntity::getId).containsExactlyInAnyOrder("r-rice", "r-beans");
+        RecipeEntity loadedRice = results.stream().filter(r -> r.getId().equals("r-rice")).findFirst().orElseThrow();
+        assertThat(loadedRice.getIngredients()).extracting(RecipeIngredientEmbeddable::getIngredientId)
+                .containsExactly("rice", "salt");
+        assertThat(loadedRice.getTags()).containsExactlyInAnyOrder("rapido", "batch");
+    }
+
     @Test
     void caseInsensitiveIdOrderingInSecondarySort() {
         Instant same = Instant.parse("2026-02-01T10:00:00Z");
@@ -149,6 +181,67 @@ class RecipeRepositoryTest {
                 .containsExactly("Recipe-A", "Recipe-B", "recipe-c");
     }
 
+    @Test
+    void findPageAfterContinuesCreatedAtDescIdAscOrder() {
+        Instant sameInstant = Instant.parse("2026-02-08T12:00:00Z");
+        recipeRepository.saveAll(List.of(
+                buildRecipe("r-a", "A", MealType.LUNCH, sameInstant),
+                buildRecipe("r-b", "B", MealType.LUNCH, sameInstant),
+                buildRecipe("r-c", "C", MealType.DINNER, sameInstant.minusSeconds(60)),
+                buildRecipe("r-d", "D", MealType.LUNCH, sameInstant.minusSeconds(120))
+        ));
+
+        assertThat(recipeRepository.findAllByUserIdOrderByCreatedAtDescIdAsc("local-dev-user", Limit.of(2)))
+                .extracting(RecipeEntity::getId)
+                .containsExactly("r-a", "r-b");
+        assertThat(recipeRepository.findPageAfter("local-dev-user", sameInstant, "r-a", Limit.of(2)))
+                .extracting(RecipeEntity::getId)
+                .containsExactly("r-b", "r-c");
+        assertThat(recipeRepository.findPageAfterByType("local-dev-user", MealType.LUNCH, sameInstant, "r-b", Limit.of(2)))
+                .extracting(RecipeEntity::getId)
+                .containsExactly("r-d");
+    }
+
+    @Test
+    void findExistingIdsReturnsOnlyOwnedRecipeIds() {
+        Instant createdAt = Instant.parse("2026-02-01T10:00:00Z");
+        RecipeEntity foreign = buildRecipe("r-foreign", "Casado", MealType.LUNCH, createdAt);
+        foreign.setUserId("other-user");
+        recipeRepository.saveAll(List.of(buildRecipe("r-owned", "Gallo pinto", MealType.BREAKFAST, createdAt), foreign));
+
+        Set<String> existing = recipeRepository.findExistingIds(
+                "local-dev-user", List.of("r-owned", "r-foreign", "r-missing"));
+
+        assertThat(existing).containsExactly("r-owned");
+    }
+
+    @Test
+    void incrementUsageCountsAppliesEachDeltaToOwnedRecipesOnly() {
+        Instant createdAt = Instant.parse("2026-02-01T10:00:00Z");
+        RecipeEntity breakfast = buildRecipe("r-breakfast", "Gallo pinto", MealType.BREAKFAST, createdAt);
+        breakfast.setUsageCount(3);
+        RecipeEntity lunch = buildRecipe("r-lunch", "Arroz con pollo", MealType.LUNCH, createdAt);
+        RecipeEntity untouched = buildRecipe("r-untouched", "Sopa", MealType.DINNER, createdAt);
+        RecipeEntity foreign = buildRecipe("r-foreign", "Casado", MealType.LUNCH, createdAt);
+        foreign.setUserId("other-user");
+        recipeRepository.saveAll(List.of(breakfast, lunch, untouched, foreign));
+        recipeRepository.flush();
+
+        Instant usedAt = Instant.parse("2026-02-09T08:00:00Z");
+        int updated = recipeRepository.incrementUsageCounts(
+                "local-dev-user", Map.of("r-breakfast", 7, "r-lunch", 2, "r-foreign", 4, "r-missing", 1), usedAt, usedAt);
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(2);
+        RecipeEntity reloaded = recipeRepository.findById("r-breakfast").orElseThrow();
+        assertThat(reloaded.getUsageCount()).isEqualTo(10);
+        assertThat(reloaded.getLastUsedAt()).isEqualTo(usedAt);
+        assertThat(recipeRepository.findById("r-lunch").orElseThrow().getUsageCount()).isEqualTo(2);
+        assertThat(recipeRepository.findById("r-untouched").orElseThrow().getUsageCount()).isZero();
+        assertThat(recipeRepository.findById("r-untouched").orElseThrow().getLastUsedAt()).isNull();
+        assertThat(recipeRepository.findById("r-foreign").orElseThrow().getUsageCount()).isZero();
+    }
+
     private RecipeEntity buildRecipe(String id, String name, MealType type, Instant createdAt) {
         RecipeEntity recipe = new RecipeEntity();
         recipe.setId(id);
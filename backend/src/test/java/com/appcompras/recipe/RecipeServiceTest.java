@@ -9,10 +9,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -20,8 +23,11 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,11 +42,14 @@ class RecipeServiceTest {
     @Mock
     private CurrentUserProvider currentUserProvider;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private RecipeService recipeService;
 
     @BeforeEach
     void setUp() {
-        recipeService = new RecipeService(recipeRepository, ingredientCatalogService, currentUserProvider);
+        recipeService = new RecipeService(recipeRepository, ingredientCatalogService, currentUserProvider, eventPublisher);
         when(currentUserProvider.getCurrentUserId()).thenReturn("test-user-id");
     }
 
@@ -104,32 +113,26 @@ class RecipeServiceTest {
     }
 
     @Test
-    void incrementUsageCountIncrementsAndSetsLastUsed() {
-        RecipeEntity entity = new RecipeEntity();
-        entity.setId("recipe-id");
-        entity.setUserId("test-user-id");
-        entity.setUsageCount(5);
-        entity.setLastUsedAt(null);
-
-        when(recipeRepository.findByIdAndUserId("recipe-id", "test-user-id")).thenReturn(Optional.of(entity));
-        when(recipeRepository.save(any(RecipeEntity.class))).thenAnswer(inv -> inv.getArgument(0));
-
+    void applyUsageDeltasIncrementsEveryRecipeInOneStatementAndSetsLastUsed() {
         Instant usedAt = Instant.now();
-        boolean result = recipeService.incrementUsageCount("recipe-id", usedAt);
 
-        assertTrue(result);
-        assertEquals(6, entity.getUsageCount());
-        assertEquals(usedAt, entity.getLastUsedAt());
-        verify(recipeRepository).save(entity);
+        recipeService.applyUsageDeltas(Map.of("breakfast", 7, "lunch-1", 1, "lunch-2", 1), usedAt);
+
+        verify(recipeRepository).incrementUsageCounts(
+                eq("test-user-id"), eq(Map.of("breakfast", 7, "lunch-1", 1, "lunch-2", 1)), eq(usedAt), any(Instant.class));
+        verify(recipeRepository, never()).findByIdAndUserId(anyString(), anyString());
+        verifyNoMoreInteractions(recipeRepository);
     }
 
     @Test
-    void incrementUsageCountReturnsFalseWhenRecipeNotFound() {
-        when(recipeRepository.findByIdAndUserId("nonexistent-id", "test-user-id")).thenReturn(Optional.empty());
+    void applyUsageDeltasSkipsRecipesThatWereNotAdded() {
+        Instant usedAt = Instant.now();
 
-        boolean result = recipeService.incrementUsageCount("nonexistent-id", Instant.now());
+        recipeService.applyUsageDeltas(Map.of("kept", 2, "removed", -2, "unchanged", 0), usedAt);
+        verify(recipeRepository).incrementUsageCounts(eq("test-user-id"), eq(Map.of("kept", 2)), eq(usedAt), any(Instant.class));
 
-        assertFalse(result);
+        recipeService.applyUsageDeltas(Map.of("removed", -1), usedAt);
+        verifyNoMoreInteractions(recipeRepository);
     }
 
     @Test
@@ -179,6 +182,52 @@ class RecipeServiceTest {
         assertFalse(result.isPresent());
     }
 
+    @Test
+    void findAllByIdsLoadsDistinctIdsInSingleQuery() {
+        RecipeEntity rice = new RecipeEntity();
+        rice.setId("recipe-rice");
+        rice.setUserId("test-user-id");
+        rice.setName("Rice");
+        RecipeEntity beans = new RecipeEntity();
+        beans.setId("recipe-beans");
+        beans.setUserId("test-user-id");
+        beans.setName("Beans");
+
+        when(recipeRepository.findAllWithCollectionsByUserIdAndIdIn(
+                "test-user-id", Set.of("recipe-rice", "recipe-beans", "missing")))
+                .thenReturn(List.of(rice, beans));
+
+        Map<String, Recipe> result = recipeService.findAllByIds(
+                List.of("recipe-rice", "recipe-beans", "recipe-rice", "missing", "recipe-rice"));
+
+        assertEquals(2, result.size());
+        assertEquals("Rice", result.get("recipe-rice").name());
+        assertEquals("Beans", result.get("recipe-beans").name());
+        assertFalse(result.containsKey("missing"));
+        verify(recipeRepository).findAllWithCollectionsByUserIdAndIdIn(
+                "test-user-id", Set.of("recipe-rice", "recipe-beans", "missing"));
+    }
+
+    @Test
+    void updatePublishesIngredientsChangedForThePlansToRebuild() {
+        when(ingredientCatalogService.resolveIngredientId("rice")).thenReturn(Optional.of("rice"));
+        when(ingredientCatalogService.isUnitAllowed("rice", Unit.CUP)).thenReturn(true);
+
+        RecipeEntity existing = new RecipeEntity();
+        existing.setId("recipe-id");
+        existing.setUserId("test-user-id");
+        existing.setName("Rice Bowl");
+        existing.setUpdatedAt(Instant.parse("2026-01-01T00:00:00Z"));
+        when(recipeRepository.findByIdAndUserId("recipe-id", "test-user-id")).thenReturn(Optional.of(existing));
+        when(recipeRepository.saveAndFlush(existing)).thenReturn(existing);
+
+        CreateRecipeRequest.IngredientInput rice = new CreateRecipeRequest.IngredientInput("rice", 2.0, Unit.CUP);
+        CreateRecipeRequest request = new CreateRecipeRequest("Rice Bowl", MealType.LUNCH, List.of(rice), null, null, null);
+
+        assertTrue(recipeService.update("recipe-id", request).isPresent());
+        verify(eventPublisher).publishEvent(new RecipeIngredientsChangedEvent("test-user-id", "recipe-id"));
+    }
+
     @Test
     void deleteByIdReturnsTrueWhenDeleted() {
         RecipeEntity entity = new RecipeEntity();
@@ -0,0 +1,40 @@
+package com.appcompras.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwkSetCacheTest {
+
+    private static final String JWKS_URI = "https://www.googleapis.com/oauth2/v3/certs";
+
+    @Test
+    void checkpointDropsCachedJwkSets() {
+        JwkSetCache jwkSetCache = new JwkSetCache();
+        jwkSetCache.cache().put(JWKS_URI, "{\"keys\":[]}");
+
+        jwkSetCache.beforeCheckpoint(null);
+
+        assertNull(jwkSetCache.cache().get(JWKS_URI));
+        jwkSetCache.afterRestore(null);
+        assertEquals("jwk-sets", jwkSetCache.cache().getName());
+    }
+
+    @Test
+    void cachedJwkSetExpiresAfterTheTtl() {
+        AtomicLong nanos = new AtomicLong();
+        JwkSetCache jwkSetCache = new JwkSetCache(JwkSetCache.TTL, nanos::get);
+        jwkSetCache.cache().put(JWKS_URI, "{\"keys\":[]}");
+
+        nanos.addAndGet(JwkSetCache.TTL.minus(Duration.ofSeconds(1)).toNanos());
+        assertNotNull(jwkSetCache.cache().get(JWKS_URI));
+
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertNull(jwkSetCache.cache().get(JWKS_URI));
+    }
+}
@@ -0,0 +1,186 @@
+package com.appcompras.service;
+
+import com.appcompras.domain.IngredientCatalogItem;
+import com.appcompras.domain.MeasurementType;
+import com.appcompras.security.CurrentUserProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.metrics.ApplicationStartup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CustomIngredientCacheTest {
+
+    @Mock
+    private IngredientCustomRepository ingredientCustomRepository;
+
+    @Mock
+    private CurrentUserProvider currentUserProvider;
+
+    private SimpleMeterRegistry meterRegistry;
+    private IngredientCatalogService catalogService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        CustomIngredientCache cache = new CustomIngredientCache(meterRegistry, 100, Duration.ofMinutes(5));
+        catalogService = new IngredientCatalogService(
+                new ObjectMapper(), ingredientCustomRepository, currentUserProvider, cache, ApplicationStartup.DEFAULT);
+        when(currentUserProvider.getCurrentUserId()).thenReturn("user-a");
+    }
+
+    @Test
+    void loadsCustomCatalogOncePerUserAcrossLookups() {
+        when(ingredientCustomRepository.findAllByUserId("user-a")).thenReturn(List.of(customEntity("custom-mamon-chino-1", "Mamon Chino", "mamon-chino")));
+
+        Optional<IngredientCatalogItem> byId = catalogService.findById("custom-mamon-chino-1");
+        Optional<String> byName = catalogService.resolveIngredientId("MAMÓN CHINO");
+        List<IngredientCatalogItem> listed = catalogService.list("mamon");
+
+        assertTrue(byId.isPresent());
+        assertEquals("custom-mamon-chino-1", byName.orElseThrow());
+        assertTrue(listed.stream().anyMatch(item -> item.ingredientId().equals("custom-mamon-chino-1")));
+        verify(ingredientCustomRepository, times(1)).findAllByUserId("user-a");
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", CustomIngredientCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void unknownNonCustomIdDoesNotHitRepositoryTwice() {
+        when(ingredientCustomRepository.findAllByUserId("user-a")).thenReturn(List.of());
+
+        assertTrue(catalogService.findById("nonexistent-ingredient").isEmpty());
+        assertTrue(catalogService.findById("nonexistent-ingredient").isEmpty());
+
+        verify(ingredientCustomRepository, times(1)).findAllByUserId("user-a");
+        verify(ingredientCustomRepository, never()).findByIdAndUserId(any(), any());
+    }
+
+    @Test
+    void createCustomIngredientInvalidatesUserCatalog() {
+        when(ingredientCustomRepository.findAllByUserId("user-a")).thenReturn(List.of());
+        when(ingredientCustomRepository.save(any(IngredientCustomEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        catalogService.list(null);
+        catalogService.createCustomIngredient("Chayote", MeasurementType.WEIGHT);
+        catalogService.list(null);
+
+        verify(ingredientCustomRepository, times(2)).findAllByUserId("user-a");
+    }
+
+    @Test
+    void customCatalogGenerationComesFromTheCachedCatalog() {
+        IngredientCustomEntity older = customEntity("custom-mamon-chino-1", "Mamon Chino", "mamon-chino");
+        older.setCreatedAt(Instant.parse("2026-03-01T09:00:00Z"));
+        IngredientCustomEntity newest = customEntity("custom-pejibaye-1", "Pejibaye", "pejibaye");
+        newest.setCreatedAt(Instant.parse("2026-03-01T10:00:00.000001Z"));
+        when(ingredientCustomRepository.findAllByUserId("user-a")).thenReturn(List.of(newest, older));
+
+        assertEquals(1_772_359_200_000_001L, catalogService.customCatalogGeneration());
+        catalogService.list(null);
+        assertEquals(1_772_359_200_000_001L, catalogService.customCatalogGeneration());
+
+        verify(ingredientCustomRepository, times(1)).findAllByUserId("user-a");
+        verify(ingredientCustomRepository, never()).findLatestCreatedAtByUserId(any());
+    }
+
+    @Test
+    void customCatalogGenerationIsZeroWithoutCustomIngredientsAndMovesOnCreate() {
+        when(ingredientCustomRepository.findAllByUserId("user-a")).thenReturn(List.of());
+        when(ingredientCustomRepository.save(any(IngredientCustomEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        assertEquals(0, catalogService.customCatalogGeneration());
+
+        catalogService.createCustomIngredient("Chayote", MeasurementType.WEIGHT);
+        ArgumentCaptor<IngredientCustomEntity> saved = ArgumentCaptor.forClass(IngredientCustomEntity.class);
+        verify(ingredientCustomRepository).save(saved.capture());
+        when(ingredientCustomRepository.findAllByUserId("user-a")).thenReturn(List.of(saved.getValue()));
+
+        assertEquals(ChronoUnit.MICROS.between(Instant.EPOCH, saved.getValue().getCreatedAt()),
+                catalogService.customCatalogGeneration());
+    }
+
+    @Test
+    void createCustomIngredientMovesCreatedAtPastTheUsersNewest() {
+        Instant ahead = Instant.now().plus(Duration.ofMinutes(1)).truncatedTo(ChronoUnit.MICROS);
+        when(ingredientCustomRepository.findAllByUserId("user-a")).thenReturn(List.of());
+        when(ingredientCustomRepository.findLatestCreatedAtByUserId("user-a")).thenReturn(Optional.of(ahead));
+        when(ingredientCustomRepository.save(any(IngredientCustomEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        catalogService.createCustomIngredient("Chayote", MeasurementType.WEIGHT);
+
+        ArgumentCaptor<IngredientCustomEntity> saved = ArgumentCaptor.forClass(IngredientCustomEntity.class);
+        verify(ingredientCustomRepository).save(saved.capture());
+        assertEquals(ahead.plus(1, ChronoUnit.MICROS), saved.getValue().getCreatedAt());
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        when(ingredientCustomRepository.findAllByUserId("user-a"))
+                .thenThrow(new IllegalStateException("connection reset"))
+                .thenReturn(List.of());
+
+        assertThrows(IllegalStateException.class, () -> catalogService.list(null));
+        catalogService.list(null);
+        catalogService.list(null);
+
+        verify(ingredientCustomRepository, times(2)).findAllByUserId("user-a");
+    }
+
+    @Test
+    void loaderErrorFailsTheEntryInsteadOfLeavingItPending() {
+        CustomIngredientCache cache = new CustomIngredientCache(meterRegistry, 100, Duration.ofMinutes(5));
+        CustomIngredientCache.UserCustomCatalog empty = new CustomIngredientCache.UserCustomCatalog(List.of(), Map.of(), Map.of(), 0);
+
+        assertThrows(StackOverflowError.class, () -> cache.get("user-a", userId -> {
+            throw new StackOverflowError("deep alias graph");
+        }));
+
+        assertSame(empty, cache.get("user-a", userId -> empty));
+    }
+
+    @Test
+    void customIdMissingFromCachedCatalogFallsBackToRepository() {
+        when(ingredientCustomRepository.findAllByUserId("user-a")).thenReturn(List.of());
+        when(ingredientCustomRepository.findByIdAndUserId("custom-pejibaye-1", "user-a"))
+                .thenReturn(Optional.of(customEntity("custom-pejibaye-1", "Pejibaye", "pejibaye")));
+
+        Optional<IngredientCatalogItem> found = catalogService.findById("custom-pejibaye-1");
+
+        assertTrue(found.isPresent());
+        assertEquals("Pejibaye", found.get().displayName());
+    }
+
+    private IngredientCustomEntity customEntity(String id, String name, String normalizedName) {
+        IngredientCustomEntity entity = new IngredientCustomEntity();
+        entity.setId(id);
+        entity.setUserId("user-a");
+        entity.setName(name);
+        entity.setNormalizedName(normalizedName);
+        entity.setMeasurementType(MeasurementType.WEIGHT);
+        entity.setCreatedAt(Instant.now());
+        return entity;
+    }
+}
@@ -13,6 +13,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -125,6 +126,24 @@ class IngredientCustomRepositoryTest {
         assertEquals(0, results.size());
     }
 
+    @Test
+    void findLatestCreatedAtByUserIdReturnsTheNewestPerUser() {
+        Instant newest = Instant.parse("2030-01-01T00:00:00Z");
+
+        IngredientCustomEntity later = new IngredientCustomEntity();
+        later.setId("custom-carrot-user-a");
+        later.setUserId("user-a");
+        later.setName("Carrot");
+        later.setNormalizedName("carrot");
+        later.setMeasurementType(MeasurementType.WEIGHT);
+        later.setCreatedAt(newest);
+        ingredientCustomRepository.save(later);
+
+        assertEquals(Optional.of(newest), ingredientCustomRepository.findLatestCreatedAtByUserId("user-a"));
+        assertNotEquals(Optional.of(newest), ingredientCustomRepository.findLatestCreatedAtByUserId("user-b"));
+        assertFalse(ingredientCustomRepository.findLatestCreatedAtByUserId("unknown-user").isPresent());
+    }
+
     @Test
     void saveAndRetrievePersistsAllFields() {
         Instant created = Instant.parse("2026-05-01T10:00:00Z");
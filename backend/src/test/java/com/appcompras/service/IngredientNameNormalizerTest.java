@@ -0,0 +1,52 @@
+package com.appcompras.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IngredientNameNormalizerTest {
+
+    @Test
+    void matchesRegexBasedNormalizationForSeedLikeInputs() {
+        List<String> inputs = List.of(
+                "rice",
+                "  Arroz Integrál ",
+                "wheat    flour",
+                "Pechuga de Pollo",
+                "Açaí",
+                "--chile dulce--",
+                "ñame (fresco)",
+                "leche 2%",
+                "",
+                "!!!"
+        );
+
+        for (String input : inputs) {
+            assertEquals(regexNormalize(input), IngredientNameNormalizer.normalize(input), input);
+        }
+    }
+
+    @Test
+    void dropsCombiningMarksWithoutSplittingWords() {
+        assertEquals("cafe", IngredientNameNormalizer.normalize("café"));
+        assertEquals("cafe-con-leche", IngredientNameNormalizer.normalize("Café con leche"));
+    }
+
+    @Test
+    void toDisplayCaseCapitalizesEveryToken() {
+        assertEquals("Arroz Integral", IngredientNameNormalizer.toDisplayCase("  arroz   INTEGRAL "));
+        assertEquals("", IngredientNameNormalizer.toDisplayCase("   "));
+        assertEquals("", IngredientNameNormalizer.toDisplayCase(null));
+    }
+
+    private String regexNormalize(String value) {
+        String withoutAccent = Normalizer.normalize(value.trim().toLowerCase(Locale.ROOT), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+        String normalized = withoutAccent.replaceAll("[^a-z0-9]+", "-");
+        return normalized.replaceAll("^-+|-+$", "");
+    }
+}
@@ -1,6 +1,8 @@
 package com.appcompras.service;
 
+import com.appcompras.domain.IngredientCatalogItem;
 import com.appcompras.domain.MealType;
+import com.appcompras.domain.MeasurementType;
 import com.appcompras.domain.Recipe;
 import com.appcompras.domain.RecipeIngredient;
 import com.appcompras.domain.ShoppingListItem;
@@ -15,15 +17,20 @@ import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 class ShoppingListServiceTest {
 
+    private IngredientCatalogService catalogService;
+    private UnitConversionService conversionService;
     private ShoppingListService shoppingListService;
 
     @BeforeEach
     void setUp() {
-        IngredientCatalogService catalogService = new IngredientCatalogService(new ObjectMapper());
-        UnitConversionService conversionService = new UnitConversionService(catalogService);
+        catalogService = new IngredientCatalogService(new ObjectMapper());
+        conversionService = new UnitConversionService(catalogService);
         shoppingListService = new ShoppingListService(catalogService, conversionService);
     }
 
@@ -328,4 +335,65 @@ class ShoppingListServiceTest {
 
         assertEquals(3, list.size());
     }
+
+    @Test
+    void listsItemsInCatalogOrderWithCustomIngredientsLast() {
+        IngredientCatalogItem custom = catalogService.createCustomIngredient("Chayote Casero", MeasurementType.UNIT);
+        Recipe recipe = new Recipe(
+                "r12",
+                "Picadillo",
+                MealType.LUNCH,
+                List.of(
+                    new RecipeIngredient(custom.ingredientId(), 2, Unit.PIECE),
+                    new RecipeIngredient("oil", 1, Unit.TABLESPOON),
+                    new RecipeIngredient("rice", 1, Unit.CUP)
+                ),
+                null,
+                null,
+                Set.of(),
+                0,
+                null,
+                Instant.now(),
+                Instant.now()
+        );
+
+        List<ShoppingListItem> list = shoppingListService.generateFromRecipes(List.of(recipe));
+
+        assertEquals(
+                List.of("rice", "oil", custom.ingredientId()),
+                list.stream().map(ShoppingListItem::ingredientId).toList()
+        );
+        assertEquals(2.0, list.get(2).requiredBaseAmount(), 0.001);
+        assertEquals(Unit.PIECE, list.get(2).baseUnit());
+    }
+
+    @Test
+    void resolvesEachDistinctIngredientOnce() {
+        UnitConversionService spiedConversionService = spy(conversionService);
+        ShoppingListService service = new ShoppingListService(catalogService, spiedConversionService);
+        Recipe recipe = new Recipe(
+                "r13",
+                "Arroz con todo",
+                MealType.DINNER,
+                List.of(
+                    new RecipeIngredient("rice", 1, Unit.CUP),
+                    new RecipeIngredient("oil", 1, Unit.TABLESPOON),
+                    new RecipeIngredient("rice", 100, Unit.GRAM)
+                ),
+                null,
+                null,
+                Set.of(),
+                0,
+                null,
+                Instant.now(),
+                Instant.now()
+        );
+
+        List<ShoppingListItem> list = service.generateFromRecipes(List.of(recipe, recipe, recipe));
+
+        assertEquals(2, list.size());
+        assertEquals(840.0, list.get(0).requiredBaseAmount(), 0.001);
+        verify(spiedConversionService, times(1)).conversionTableFor("rice");
+        verify(spiedConversionService, times(1)).conversionTableFor("oil");
+    }
 }
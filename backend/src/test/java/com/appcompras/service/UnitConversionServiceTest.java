@@ -1,5 +1,6 @@
 package com.appcompras.service;
 
+import com.appcompras.domain.IngredientCatalogItem;
 import com.appcompras.domain.MeasurementType;
 import com.appcompras.domain.Unit;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -7,15 +8,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class UnitConversionServiceTest {
 
+    private IngredientCatalogService catalogService;
     private UnitConversionService conversionService;
 
     @BeforeEach
     void setUp() {
-        IngredientCatalogService catalogService = new IngredientCatalogService(new ObjectMapper());
+        catalogService = new IngredientCatalogService(new ObjectMapper());
         conversionService = new UnitConversionService(catalogService);
     }
 
@@ -244,4 +247,62 @@ class UnitConversionServiceTest {
         Unit baseUnit = conversionService.baseUnitFor("black-pepper");
         assertEquals(Unit.TO_TASTE, baseUnit);
     }
+
+    @Test
+    void conversionTableMatchesIdBasedConversion() {
+        IngredientConversionTable rice = conversionService.conversionTableFor("rice");
+
+        assertEquals("rice", rice.item().ingredientId());
+        assertEquals(Unit.GRAM, rice.baseUnit());
+        assertEquals(conversionService.toBaseAmount("rice", 2.5, Unit.CUP), rice.toBaseAmount(2.5, Unit.CUP), 0.0);
+        assertEquals(
+                conversionService.packageBaseAmount(
+                        rice.item().measurementType(),
+                        rice.item().suggestedPurchaseAmount(),
+                        rice.item().suggestedPurchaseUnit()),
+                rice.packageBaseAmount(),
+                0.0
+        );
+    }
+
+    @Test
+    void conversionTableIsCompiledOnceAtLoad() {
+        assertSame(conversionService.conversionTableFor("oil"), conversionService.conversionTableFor("oil"));
+    }
+
+    @Test
+    void conversionTableKeepsDisallowedUnitMessage() {
+        IngredientConversionTable rice = conversionService.conversionTableFor("rice");
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
+            rice.toBaseAmount(1.0, Unit.TABLESPOON)
+        );
+        assertEquals("Unit TABLESPOON is not allowed for ingredient rice", ex.getMessage());
+    }
+
+    @Test
+    void conversionTableKeepsMissingDensityRuleMessage() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
+            conversionService.conversionTableFor("sugar").toBaseAmount(1.0, Unit.PINCH)
+        );
+        assertEquals("Missing ingredient specific conversion for ingredient sugar and unit PINCH", ex.getMessage());
+    }
+
+    @Test
+    void conversionTableCompiledForCustomIngredient() {
+        IngredientCatalogItem custom = catalogService.createCustomIngredient("Leche de Coco Casera", MeasurementType.VOLUME);
+
+        IngredientConversionTable table = conversionService.conversionTableFor(custom.ingredientId());
+
+        assertEquals(Unit.MILLILITER, table.baseUnit());
+        assertEquals(480.0, table.toBaseAmount(2.0, Unit.CUP), 0.001);
+        assertEquals(1000.0, table.packageBaseAmount(), 0.001);
+    }
+
+    @Test
+    void conversionTableForUnknownIngredient() {
+        assertThrows(IllegalArgumentException.class, () ->
+            conversionService.conversionTableFor("non-existent-ingredient")
+        );
+    }
 }
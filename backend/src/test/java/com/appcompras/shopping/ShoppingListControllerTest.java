@@ -6,14 +6,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -275,6 +279,176 @@ class ShoppingListControllerTest {
         Assertions.assertTrue(secondIndex >= 0 && firstIndex >= 0 && secondIndex < firstIndex);
     }
 
+    @Test
+    void itemLevelOperationsReturnOnlyTheChangedItems() throws Exception {
+        String recipeRice = createRecipeAndGetId("Rice", "LUNCH", "rice", 1, "CUP");
+        String recipeTomato = createRecipeAndGetId("Tomato", "DINNER", "tomato", 2, "PIECE");
+        String planId = createPlanAndGetId(
+                "2026-02-09",
+                "WEEK",
+                "2026-02-10", "LUNCH", recipeRice,
+                "2026-02-10", "DINNER", recipeTomato
+        );
+
+        MvcResult generated = mockMvc.perform(post("/api/shopping-lists/generate")
+                        .param("planId", planId))
+                .andExpect(status().isOk())
+                .andReturn();
+        String body = generated.getResponse().getContentAsString();
+        String shoppingListId = JsonPath.read(body, "$.id");
+        String riceItemId = JsonPath.read(body, "$.items[0].id");
+
+        mockMvc.perform(patch("/api/shopping-lists/{id}/items/{itemId}", shoppingListId, riceItemId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                { "bought": true, "note": "  Integral  " }
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(shoppingListId))
+                .andExpect(jsonPath("$.upsertedItems.length()").value(1))
+                .andExpect(jsonPath("$.upsertedItems[0].bought").value(true))
+                .andExpect(jsonPath("$.upsertedItems[0].note").value("Integral"))
+                .andExpect(jsonPath("$.removedItemIds").isEmpty());
+
+        MvcResult added = mockMvc.perform(post("/api/shopping-lists/{id}/items", shoppingListId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                { "name": "Servilletas", "quantity": 1, "unit": "PIECE", "manual": true }
+                                """))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.upsertedItems[0].sortOrder").value(2))
+                .andReturn();
+        String manualItemId = JsonPath.read(added.getResponse().getContentAsString(), "$.upsertedItems[0].id");
+
+        mockMvc.perform(patch("/api/shopping-lists/{id}/items/{itemId}", shoppingListId, manualItemId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                { "sortOrder": 0 }
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.upsertedItems.length()").value(3))
+                .andExpect(jsonPath("$.upsertedItems[?(@.id=='%s')].sortOrder".formatted(manualItemId)).value(org.hamcrest.Matchers.hasItem(0)))
+                .andExpect(jsonPath("$.upsertedItems[?(@.id=='%s')].sortOrder".formatted(riceItemId)).value(org.hamcrest.Matchers.hasItem(1)));
+
+        mockMvc.perform(delete("/api/shopping-lists/{id}/items/{itemId}", shoppingListId, riceItemId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.upsertedItems").isEmpty())
+                .andExpect(jsonPath("$.removedItemIds[0]").value(riceItemId));
+
+        mockMvc.perform(get("/api/shopping-lists/{id}", shoppingListId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[?(@.id=='%s')].sortOrder".formatted(manualItemId)).value(org.hamcrest.Matchers.hasItem(0)));
+
+        mockMvc.perform(delete("/api/shopping-lists/{id}/items/{itemId}", shoppingListId, riceItemId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void editedQuantitySurvivesLaterPlanEdits() throws Exception {
+        String recipeRice = createRecipeAndGetId("Rice quantity", "LUNCH", "rice", 1, "CUP");
+        String planId = createPlanAndGetId(
+                "2026-02-09",
+                "WEEK",
+                "2026-02-10", "LUNCH", recipeRice,
+                null, null, null
+        );
+        MvcResult generated = mockMvc.perform(post("/api/shopping-lists/generate")
+                        .param("planId", planId))
+                .andExpect(status().isOk())
+                .andReturn();
+        String shoppingListId = JsonPath.read(generated.getResponse().getContentAsString(), "$.id");
+        String riceItemId = JsonPath.read(generated.getResponse().getContentAsString(), "$.items[0].id");
+
+        mockMvc.perform(patch("/api/shopping-lists/{id}/items/{itemId}", shoppingListId, riceItemId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                { "quantity": 1000 }
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.upsertedItems[0].quantity").value(1000.0))
+                .andExpect(jsonPath("$.upsertedItems[0].manual").value(true));
+
+        mockMvc.perform(put("/api/plans/{id}", planId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "startDate": "2026-02-09",
+                                  "period": "WEEK",
+                                  "slots": [
+                                    { "date": "2026-02-10", "mealType": "LUNCH", "recipeId": "%1$s" },
+                                    { "date": "2026-02-11", "mealType": "LUNCH", "recipeId": "%1$s" }
+                                  ]
+                                }
+                                """.formatted(recipeRice)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/shopping-lists/{id}", shoppingListId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(riceItemId))
+                .andExpect(jsonPath("$.items[0].quantity").value(1000.0));
+    }
+
+    @Test
+    void getShoppingListHonoursETagUntilAnItemChanges() throws Exception {
+        String shoppingListId = createGeneratedDraftId();
+
+        MvcResult first = mockMvc.perform(get("/api/shopping-lists/{id}", shoppingListId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        String riceItemId = JsonPath.read(first.getResponse().getContentAsString(), "$.items[0].id");
+
+        mockMvc.perform(get("/api/shopping-lists/{id}", shoppingListId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(patch("/api/shopping-lists/{id}/items/{itemId}", shoppingListId, riceItemId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                { "bought": true }
+                                """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/shopping-lists/{id}", shoppingListId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].bought").value(true));
+
+        mockMvc.perform(put("/api/shopping-lists/{id}", shoppingListId)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                { "items": [] }
+                                """))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.code").value("PRECONDITION_FAILED"));
+    }
+
+    @Test
+    void patchShoppingListItemRejectsTooLongNote() throws Exception {
+        String recipeId = createRecipeAndGetId("Rice", "LUNCH", "rice", 1, "CUP");
+        String planId = createPlanAndGetId(
+                "2026-02-09",
+                "WEEK",
+                "2026-02-10", "LUNCH", recipeId,
+                null, null, null
+        );
+        MvcResult generated = mockMvc.perform(post("/api/shopping-lists/generate")
+                        .param("planId", planId))
+                .andExpect(status().isOk())
+                .andReturn();
+        String shoppingListId = JsonPath.read(generated.getResponse().getContentAsString(), "$.id");
+        String itemId = JsonPath.read(generated.getResponse().getContentAsString(), "$.items[0].id");
+
+        mockMvc.perform(patch("/api/shopping-lists/{id}/items/{itemId}", shoppingListId, itemId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"note\": \"%s\" }".formatted("x".repeat(281))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("SHOPPING_ITEM_NOTE_TOO_LONG"));
+    }
+
     @Test
     void deleteShoppingListReturnsNoContentAndRemovesDraft() throws Exception {
         String recipeId = createRecipeAndGetId("Rice", "LUNCH", "rice", 1, "CUP");
@@ -1,5 +1,6 @@
 package com.appcompras.shopping;
 
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +22,9 @@ class ShoppingListDraftRepositoryTest {
     @Autowired
     private ShoppingListDraftRepository shoppingListDraftRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private ShoppingListDraftEntity draftUserA;
     private ShoppingListDraftEntity draftUserB;
 
@@ -262,4 +266,33 @@ class ShoppingListDraftRepositoryTest {
         assertFalse(draftAResult.isPresent());
         assertTrue(draftBResult.isPresent());
     }
+
+    @Test
+    void itemRowsLoadInSortOrderAndAreRemovedIndividually() {
+        ShoppingListDraftEntity draft = shoppingListDraftRepository.findByIdAndUserId("draft-a-1", "user-a").orElseThrow();
+        draft.addItem(item("item-late", 5));
+        draft.addItem(item("item-early", 1));
+        entityManager.flush();
+        entityManager.clear();
+
+        ShoppingListDraftEntity reloaded = shoppingListDraftRepository.findByIdAndUserId("draft-a-1", "user-a").orElseThrow();
+        assertEquals(List.of("item-early", "item-late"),
+                reloaded.getItems().stream().map(ShoppingListDraftItemEntity::getId).toList());
+        assertEquals(0L, reloaded.getItems().get(0).getVersion());
+
+        reloaded.getItems().remove(1);
+        reloaded.getItems().get(0).setBought(true);
+        entityManager.flush();
+        entityManager.clear();
+
+        ShoppingListDraftEntity afterRemoval = shoppingListDraftRepository.findByIdAndUserId("draft-a-1", "user-a").orElseThrow();
+        assertEquals(1, afterRemoval.getItems().size());
+        assertTrue(afterRemoval.getItems().get(0).isBought());
+        assertEquals(1L, afterRemoval.getItems().get(0).getVersion());
+    }
+
+    private ShoppingListDraftItemEntity item(String id, int sortOrder) {
+        return new ShoppingListDraftItemEntity(
+                id, null, "Item " + id, 1, "PIECE", null, null, null, true, false, null, sortOrder);
+    }
 }
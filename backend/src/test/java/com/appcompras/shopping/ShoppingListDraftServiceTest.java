@@ -11,11 +11,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -98,7 +101,7 @@ class ShoppingListDraftServiceTest {
         existing.setId("draft-id");
         existing.setUserId("test-user-id");
         when(shoppingListDraftRepository.findByIdAndUserId("draft-id", "test-user-id")).thenReturn(Optional.of(existing));
-        when(shoppingListDraftRepository.save(any(ShoppingListDraftEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(shoppingListDraftRepository.saveAndFlush(any(ShoppingListDraftEntity.class))).thenAnswer(inv -> inv.getArgument(0));
 
         UpdateShoppingListRequest.ItemInput item = new UpdateShoppingListRequest.ItemInput(
                 "item-1",
@@ -288,7 +291,7 @@ class ShoppingListDraftServiceTest {
         existing.setId("draft-id");
         existing.setUserId("test-user-id");
         when(shoppingListDraftRepository.findByIdAndUserId("draft-id", "test-user-id")).thenReturn(Optional.of(existing));
-        when(shoppingListDraftRepository.save(any(ShoppingListDraftEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(shoppingListDraftRepository.saveAndFlush(any(ShoppingListDraftEntity.class))).thenAnswer(inv -> inv.getArgument(0));
 
         String maxNote = "a".repeat(280);
         UpdateShoppingListRequest.ItemInput item = new UpdateShoppingListRequest.ItemInput(
@@ -343,7 +346,7 @@ class ShoppingListDraftServiceTest {
         existing.setId("draft-id");
         existing.setUserId("test-user-id");
         when(shoppingListDraftRepository.findByIdAndUserId("draft-id", "test-user-id")).thenReturn(Optional.of(existing));
-        when(shoppingListDraftRepository.save(any(ShoppingListDraftEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(shoppingListDraftRepository.saveAndFlush(any(ShoppingListDraftEntity.class))).thenAnswer(inv -> inv.getArgument(0));
 
         UpdateShoppingListRequest.ItemInput item = new UpdateShoppingListRequest.ItemInput(
                 "item-1",
@@ -485,4 +488,138 @@ class ShoppingListDraftServiceTest {
         boolean result = shoppingListDraftService.deleteById("nonexistent-id");
         assertFalse(result);
     }
+
+    @Test
+    void removeItemLeavesOtherRowsUntouched() {
+        ShoppingListDraftEntity existing = draftWithItems("a", "b", "c", "d");
+        when(shoppingListDraftRepository.findByIdAndUserId("draft-id", "test-user-id")).thenReturn(Optional.of(existing));
+
+        ShoppingListDraftDelta delta = shoppingListDraftService.removeItem("draft-id", "b").orElseThrow();
+
+        assertEquals(List.of("b"), delta.removedItemIds());
+        assertTrue(delta.upsertedItems().isEmpty());
+        assertEquals(List.of("a", "c", "d"), existing.getItems().stream().map(ShoppingListDraftItemEntity::getId).toList());
+        assertEquals(List.of(0, 2, 3), existing.getItems().stream().map(ShoppingListDraftItemEntity::getSortOrder).toList());
+    }
+
+    @Test
+    void replaceItemsKeepsRowsWithTheSameIdAndDropsTheRest() {
+        ShoppingListDraftEntity existing = draftWithItems("a", "b");
+        ShoppingListDraftItemEntity rowA = existing.getItems().get(0);
+        when(shoppingListDraftRepository.findByIdAndUserId("draft-id", "test-user-id")).thenReturn(Optional.of(existing));
+        when(shoppingListDraftRepository.saveAndFlush(any(ShoppingListDraftEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        shoppingListDraftService.replaceItems("draft-id", new UpdateShoppingListRequest(List.of(
+                new UpdateShoppingListRequest.ItemInput("new", null, "Servilletas", 1.0, "PIECE", null, null, null, true, false, null, 0),
+                new UpdateShoppingListRequest.ItemInput("a", null, "Item a", 1.0, "PIECE", null, null, null, true, true, null, 1)
+        )));
+
+        assertEquals(List.of("new", "a"), existing.getItems().stream().map(ShoppingListDraftItemEntity::getId).toList());
+        assertSame(rowA, existing.getItems().get(1));
+        assertTrue(rowA.isBought());
+        assertEquals(1, rowA.getSortOrder());
+        assertEquals("draft-id", existing.getItems().get(0).getDraftId());
+    }
+
+    @Test
+    void replaceItemsRejectsRepeatedItemIds() {
+        ShoppingListDraftEntity existing = draftWithItems("a");
+        when(shoppingListDraftRepository.findByIdAndUserId("draft-id", "test-user-id")).thenReturn(Optional.of(existing));
+
+        UpdateShoppingListRequest.ItemInput item = new UpdateShoppingListRequest.ItemInput(
+                "a", null, "Item a", 1.0, "PIECE", null, null, null, true, false, null, null);
+
+        BusinessRuleException ex = assertThrows(BusinessRuleException.class,
+                () -> shoppingListDraftService.replaceItems("draft-id", new UpdateShoppingListRequest(List.of(item, item))));
+        assertEquals("SHOPPING_ITEM_DUPLICATE_ID", ex.getCodeAsString());
+    }
+
+    @Test
+    void patchItemMovesItemAndReturnsOnlyShiftedItems() {
+        ShoppingListDraftEntity existing = draftWithItems("a", "b", "c", "d");
+        when(shoppingListDraftRepository.findByIdAndUserId("draft-id", "test-user-id")).thenReturn(Optional.of(existing));
+
+        ShoppingListDraftDelta delta = shoppingListDraftService
+                .patchItem("draft-id", "c", new PatchShoppingListItemRequest(null, null, null, 0))
+                .orElseThrow();
+
+        assertEquals(List.of("c", "a", "b"), delta.upsertedItems().stream().map(ShoppingListDraftItem::id).toList());
+        assertEquals(List.of(1, 2, 0, 3), existing.getItems().stream().map(ShoppingListDraftItemEntity::getSortOrder).toList());
+    }
+
+    @Test
+    void patchItemMoveKeepsGapsAndTouchesOnlyRowsInBetween() {
+        ShoppingListDraftEntity existing = draftWithItems("a", "b", "c", "d", "e");
+        List<Integer> sortOrders = List.of(0, 5, 10, 20, 30);
+        for (int i = 0; i < sortOrders.size(); i++) {
+            existing.getItems().get(i).setSortOrder(sortOrders.get(i));
+        }
+        when(shoppingListDraftRepository.findByIdAndUserId("draft-id", "test-user-id")).thenReturn(Optional.of(existing));
+
+        ShoppingListDraftDelta up = shoppingListDraftService
+                .patchItem("draft-id", "d", new PatchShoppingListItemRequest(null, null, null, 5))
+                .orElseThrow();
+
+        assertEquals(List.of("d", "b", "c"), up.upsertedItems().stream().map(ShoppingListDraftItem::id).toList());
+        assertEquals(List.of(0, 6, 11, 5, 30), existing.getItems().stream().map(ShoppingListDraftItemEntity::getSortOrder).toList());
+
+        ShoppingListDraftDelta down = shoppingListDraftService
+                .patchItem("draft-id", "b", new PatchShoppingListItemRequest(null, null, null, 11))
+                .orElseThrow();
+
+        assertEquals(List.of("b", "c"), down.upsertedItems().stream().map(ShoppingListDraftItem::id).toList());
+        assertEquals(List.of(0, 11, 10, 5, 30), existing.getItems().stream().map(ShoppingListDraftItemEntity::getSortOrder).toList());
+    }
+
+    @Test
+    void patchItemWithoutChangesKeepsUpdatedAt() {
+        ShoppingListDraftEntity existing = draftWithItems("a");
+        Instant updatedAt = existing.getUpdatedAt();
+        when(shoppingListDraftRepository.findByIdAndUserId("draft-id", "test-user-id")).thenReturn(Optional.of(existing));
+
+        ShoppingListDraftDelta delta = shoppingListDraftService
+                .patchItem("draft-id", "a", new PatchShoppingListItemRequest(false, null, null, 0))
+                .orElseThrow();
+
+        assertTrue(delta.upsertedItems().isEmpty());
+        assertEquals(updatedAt, delta.updatedAt());
+    }
+
+    @Test
+    void patchItemReturnsEmptyWhenItemMissing() {
+        ShoppingListDraftEntity existing = draftWithItems("a");
+        when(shoppingListDraftRepository.findByIdAndUserId("draft-id", "test-user-id")).thenReturn(Optional.of(existing));
+
+        assertTrue(shoppingListDraftService
+                .patchItem("draft-id", "missing", new PatchShoppingListItemRequest(true, null, null, null))
+                .isEmpty());
+    }
+
+    @Test
+    void addItemRejectsDuplicateItemId() {
+        ShoppingListDraftEntity existing = draftWithItems("a");
+        when(shoppingListDraftRepository.findByIdAndUserId("draft-id", "test-user-id")).thenReturn(Optional.of(existing));
+
+        UpdateShoppingListRequest.ItemInput duplicate = new UpdateShoppingListRequest.ItemInput(
+                "a", null, "Servilletas", 1.0, "PIECE", null, null, null, true, false, null, null);
+
+        BusinessRuleException ex = assertThrows(BusinessRuleException.class,
+                () -> shoppingListDraftService.addItem("draft-id", duplicate));
+        assertEquals("SHOPPING_ITEM_DUPLICATE_ID", ex.getCodeAsString());
+    }
+
+    private ShoppingListDraftEntity draftWithItems(String... itemIds) {
+        ShoppingListDraftEntity draft = new ShoppingListDraftEntity();
+        draft.setId("draft-id");
+        draft.setUserId("test-user-id");
+        draft.setPlanId("plan-id");
+        draft.setUpdatedAt(Instant.parse("2026-02-09T10:00:00Z"));
+        List<ShoppingListDraftItemEntity> items = new ArrayList<>();
+        for (int i = 0; i < itemIds.length; i++) {
+            items.add(new ShoppingListDraftItemEntity(
+                    itemIds[i], null, "Item " + itemIds[i], 1, "PIECE", null, null, null, true, false, null, i));
+        }
+        draft.setItems(items);
+        return draft;
+    }
 }
@@ -0,0 +1,244 @@
+package com.appcompras.shopping;
+
+import com.appcompras.domain.Unit;
+import com.appcompras.planning.MealPlanEntity;
+import com.appcompras.recipe.MealType;
+import com.appcompras.recipe.Recipe;
+import com.appcompras.recipe.RecipeIngredient;
+import com.appcompras.recipe.RecipeService;
+import com.appcompras.service.IngredientCatalogService;
+import com.appcompras.service.ShoppingListService;
+import com.appcompras.service.UnitConversionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ShoppingListRecomputationServiceTest {
+
+    @Mock
+    private RecipeService recipeService;
+
+    @Mock
+    private ShoppingListDraftRepository shoppingListDraftRepository;
+
+    private ShoppingListRecomputationService recomputationService;
+
+    @BeforeEach
+    void setUp() {
+        IngredientCatalogService catalogService = new IngredientCatalogService(new ObjectMapper());
+        ShoppingListService shoppingListService = new ShoppingListService(
+                catalogService, new UnitConversionService(catalogService));
+        recomputationService = new ShoppingListRecomputationService(
+                recipeService, shoppingListService, shoppingListDraftRepository);
+    }
+
+    @Test
+    void loadsOnlyChangedRecipesAndPatchesTheirDraftRows() {
+        MealPlanEntity plan = plan(Map.of("rice", 400.0, "oil", 30.0));
+        Instant totalsAt = plan.getIngredientTotalsAt();
+
+        ShoppingListDraftItemEntity riceRow = generatedRow("item-rice", "rice", 400.0, "GRAM", 1, 1.0, "KILOGRAM", 0);
+        riceRow.setBought(true);
+        riceRow.setNote("Integral");
+        ShoppingListDraftItemEntity oilRow = generatedRow("item-oil", "oil", 30.0, "MILLILITER", 1, 500.0, "MILLILITER", 1);
+        ShoppingListDraftItemEntity manualRow = new ShoppingListDraftItemEntity(
+                "item-manual", null, "Servilletas", 1, "PIECE", null, null, null, true, false, null, 5);
+        ShoppingListDraftEntity draft = draft(riceRow, oilRow, manualRow);
+        when(shoppingListDraftRepository.findAllByUserIdAndPlanId("test-user-id", "plan-id")).thenReturn(List.of(draft));
+
+        when(recipeService.findAllByIds(Set.of("recipe-rice", "recipe-egg"))).thenReturn(Map.of(
+                "recipe-rice", recipe("recipe-rice", new RecipeIngredient("rice", 200, Unit.GRAM)),
+                "recipe-egg", recipe("recipe-egg", new RecipeIngredient("egg", 2, Unit.PIECE))
+        ));
+
+        recomputationService.applyPlanChange(
+                plan,
+                Map.of("recipe-rice", 2, "recipe-oil", 1),
+                Map.of("recipe-rice", 1, "recipe-oil", 1, "recipe-egg", 1)
+        );
+
+        assertEquals(Map.of("rice", 200.0, "oil", 30.0, "egg", 2.0), plan.getIngredientTotals());
+        assertTrue(plan.getIngredientTotalsAt().isAfter(totalsAt));
+
+        List<ShoppingListDraftItemEntity> items = draft.getItems();
+        assertEquals(4, items.size());
+
+        assertEquals("item-rice", items.get(0).getId());
+        assertEquals(200.0, items.get(0).getQuantity());
+        assertTrue(items.get(0).isBought());
+        assertEquals("Integral", items.get(0).getNote());
+        assertEquals(0, items.get(0).getSortOrder());
+
+        assertEquals(30.0, items.get(1).getQuantity());
+        assertEquals("item-manual", items.get(2).getId());
+
+        ShoppingListDraftItemEntity eggRow = items.get(3);
+        assertEquals("egg", eggRow.getIngredientId());
+        assertEquals(2.0, eggRow.getQuantity());
+        assertEquals("PIECE", eggRow.getUnit());
+        assertEquals(1, eggRow.getSuggestedPackages());
+        assertFalse(eggRow.isManual());
+        assertEquals(6, eggRow.getSortOrder());
+        assertNotNull(draft.getUpdatedAt());
+    }
+
+    @Test
+    void removesGeneratedRowWhenIngredientIsNoLongerNeeded() {
+        MealPlanEntity plan = plan(Map.of("rice", 200.0));
+        ShoppingListDraftEntity draft = draft(generatedRow("item-rice", "rice", 200.0, "GRAM", 1, 1.0, "KILOGRAM", 0));
+        when(shoppingListDraftRepository.findAllByUserIdAndPlanId("test-user-id", "plan-id")).thenReturn(List.of(draft));
+        when(recipeService.findAllByIds(Set.of("recipe-rice"))).thenReturn(Map.of(
+                "recipe-rice", recipe("recipe-rice", new RecipeIngredient("rice", 200, Unit.GRAM))
+        ));
+
+        recomputationService.applyPlanChange(plan, Map.of("recipe-rice", 1), Map.of());
+
+        assertTrue(plan.getIngredientTotals().isEmpty());
+        assertTrue(draft.getItems().isEmpty());
+    }
+
+    @Test
+    void doesNotResurrectAGeneratedRowTheUserDeleted() {
+        MealPlanEntity plan = plan(Map.of("rice", 200.0));
+        ShoppingListDraftItemEntity manualRow = new ShoppingListDraftItemEntity(
+                "item-manual", null, "Servilletas", 1, "PIECE", null, null, null, true, false, null, 0);
+        ShoppingListDraftEntity draft = draft(manualRow);
+        when(shoppingListDraftRepository.findAllByUserIdAndPlanId("test-user-id", "plan-id")).thenReturn(List.of(draft));
+        when(recipeService.findAllByIds(Set.of("recipe-rice"))).thenReturn(Map.of(
+                "recipe-rice", recipe("recipe-rice", new RecipeIngredient("rice", 200, Unit.GRAM))
+        ));
+
+        recomputationService.applyPlanChange(plan, Map.of("recipe-rice", 1), Map.of("recipe-rice", 2));
+
+        assertEquals(Map.of("rice", 400.0), plan.getIngredientTotals());
+        assertEquals(List.of(manualRow), draft.getItems());
+    }
+
+    @Test
+    void rebuildsTotalsWhenTheyWereInvalidated() {
+        MealPlanEntity plan = plan(Map.of("rice", 999.0));
+        plan.setIngredientTotalsAt(null);
+        when(shoppingListDraftRepository.findAllByUserIdAndPlanId("test-user-id", "plan-id")).thenReturn(List.of());
+        when(recipeService.findAllByIds(Set.of("recipe-rice"))).thenReturn(Map.of(
+                "recipe-rice", recipe("recipe-rice", new RecipeIngredient("rice", 1, Unit.CUP))
+        ));
+
+        recomputationService.applyPlanChange(plan, Map.of("recipe-rice", 2), Map.of("recipe-rice", 2));
+
+        assertEquals(Map.of("rice", 360.0), plan.getIngredientTotals());
+        assertNotNull(plan.getIngredientTotalsAt());
+    }
+
+    @Test
+    void addsRowsForNewIngredientsAfterARecipeEditInvalidatedTheTotals() {
+        // recipe-rice was edited to 300 g of rice plus oil, which cleared the totals. Oil already belonged to the
+        // previous slots, so its missing row counts as deleted; egg only arrives with the new slot and gets a row.
+        MealPlanEntity plan = plan(Map.of("rice", 200.0));
+        plan.setIngredientTotalsAt(null);
+        ShoppingListDraftItemEntity riceRow = generatedRow("item-rice", "rice", 200.0, "GRAM", 1, 1.0, "KILOGRAM", 0);
+        ShoppingListDraftEntity draft = draft(riceRow);
+        when(shoppingListDraftRepository.findAllByUserIdAndPlanId("test-user-id", "plan-id")).thenReturn(List.of(draft));
+        when(recipeService.findAllByIds(Set.of("recipe-rice", "recipe-egg"))).thenReturn(Map.of(
+                "recipe-rice", recipe("recipe-rice",
+                        new RecipeIngredient("rice", 300, Unit.GRAM), new RecipeIngredient("oil", 30, Unit.MILLILITER)),
+                "recipe-egg", recipe("recipe-egg", new RecipeIngredient("egg", 2, Unit.PIECE))
+        ));
+
+        recomputationService.applyPlanChange(
+                plan,
+                Map.of("recipe-rice", 1),
+                Map.of("recipe-rice", 1, "recipe-egg", 1)
+        );
+
+        assertEquals(Map.of("rice", 300.0, "oil", 30.0, "egg", 2.0), plan.getIngredientTotals());
+        assertNotNull(plan.getIngredientTotalsAt());
+
+        List<ShoppingListDraftItemEntity> items = draft.getItems();
+        assertEquals(List.of("rice", "egg"), items.stream().map(ShoppingListDraftItemEntity::getIngredientId).toList());
+        assertEquals(300.0, items.get(0).getQuantity());
+        assertEquals(2.0, items.get(1).getQuantity());
+        assertEquals(1, items.get(1).getSortOrder());
+    }
+
+    @Test
+    void skipsWorkWhenSlotCountsAreUnchanged() {
+        MealPlanEntity plan = plan(Map.of("rice", 200.0));
+
+        recomputationService.applyPlanChange(plan, Map.of("recipe-rice", 1), Map.of("recipe-rice", 1));
+
+        verify(recipeService, never()).findAllByIds(any());
+        verify(shoppingListDraftRepository, never()).findAllByUserIdAndPlanId(any(), any());
+    }
+
+    @Test
+    void invalidatesTotalsWhenARecipeCannotBeConverted() {
+        MealPlanEntity plan = plan(Map.of());
+        when(recipeService.findAllByIds(Set.of("recipe-rice"))).thenReturn(Map.of(
+                "recipe-rice", recipe("recipe-rice", new RecipeIngredient("rice", 1, Unit.LITER))
+        ));
+
+        recomputationService.applyPlanChange(plan, Map.of(), Map.of("recipe-rice", 1));
+
+        assertNull(plan.getIngredientTotalsAt());
+        verify(shoppingListDraftRepository, never()).findAllByUserIdAndPlanId(any(), any());
+    }
+
+    private MealPlanEntity plan(Map<String, Double> totals) {
+        MealPlanEntity plan = new MealPlanEntity();
+        plan.setId("plan-id");
+        plan.setUserId("test-user-id");
+        plan.setIngredientTotals(new HashMap<>(totals));
+        plan.setIngredientTotalsAt(Instant.parse("2026-05-01T10:00:00Z"));
+        return plan;
+    }
+
+    private ShoppingListDraftEntity draft(ShoppingListDraftItemEntity... items) {
+        ShoppingListDraftEntity draft = new ShoppingListDraftEntity();
+        draft.setId("draft-id");
+        draft.setUserId("test-user-id");
+        draft.setPlanId("plan-id");
+        draft.setItems(new ArrayList<>(List.of(items)));
+        return draft;
+    }
+
+    private ShoppingListDraftItemEntity generatedRow(
+            String id,
+            String ingredientId,
+            double quantity,
+            String unit,
+            int packages,
+            double packageAmount,
+            String packageUnit,
+            int sortOrder
+    ) {
+        return new ShoppingListDraftItemEntity(
+                id, ingredientId, ingredientId, quantity, unit, packages, packageAmount, packageUnit,
+                false, false, null, sortOrder);
+    }
+
+    private Recipe recipe(String id, RecipeIngredient... ingredients) {
+        Instant now = Instant.now();
+        return new Recipe(id, id, MealType.LUNCH, List.of(ingredients), null, null, Set.of(), 0, null, now, now);
+    }
+}
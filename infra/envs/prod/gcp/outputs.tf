@@ -3,6 +3,11 @@ output "cloud_run_url" {
   description = "Cloud Run service URL (*.run.app)"
 }
 
+output "migrate_job_name" {
+  value       = google_cloud_run_v2_job.migrate.name
+  description = "Cloud Run job that applies Flyway migrations (run before each deploy)"
+}
+
 output "artifact_registry_url" {
   value       = "${var.region}-docker.pkg.dev/${var.project_id}/appcompras-backend"
   description = "Artifact Registry Docker repository URL"
@@ -34,6 +34,17 @@ resource "google_cloud_run_v2_service" "backend" {
         value = "0.1.0"
       }
 
+      # Migrations run in the migrate job below; instances only check the flyway_schema_history head
+      env {
+        name  = "APP_MIGRATE_ON_BOOT"
+        value = "false"
+      }
+
+      env {
+        name  = "APP_JPA_DDL_AUTO"
+        value = "none"
+      }
+
       # Secrets (sensitive values from Secret Manager)
       env {
         name = "SPRING_DATASOURCE_URL"
@@ -58,7 +69,7 @@ resource "google_cloud_run_v2_service" "backend" {
       # Startup probes (for slow-starting apps)
       startup_probe {
         http_get {
-          path = "/actuator/health"
+          path = "/actuator/health/readiness"
           port = 8080
         }
         failure_threshold = 10
@@ -103,6 +114,59 @@ resource "google_cloud_run_v2_service" "backend" {
   ]
 }
 
+# One-shot Flyway migration job (same image, profile migrate). The deploy workflow points it at the new
+# image and executes it before deploying the service revision.
+resource "google_cloud_run_v2_job" "migrate" {
+  name     = "${local.service_name}-migrate"
+  location = var.region
+
+  template {
+    task_count = 1
+
+    template {
+      service_account = google_service_account.deploy.email
+      max_retries     = 0
+      timeout         = "600s"
+
+      containers {
+        image = "${var.region}-docker.pkg.dev/${var.project_id}/appcompras-backend/backend:${var.image_tag}"
+
+        env {
+          name  = "SPRING_PROFILES_ACTIVE"
+          value = "migrate"
+        }
+
+        env {
+          name  = "APP_ENV"
+          value = "prod"
+        }
+
+        env {
+          name = "SPRING_DATASOURCE_URL"
+          value_source {
+            secret_key_ref {
+              secret  = google_secret_manager_secret.supabase_url.secret_id
+              version = "latest"
+            }
+          }
+        }
+
+        resources {
+          limits = {
+            cpu    = "1"
+            memory = "512Mi"
+          }
+        }
+      }
+    }
+  }
+
+  depends_on = [
+    google_project_service.required["run.googleapis.com"],
+    google_secret_manager_secret_iam_member.supabase_url,
+  ]
+}
+
 # IAM binding: allow public (unauthenticated) access
 resource "google_cloud_run_service_iam_member" "public_invocation" {
   service  = google_cloud_run_v2_service.backend.name
@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# Bakes a CRaC checkpoint into an image: builds backend/Dockerfile.crac, boots it once with CRAC_MODE=checkpoint
+# against the configured database, copies the checkpoint out of the stopped container and layers it on top of the
+# base image. Containers of the result restore instead of booting.
+# Usage: scripts/crac-bake.sh
+#   DB_URL, DB_USERNAME, DB_PASSWORD, GOOGLE_CLIENT_ID   the environment the image will restore into
+#   DOCKER_NETWORK                                       network that reaches the database (default: host bridge)
+#   CRAC_BASE_IMAGE, CRAC_IMAGE                           image tags (default appcompras-backend:crac-base, :crac)
+# The checkpoint boot runs --privileged: CRIU needs it to dump the process.
+
+ROOT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+BACKEND_DIR="$ROOT_DIR/backend"
+CRAC_BASE_IMAGE="${CRAC_BASE_IMAGE:-appcompras-backend:crac-base}"
+CRAC_IMAGE="${CRAC_IMAGE:-appcompras-backend:crac}"
+BUILD="${BUILD:-true}"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-300}"
+CONTAINER_NAME="appcompras-crac-bake"
+
+: "${DB_URL:?DB_URL is required}"
+: "${DB_USERNAME:?DB_USERNAME is required}"
+: "${DB_PASSWORD:?DB_PASSWORD is required}"
+: "${GOOGLE_CLIENT_ID:?GOOGLE_CLIENT_ID is required}"
+
+if ! command -v docker >/dev/null 2>&1; then
+  echo "docker is required"
+  exit 1
+fi
+
+WORK_DIR="$(mktemp -d)"
+cleanup() {
+  docker rm -f "$CONTAINER_NAME" >/dev/null 2>&1 || true
+  rm -rf "$WORK_DIR"
+}
+trap cleanup EXIT
+
+if [[ "$BUILD" == "true" ]]; then
+  docker build -t "$CRAC_BASE_IMAGE" -f "$BACKEND_DIR/Dockerfile.crac" "$BACKEND_DIR"
+fi
+
+# Values come from this shell's environment, so they never appear on the command line. The container is removed
+# afterwards and only /crac is copied into the new image; the checkpoint itself still holds them in memory.
+cleanup
+docker run -d --name "$CONTAINER_NAME" --privileged ${DOCKER_NETWORK:+--network "$DOCKER_NETWORK"} \
+  -e CRAC_MODE=checkpoint -e DB_URL -e DB_USERNAME -e DB_PASSWORD -e GOOGLE_CLIENT_ID \
+  "$CRAC_BASE_IMAGE" >/dev/null
+
+# The JVM exits once the checkpoint is written. If it cannot checkpoint, the app keeps serving instead.
+deadline=$((SECONDS + TIMEOUT_SECONDS))
+while [[ "$(docker inspect -f '{{.State.Running}}' "$CONTAINER_NAME")" == "true" ]]; do
+  if docker logs "$CONTAINER_NAME" 2>&1 | grep -q 'event=crac_checkpoint_failed'; then
+    echo "the checkpoint boot could not checkpoint; see the container logs" >&2
+    docker logs "$CONTAINER_NAME" >&2 || true
+    exit 1
+  fi
+  if (( SECONDS > deadline )); then
+    echo "the checkpoint boot did not finish within ${TIMEOUT_SECONDS}s" >&2
+    docker logs "$CONTAINER_NAME" >&2 || true
+    exit 1
+  fi
+  sleep 1
+done
+
+docker cp "$CONTAINER_NAME:/crac" "$WORK_DIR/crac"
+if ! ls "$WORK_DIR"/crac/core-*.img >/dev/null 2>&1; then
+  echo "the checkpoint boot exited without writing a checkpoint" >&2
+  docker logs "$CONTAINER_NAME" >&2 || true
+  exit 1
+fi
+
+printf 'FROM %s\nCOPY crac /crac\n' "$CRAC_BASE_IMAGE" | docker build -t "$CRAC_IMAGE" -f - "$WORK_DIR"
+echo "baked $CRAC_IMAGE from $CRAC_BASE_IMAGE"
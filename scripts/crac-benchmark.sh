@@ -0,0 +1,97 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# Time from `docker run` to the first 200 from /actuator/health: CRaC restore vs. a normal cold boot of the same image.
+# Usage: scripts/crac-benchmark.sh [runs]   (default 5 timed runs per mode)
+# Bakes the checkpoint with scripts/crac-bake.sh against the compose database first. Restores get CHECKPOINT_RESTORE
+# and SYS_PTRACE; without them the image boots cold.
+
+ROOT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+RUNS="${1:-5}"
+CRAC_IMAGE="${CRAC_IMAGE:-appcompras-backend:crac}"
+HOST_PORT="${HOST_PORT:-18080}"
+BUILD="${BUILD:-true}"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-180}"
+CONTAINER_NAME="appcompras-crac-benchmark"
+
+for tool in docker curl awk; do
+  if ! command -v "$tool" >/dev/null 2>&1; then
+    echo "$tool is required"
+    exit 1
+  fi
+done
+
+now_ms() {
+  local now
+  now="$(date +%s%3N)"
+  if [[ "$now" == *N ]]; then
+    now="$(python3 -c 'import time; print(int(time.time() * 1000))')"
+  fi
+  echo "$now"
+}
+
+cleanup() {
+  docker rm -f "$CONTAINER_NAME" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+cd "$ROOT_DIR"
+docker compose up -d --wait postgres
+NETWORK="$(docker inspect -f '{{range $name, $_ := .NetworkSettings.Networks}}{{$name}}{{end}}' appcompras-postgres)"
+DB_URL="jdbc:postgresql://appcompras-postgres:5432/${POSTGRES_DB:-appcompras}"
+DB_USERNAME="${POSTGRES_USER:-appcompras_user}"
+DB_PASSWORD="${POSTGRES_PASSWORD:-appcompras_pass}"
+GOOGLE_CLIENT_ID="${GOOGLE_CLIENT_ID:-crac-benchmark.apps.googleusercontent.com}"
+
+# The checkpoint boot also applies pending Flyway migrations.
+if [[ "$BUILD" == "true" ]]; then
+  DB_URL="$DB_URL" DB_USERNAME="$DB_USERNAME" DB_PASSWORD="$DB_PASSWORD" GOOGLE_CLIENT_ID="$GOOGLE_CLIENT_ID" \
+    DOCKER_NETWORK="$NETWORK" CRAC_IMAGE="$CRAC_IMAGE" "$ROOT_DIR/scripts/crac-bake.sh"
+fi
+
+# Prints milliseconds until the first healthy answer. Extra arguments go to `docker run`.
+start_once() {
+  cleanup
+  local started_at
+  started_at="$(now_ms)"
+  docker run -d --name "$CONTAINER_NAME" --network "$NETWORK" -p "$HOST_PORT:8080" \
+    -e DB_URL="$DB_URL" \
+    -e DB_USERNAME="$DB_USERNAME" \
+    -e DB_PASSWORD="$DB_PASSWORD" \
+    -e GOOGLE_CLIENT_ID="$GOOGLE_CLIENT_ID" \
+    "$@" "$CRAC_IMAGE" >/dev/null
+
+  local deadline=$((started_at + TIMEOUT_SECONDS * 1000))
+  until curl -fs -o /dev/null "http://127.0.0.1:$HOST_PORT/actuator/health"; do
+    if (( $(now_ms) > deadline )); then
+      echo "$CRAC_IMAGE did not become healthy within ${TIMEOUT_SECONDS}s" >&2
+      docker logs "$CONTAINER_NAME" >&2 || true
+      exit 1
+    fi
+    sleep 0.02
+  done
+  echo "$(( $(now_ms) - started_at ))"
+}
+
+# One untimed restore, which also proves the baked checkpoint restores at all.
+start_once --cap-add CHECKPOINT_RESTORE --cap-add SYS_PTRACE >/dev/null
+if ! docker logs "$CONTAINER_NAME" 2>&1 | grep -q 'event=crac_restore'; then
+  echo "$CRAC_IMAGE did not restore from its checkpoint; see the container logs" >&2
+  docker logs "$CONTAINER_NAME" >&2 || true
+  exit 1
+fi
+
+printf "%-8s %4s %16s\n" "mode" "run" "to health (ms)"
+RESULTS="$(
+  for run in $(seq 1 "$RUNS"); do
+    printf "%-8s %4d %16d\n" cold "$run" "$(start_once -e CRAC_MODE=off)"
+    printf "%-8s %4d %16d\n" restore "$run" "$(start_once --cap-add CHECKPOINT_RESTORE --cap-add SYS_PTRACE)"
+  done | tee /dev/stderr
+)"
+
+echo
+echo "Median time to first healthy /actuator/health"
+for mode in cold restore; do
+  awk -v mode="$mode" '$1 == mode { print $3 }' <<<"$RESULTS" | sort -n |
+    awk -v mode="$mode" '{ v[NR] = $1 } END { printf "%-8s %6d ms\n", mode, (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+done
@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+if [[ $# -ne 2 ]]; then
+  echo "usage: $0 <base-results.json> <head-results.json>"
+  exit 1
+fi
+
+if ! command -v jq >/dev/null 2>&1; then
+  echo "jq is required"
+  exit 1
+fi
+
+BASE_FILE="$1"
+HEAD_FILE="$2"
+
+summarize() {
+  jq -r '.[] | [
+      (.benchmark | split(".") | .[-2:] | join(".")) + ((.params // {}) | to_entries | map("[" + .key + "=" + .value + "]") | join("")),
+      .primaryMetric.score,
+      .primaryMetric.scoreUnit,
+      (.secondaryMetrics["gc.alloc.rate.norm"].score // "NaN")
+    ] | @tsv' "$1" | sort
+}
+
+printf "%-70s %14s %14s %9s %12s %12s\n" "benchmark" "base" "head" "delta" "base B/op" "head B/op"
+join -t $'\t' <(summarize "$BASE_FILE") <(summarize "$HEAD_FILE") |
+  while IFS=$'\t' read -r name base_score unit base_alloc head_score _ head_alloc; do
+    delta=$(awk -v b="$base_score" -v h="$head_score" 'BEGIN { if (b == 0) print "n/a"; else printf "%+.1f%%", (h - b) / b * 100 }')
+    printf "%-70s %14.3f %14.3f %9s %12.1f %12.1f  %s\n" "$name" "$base_score" "$head_score" "$delta" "$base_alloc" "$head_alloc" "$unit"
+  done
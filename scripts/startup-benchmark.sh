@@ -0,0 +1,100 @@
+#!/usr/bin/env bash
+set -euo pipefail
+
+# Time from `docker run` to the first 200 from /actuator/health, for the JVM and the native image.
+# Usage: scripts/startup-benchmark.sh [runs]   (default 5 timed runs per image, after one untimed run)
+# Both images run with auth on, as in prod: AOT fixes @ConditionalOnProperty beans at build time, so the native
+# image always has the JWT decoder.
+
+ROOT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+BACKEND_DIR="$ROOT_DIR/backend"
+RUNS="${1:-5}"
+JVM_IMAGE="${JVM_IMAGE:-appcompras-backend:jvm}"
+NATIVE_IMAGE="${NATIVE_IMAGE:-appcompras-backend:native}"
+HOST_PORT="${HOST_PORT:-18080}"
+BUILD="${BUILD:-true}"
+TIMEOUT_SECONDS="${TIMEOUT_SECONDS:-120}"
+CONTAINER_NAME="appcompras-startup-benchmark"
+
+for tool in docker curl awk; do
+  if ! command -v "$tool" >/dev/null 2>&1; then
+    echo "$tool is required"
+    exit 1
+  fi
+done
+
+now_ms() {
+  local now
+  now="$(date +%s%3N)"
+  if [[ "$now" == *N ]]; then
+    now="$(python3 -c 'import time; print(int(time.time() * 1000))')"
+  fi
+  echo "$now"
+}
+
+cleanup() {
+  docker rm -f "$CONTAINER_NAME" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+if [[ "$BUILD" == "true" ]]; then
+  docker build -t "$JVM_IMAGE" -f "$BACKEND_DIR/Dockerfile" "$BACKEND_DIR"
+  docker build -t "$NATIVE_IMAGE" -f "$BACKEND_DIR/Dockerfile.native" "$BACKEND_DIR"
+fi
+
+cd "$ROOT_DIR"
+docker compose up -d --wait postgres
+NETWORK="$(docker inspect -f '{{range $name, $_ := .NetworkSettings.Networks}}{{$name}}{{end}}' appcompras-postgres)"
+
+# Prints milliseconds until the first healthy answer, plus the startup time Spring logs itself.
+start_once() {
+  local image="$1"
+  cleanup
+  local started_at
+  started_at="$(now_ms)"
+  docker run -d --name "$CONTAINER_NAME" --network "$NETWORK" -p "$HOST_PORT:8080" \
+    -e DB_URL="jdbc:postgresql://appcompras-postgres:5432/${POSTGRES_DB:-appcompras}" \
+    -e DB_USERNAME="${POSTGRES_USER:-appcompras_user}" \
+    -e DB_PASSWORD="${POSTGRES_PASSWORD:-appcompras_pass}" \
+    -e GOOGLE_CLIENT_ID="${GOOGLE_CLIENT_ID:-startup-benchmark.apps.googleusercontent.com}" \
+    "$image" >/dev/null
+
+  local deadline=$((started_at + TIMEOUT_SECONDS * 1000))
+  until curl -fs -o /dev/null "http://127.0.0.1:$HOST_PORT/actuator/health"; do
+    if (( $(now_ms) > deadline )); then
+      echo "$image did not become healthy within ${TIMEOUT_SECONDS}s" >&2
+      docker logs "$CONTAINER_NAME" >&2 || true
+      exit 1
+    fi
+    sleep 0.02
+  done
+  local healthy_at
+  healthy_at="$(now_ms)"
+
+  local logged
+  logged="$(docker logs "$CONTAINER_NAME" 2>&1 | grep -o 'Started AppComprasApplication in [0-9.]* seconds' | awk '{ print $4 * 1000 }' || true)"
+  echo "$((healthy_at - started_at)) ${logged:-n/a}"
+}
+
+measure() {
+  local label="$1"
+  local image="$2"
+  # Untimed: applies pending Flyway migrations and warms the image layers.
+  start_once "$image" >/dev/null
+  local result health_ms spring_ms
+  for run in $(seq 1 "$RUNS"); do
+    result="$(start_once "$image")"
+    read -r health_ms spring_ms <<<"$result"
+    printf "%-8s %4d %16d %16s\n" "$label" "$run" "$health_ms" "$spring_ms"
+  done
+}
+
+printf "%-8s %4s %16s %16s\n" "image" "run" "to health (ms)" "spring log (ms)"
+RESULTS="$( { measure jvm "$JVM_IMAGE"; measure native "$NATIVE_IMAGE"; } | tee /dev/stderr )"
+
+echo
+echo "Median time to first healthy /actuator/health"
+for label in jvm native; do
+  awk -v label="$label" '$1 == label { print $3 }' <<<"$RESULTS" | sort -n |
+    awk -v label="$label" '{ v[NR] = $1 } END { printf "%-8s %6d ms\n", label, (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+done